@@ -0,0 +1,183 @@
+package com.ems.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process cache with a maximum size (least recently used entries go
+ * first) and a time-to-live per entry. Publishes the usual Micrometer cache
+ * meters tagged with the cache name: {@code cache.gets} (result=hit|miss),
+ * {@code cache.evictions} (cause=size|expired|explicit) and {@code cache.size}.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong expiredEvictions = new AtomicLong();
+    private final AtomicLong explicitEvictions = new AtomicLong();
+
+    public BoundedCache(String name, int maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maxSize, ttl, meterRegistry, System::nanoTime);
+    }
+
+    BoundedCache(String name, int maxSize, Duration ttl, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", name, "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", name, "result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", sizeEvictions, AtomicLong::get)
+                .tags("cache", name, "cause", "size").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", expiredEvictions, AtomicLong::get)
+                .tags("cache", name, "cause", "expired").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", explicitEvictions, AtomicLong::get)
+                .tags("cache", name, "cause", "explicit").register(meterRegistry);
+        Gauge.builder("cache.size", this, BoundedCache::size)
+                .tags("cache", name).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached value, or loads, caches and returns it. The loader
+     * runs outside the cache lock; a {@code null} result is not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        Optional<V> cached = getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public Optional<V> getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - ticker.getAsLong() > 0) {
+                hits.incrementAndGet();
+                return Optional.of(entry.value);
+            }
+            if (entry != null) {
+                entries.remove(key);
+                expiredEvictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    public void put(K key, V value) {
+        putUntil(key, value, ticker.getAsLong() + ttlNanos);
+    }
+
+    /**
+     * Caches {@code value} until {@code expiresAtNanos} (on the cache ticker)
+     * or the configured time-to-live, whichever comes first.
+     */
+    public void putUntil(K key, V value, long expiresAtNanos) {
+        putUntilIf(key, value, expiresAtNanos, () -> true);
+    }
+
+    /**
+     * Caches {@code value} only if {@code condition} holds, checked under the
+     * cache lock. An invalidation that changes what the condition reads
+     * before it invalidates can then never be overtaken by a put of a value
+     * loaded before it.
+     *
+     * @return whether the value was cached
+     */
+    public boolean putIf(K key, V value, BooleanSupplier condition) {
+        return putUntilIf(key, value, ticker.getAsLong() + ttlNanos, condition);
+    }
+
+    /**
+     * {@link #putUntil} guarded like {@link #putIf}.
+     */
+    public boolean putUntilIf(K key, V value, long expiresAtNanos, BooleanSupplier condition) {
+        long expiresAt = Math.min(expiresAtNanos, ticker.getAsLong() + ttlNanos);
+        synchronized (entries) {
+            if (!condition.getAsBoolean()) {
+                return false;
+            }
+            entries.put(key, new Entry<>(value, expiresAt));
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.incrementAndGet();
+            }
+            return true;
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            if (entries.remove(key) != null) {
+                explicitEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateIf(Predicate<K> predicate) {
+        synchronized (entries) {
+            Iterator<K> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                if (predicate.test(keys.next())) {
+                    keys.remove();
+                    explicitEvictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            explicitEvictions.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long evictionCount() {
+        return sizeEvictions.get() + expiredEvictions.get() + explicitEvictions.get();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
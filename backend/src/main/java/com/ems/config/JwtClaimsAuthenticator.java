@@ -0,0 +1,75 @@
+package com.ems.config;
+
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Claims-only path of {@link JwtAuthenticationFilter}: builds the
+ * authenticated principal from the verified claims of a token instead of
+ * loading the user, and revokes it through {@link TokenVersionService}. The
+ * principal is a detached {@link User} carrying id, username and role only;
+ * code that needs anything else loads the user itself.
+ * <p>
+ * Tokens issued without the version claims keep going through the lookup
+ * path until they expire.
+ */
+@Slf4j
+@Component
+public class JwtClaimsAuthenticator {
+
+    private final TokenVersionService tokenVersionService;
+    private final boolean enabled;
+
+    public JwtClaimsAuthenticator(TokenVersionService tokenVersionService,
+                                  @Value("${jwt.claims-only:true}") boolean enabled) {
+        this.tokenVersionService = tokenVersionService;
+        this.enabled = enabled;
+    }
+
+    public boolean supports(Claims claims) {
+        return enabled
+                && claims.get(TokenVersionService.USER_ID_CLAIM) instanceof Number
+                && claims.get(TokenVersionService.VERSION_CLAIM) instanceof Number
+                && claims.get(TokenVersionService.ROLE_CLAIM) instanceof String;
+    }
+
+    /**
+     * Authenticates signature- and expiry-checked {@code claims}; empty if
+     * the token was revoked or its claims are malformed.
+     */
+    public Optional<UsernamePasswordAuthenticationToken> authenticate(Claims claims) {
+        if (!supports(claims)) {
+            return Optional.empty();
+        }
+        Long userId = ((Number) claims.get(TokenVersionService.USER_ID_CLAIM)).longValue();
+        int version = ((Number) claims.get(TokenVersionService.VERSION_CLAIM)).intValue();
+        Role role;
+        try {
+            role = Role.valueOf((String) claims.get(TokenVersionService.ROLE_CLAIM));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getSubject() == null) {
+            return Optional.empty();
+        }
+        if (!tokenVersionService.isCurrent(userId, version)) {
+            log.debug("Rejected revoked token of user {}", userId);
+            return Optional.empty();
+        }
+
+        User principal = new User();
+        principal.setId(userId);
+        principal.setUsername(claims.getSubject());
+        principal.setRole(role);
+        principal.setEnabled(true);
+        return Optional.of(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
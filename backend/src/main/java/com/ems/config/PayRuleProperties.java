@@ -0,0 +1,32 @@
+package com.ems.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pay rules as data: a default rule set plus optional per-department
+ * overrides, e.g. {@code payroll.rules.departments[Operations].weekend-multiplier=1.5}.
+ * Thresholds are hours; a {@code null} threshold or multiplier turns the rule off.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "payroll.rules")
+public class PayRuleProperties {
+
+    private RuleSet defaults = new RuleSet();
+    private Map<String, RuleSet> departments = new LinkedHashMap<>();
+
+    @Data
+    public static class RuleSet {
+        private Double dailyThresholdHours = 8.0;
+        private Double overtimeMultiplier = 1.5;
+        private Double weeklyThresholdHours;
+        private Double doubleTimeThresholdHours;
+        private Double doubleTimeMultiplier = 2.0;
+        private Double weekendMultiplier;
+    }
+}
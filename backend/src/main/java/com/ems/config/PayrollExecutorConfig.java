@@ -0,0 +1,35 @@
+package com.ems.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated, bounded pool for partitioned payroll runs so month-end payroll
+ * never competes with the servlet threads or the common ForkJoin pool.
+ * Partitions block on JDBC, so this is a plain fixed-size thread pool; once
+ * its queue is full the submitting thread computes the partition itself.
+ */
+@Configuration
+public class PayrollExecutorConfig {
+
+    @Value("${payroll.parallel.pool-size:0}")
+    private int poolSize;
+
+    @Value("${payroll.parallel.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor payrollPool() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("payroll-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,33 @@
+package com.ems.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated, bounded pool for writing server-sent work log events. A send
+ * blocks for as long as a slow client takes to read, so these writes stay
+ * off the shared application executor used by report jobs and payroll runs.
+ * When the pool and its queue are full, new drains are rejected and the
+ * affected stream is closed instead of waiting.
+ */
+@Configuration
+public class WorkLogStreamConfig {
+
+    @Value("${work-logs.stream.pool-size:4}")
+    private int poolSize;
+
+    @Value("${work-logs.stream.queue-capacity:2000}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor workLogStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, poolSize));
+        executor.setMaxPoolSize(Math.max(1, poolSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("worklog-stream-");
+        return executor;
+    }
+}
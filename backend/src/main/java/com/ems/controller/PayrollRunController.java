@@ -0,0 +1,36 @@
+package com.ems.controller;
+
+import com.ems.dto.payroll.PayrollRunResponse;
+import com.ems.service.PayrollBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/payroll/runs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class PayrollRunController {
+
+    private final PayrollBatchService payrollBatchService;
+
+    @PostMapping
+    public ResponseEntity<PayrollRunResponse> startRun(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth yearMonth) {
+        return ResponseEntity.accepted().body(payrollBatchService.startRun(yearMonth));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PayrollRunResponse> getRun(@PathVariable Long id) {
+        return ResponseEntity.ok(payrollBatchService.getRun(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<PayrollRunResponse> resumeRun(@PathVariable Long id) {
+        return ResponseEntity.accepted().body(payrollBatchService.resumeRun(id));
+    }
+}
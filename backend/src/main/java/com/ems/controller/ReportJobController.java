@@ -0,0 +1,47 @@
+package com.ems.controller;
+
+import com.ems.dto.payroll.ReportJobResponse;
+import com.ems.service.PayrollExportService;
+import com.ems.service.ReportJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/payroll/report-jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobResponse> createReportJob(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth yearMonth,
+            @RequestParam(defaultValue = "csv") String format) {
+        return ResponseEntity.accepted().body(reportJobService.createPayrollReportJob(yearMonth, format));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobResponse> getReportJob(@PathVariable Long id) {
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Resource> downloadResult(@PathVariable Long id) {
+        Resource result = reportJobService.getResult(id);
+        PayrollExportService.ExportFormat format = reportJobService.getFormat(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + result.getFilename() + "\"")
+                .body(result);
+    }
+}
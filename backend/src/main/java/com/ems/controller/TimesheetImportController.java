@@ -0,0 +1,27 @@
+package com.ems.controller;
+
+import com.ems.dto.worklog.TimesheetImportResponse;
+import com.ems.service.TimesheetImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/work-logs")
+@RequiredArgsConstructor
+public class TimesheetImportController {
+
+    private final TimesheetImportService timesheetImportService;
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TimesheetImportResponse> importTimesheet(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(timesheetImportService.importTimesheet(file));
+    }
+}
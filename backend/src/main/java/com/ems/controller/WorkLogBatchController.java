@@ -0,0 +1,26 @@
+package com.ems.controller;
+
+import com.ems.dto.worklog.WorkLogBatchItem;
+import com.ems.dto.worklog.WorkLogBatchResponse;
+import com.ems.service.WorkLogBatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/work-logs")
+@RequiredArgsConstructor
+public class WorkLogBatchController {
+
+    private final WorkLogBatchService workLogBatchService;
+
+    @PostMapping("/batch")
+    public ResponseEntity<WorkLogBatchResponse> createWorkLogs(@RequestBody List<WorkLogBatchItem> items) {
+        return ResponseEntity.ok(workLogBatchService.ingest(items));
+    }
+}
@@ -0,0 +1,28 @@
+package com.ems.controller;
+
+import com.ems.dto.worklog.WorkLogBulkStatusRequest;
+import com.ems.dto.worklog.WorkLogBulkStatusResponse;
+import com.ems.service.WorkLogBulkStatusService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/work-logs")
+@RequiredArgsConstructor
+public class WorkLogBulkStatusController {
+
+    private final WorkLogBulkStatusService workLogBulkStatusService;
+
+    @PutMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<WorkLogBulkStatusResponse> updateStatuses(
+            @Valid @RequestBody WorkLogBulkStatusRequest request) {
+        return ResponseEntity.ok(workLogBulkStatusService.updateStatuses(request));
+    }
+}
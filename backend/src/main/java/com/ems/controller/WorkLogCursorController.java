@@ -0,0 +1,26 @@
+package com.ems.controller;
+
+import com.ems.dto.CursorPage;
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.service.CursorPaginationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/work-logs")
+@RequiredArgsConstructor
+public class WorkLogCursorController {
+
+    private final CursorPaginationService cursorPaginationService;
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<WorkLogResponse>> getUserWorkLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(cursorPaginationService.getUserWorkLogs(cursor, size));
+    }
+}
@@ -0,0 +1,29 @@
+package com.ems.controller;
+
+import com.ems.service.WorkLogStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/work-logs/stream")
+@RequiredArgsConstructor
+public class WorkLogStreamController {
+
+    private final WorkLogStreamService workLogStreamService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUserWorkLogs() {
+        return workLogStreamService.subscribe(false);
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public SseEmitter streamAllWorkLogs() {
+        return workLogStreamService.subscribe(true);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ems.controller;
+
+import com.ems.dto.worklog.WorkLogRequest;
+import com.ems.dto.worklog.WorkLogUpsertResponse;
+import com.ems.service.WorkLogUpsertService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/work-logs")
+@RequiredArgsConstructor
+public class WorkLogUpsertController {
+
+    private final WorkLogUpsertService workLogUpsertService;
+
+    /**
+     * Creates or replaces the caller's work log for the request's date:
+     * 201 when it was created, 200 when an existing log was updated or is
+     * approved and therefore left as it was.
+     */
+    @PutMapping("/upsert")
+    public ResponseEntity<WorkLogUpsertResponse> upsertWorkLog(@Valid @RequestBody WorkLogRequest request) {
+        WorkLogUpsertResponse response = workLogUpsertService.upsertWorkLog(request);
+        HttpStatus status = response.getOutcome() == WorkLogUpsertResponse.Outcome.CREATED
+                ? HttpStatus.CREATED
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+}
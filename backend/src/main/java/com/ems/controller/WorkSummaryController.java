@@ -0,0 +1,29 @@
+package com.ems.controller;
+
+import com.ems.dto.MonthlyWorkTotals;
+import com.ems.service.WorkSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/work-logs")
+@RequiredArgsConstructor
+public class WorkSummaryController {
+
+    private final WorkSummaryService workSummaryService;
+
+    @GetMapping("/monthly-totals")
+    public ResponseEntity<List<MonthlyWorkTotals>> getMonthlyWorkTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(workSummaryService.getMonthlyWorkSummary(startDate, endDate));
+    }
+}
@@ -0,0 +1,31 @@
+package com.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+/**
+ * The figures of a {@link MonthlyWorkSummary}, filled from grouped
+ * aggregate rows instead of the month's {@code WorkLog} entities. Property
+ * names match {@code MonthlyWorkSummary}, so both serialize the same way.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyWorkTotals {
+
+    private YearMonth yearMonth;
+    private double totalHoursWorked;
+    private double approvedHours;
+    private double pendingHours;
+    private double overtimeHours;
+    private double averageHoursPerDay;
+    private int workDaysCount;
+    private int totalWorkLogs;
+    private int approvedWorkLogs;
+    private int pendingWorkLogs;
+}
@@ -0,0 +1,22 @@
+package com.ems.dto.payroll;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One employee's approved hours on one day, the input pay rules are
+ * evaluated on when daily totals of the month are not enough.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovedDay {
+
+    private LocalDate date;
+    private double hours;
+}
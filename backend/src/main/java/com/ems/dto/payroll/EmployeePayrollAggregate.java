@@ -0,0 +1,30 @@
+package com.ems.dto.payroll;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One employee's approved hours for a pay period, as produced by the
+ * set-based payroll aggregation over work_logs joined to users.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePayrollAggregate {
+
+    private Long userId;
+    private String firstName;
+    private String lastName;
+    private String department;
+    private Double hourlyRate;
+    private double totalHours;
+    private double regularHours;
+    private double overtimeHours;
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+}
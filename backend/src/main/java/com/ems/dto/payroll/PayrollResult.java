@@ -0,0 +1,141 @@
+package com.ems.dto.payroll;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable payroll of one employee for one month. Amounts are held as long
+ * cents and hours as long hundredths of an hour; the JSON form is the same
+ * as the map returned by {@code PayrollService.calculatePayroll}. Weekend
+ * hours and pay are only non-zero under a weekend pay rule; they are not part
+ * of the regular or overtime figures, and {@code weekendHours} and
+ * {@code earnings.weekendPay} are left out of both forms when there are none.
+ */
+@Value
+@Builder
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+@JsonPropertyOrder({"employeeId", "employeeName", "period", "totalHours", "regularHours", "overtimeHours",
+        "weekendHours", "earnings", "deductions", "netPay"})
+public class PayrollResult {
+
+    Long employeeId;
+    String employeeName;
+    String period;
+
+    long totalHundredths;
+    long regularHundredths;
+    long overtimeHundredths;
+    long weekendHundredths;
+
+    long regularPayCents;
+    long overtimePayCents;
+    long weekendPayCents;
+    long grossPayCents;
+
+    long taxCents;
+    long insuranceCents;
+    long pensionCents;
+    long totalDeductionsCents;
+
+    long netPayCents;
+
+    @JsonProperty("employeeId")
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    @JsonProperty("employeeName")
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    @JsonProperty("period")
+    public String getPeriod() {
+        return period;
+    }
+
+    @JsonProperty("totalHours")
+    public double getTotalHours() {
+        return totalHundredths / 100.0;
+    }
+
+    @JsonProperty("regularHours")
+    public double getRegularHours() {
+        return regularHundredths / 100.0;
+    }
+
+    @JsonProperty("overtimeHours")
+    public double getOvertimeHours() {
+        return overtimeHundredths / 100.0;
+    }
+
+    @JsonProperty("weekendHours")
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public double getWeekendHours() {
+        return weekendHundredths / 100.0;
+    }
+
+    @JsonProperty("earnings")
+    public Map<String, Double> getEarnings() {
+        Map<String, Double> earnings = new HashMap<>();
+        earnings.put("regularPay", regularPayCents / 100.0);
+        earnings.put("overtimePay", overtimePayCents / 100.0);
+        if (hasWeekendHours()) {
+            earnings.put("weekendPay", weekendPayCents / 100.0);
+        }
+        earnings.put("grossPay", grossPayCents / 100.0);
+        return earnings;
+    }
+
+    @JsonProperty("deductions")
+    public Map<String, Double> getDeductions() {
+        Map<String, Double> deductions = new HashMap<>();
+        deductions.put("tax", taxCents / 100.0);
+        deductions.put("insurance", insuranceCents / 100.0);
+        deductions.put("pension", pensionCents / 100.0);
+        deductions.put("total", totalDeductionsCents / 100.0);
+        return deductions;
+    }
+
+    @JsonProperty("netPay")
+    public double getNetPay() {
+        return netPayCents / 100.0;
+    }
+
+    public double getGrossPay() {
+        return grossPayCents / 100.0;
+    }
+
+    /**
+     * Map form for callers still typed against {@code Map<String, Object>}.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> payroll = new HashMap<>();
+        payroll.put("employeeId", employeeId);
+        payroll.put("employeeName", employeeName);
+        payroll.put("period", period);
+        payroll.put("totalHours", getTotalHours());
+        payroll.put("regularHours", getRegularHours());
+        payroll.put("overtimeHours", getOvertimeHours());
+        if (hasWeekendHours()) {
+            payroll.put("weekendHours", getWeekendHours());
+        }
+        payroll.put("earnings", getEarnings());
+        payroll.put("deductions", getDeductions());
+        payroll.put("netPay", getNetPay());
+        return payroll;
+    }
+
+    private boolean hasWeekendHours() {
+        return weekendHundredths != 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ems.dto.payroll;
+
+import com.ems.model.PayrollRun;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRunResponse {
+
+    private Long id;
+    private String period;
+    private PayrollRun.PayrollRunStatus status;
+    private Integer chunkSize;
+    private Integer commitInterval;
+    private Long lastUserId;
+    private Long processedCount;
+    private Double employeesPerSecond;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public static PayrollRunResponse fromEntity(PayrollRun run) {
+        return PayrollRunResponse.builder()
+                .id(run.getId())
+                .period(run.getPeriod())
+                .status(run.getStatus())
+                .chunkSize(run.getChunkSize())
+                .commitInterval(run.getCommitInterval())
+                .lastUserId(run.getLastUserId())
+                .processedCount(run.getProcessedCount())
+                .employeesPerSecond(run.getEmployeesPerSecond())
+                .errorMessage(run.getErrorMessage())
+                .createdAt(run.getCreatedAt())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+}
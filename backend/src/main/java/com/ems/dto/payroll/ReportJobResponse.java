@@ -0,0 +1,42 @@
+package com.ems.dto.payroll;
+
+import com.ems.model.ReportJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+
+    private Long id;
+    private String period;
+    private String format;
+    private ReportJob.ReportJobStatus status;
+    private Integer progress;
+    private Long resultSize;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public static ReportJobResponse fromEntity(ReportJob job) {
+        return ReportJobResponse.builder()
+                .id(job.getId())
+                .period(job.getPeriod())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .progress(job.getProgress())
+                .resultSize(job.getResultSize())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
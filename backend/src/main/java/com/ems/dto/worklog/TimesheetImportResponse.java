@@ -0,0 +1,39 @@
+package com.ems.dto.worklog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a timesheet import. Only failed lines are listed, up to
+ * {@code work-logs.import.max-reported-errors}; the counters always cover
+ * the whole file.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimesheetImportResponse {
+
+    private String format;
+    private long lines;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMillis;
+    private double linesPerSecond;
+    private List<LineError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private WorkLogBatchResponse.ItemStatus status;
+        private String message;
+    }
+}
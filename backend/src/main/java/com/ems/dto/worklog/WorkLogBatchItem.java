@@ -0,0 +1,30 @@
+package com.ems.dto.worklog;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a bulk work log upload: a {@link WorkLogRequest} plus the
+ * employee it belongs to. The request's fields sit next to {@code userId} in
+ * the JSON and are validated by the request's own constraints; Jackson
+ * always creates the unwrapped request, so a missing work log shows up as
+ * violations of those constraints.
+ * {@code userId} may be omitted for the caller's own logs; only
+ * administrators may submit logs for other users.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkLogBatchItem {
+
+    private Long userId;
+
+    @Valid
+    @JsonUnwrapped
+    private WorkLogRequest workLog;
+}
@@ -0,0 +1,38 @@
+package com.ems.dto.worklog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkLogBatchResponse {
+
+    private int received;
+    private int created;
+    private int duplicates;
+    private int invalid;
+    private long elapsedMillis;
+    private double itemsPerSecond;
+    private List<ItemResult> results;
+
+    public enum ItemStatus {
+        CREATED,
+        DUPLICATE,
+        INVALID
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private ItemStatus status;
+        private String message;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ems.dto.worklog;
+
+import com.ems.model.WorkLog;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Either {@code ids}, or a filter of a date range with an optional
+ * department, selecting logs currently in {@code currentStatus}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkLogBulkStatusRequest {
+
+    @NotNull(message = "Status is required")
+    private WorkLog.WorkLogStatus status;
+
+    private List<Long> ids;
+
+    private String department;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Builder.Default
+    private WorkLog.WorkLogStatus currentStatus = WorkLog.WorkLogStatus.PENDING;
+}
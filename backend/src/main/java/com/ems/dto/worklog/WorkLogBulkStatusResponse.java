@@ -0,0 +1,20 @@
+package com.ems.dto.worklog;
+
+import com.ems.model.WorkLog;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkLogBulkStatusResponse {
+
+    private WorkLog.WorkLogStatus status;
+    private int requested;
+    private int updated;
+    private int skipped;
+    private int affectedUsers;
+}
@@ -0,0 +1,22 @@
+package com.ems.dto.worklog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkLogUpsertResponse {
+
+    private Outcome outcome;
+    private WorkLogResponse workLog;
+
+    public enum Outcome {
+        CREATED,
+        UPDATED,
+        UNCHANGED
+    }
+}
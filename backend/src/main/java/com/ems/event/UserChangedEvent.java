@@ -0,0 +1,53 @@
+package com.ems.event;
+
+import com.ems.model.Role;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * Published by {@code UserService} after a user is updated, enabled or
+ * disabled, or deleted, with enough of the old and new state for listeners
+ * to invalidate exactly what depends on it.
+ */
+@Getter
+@Builder
+@ToString
+public class UserChangedEvent {
+
+    public enum ChangeType {
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Long userId;
+    private final String username;
+    private final String previousUsername;
+    private final Double hourlyRate;
+    private final Double previousHourlyRate;
+    private final String fullName;
+    private final String previousFullName;
+    private final String department;
+    private final String previousDepartment;
+    private final Role role;
+    private final boolean enabled;
+
+    public boolean hourlyRateChanged() {
+        return !Objects.equals(hourlyRate, previousHourlyRate);
+    }
+
+    public boolean departmentChanged() {
+        return !Objects.equals(department, previousDepartment);
+    }
+
+    public boolean payrollIdentityChanged() {
+        return type == ChangeType.DELETED
+                || hourlyRateChanged()
+                || !Objects.equals(fullName, previousFullName)
+                || departmentChanged();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ems.event;
+
+import com.ems.model.WorkLog;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Published by {@code WorkLogService} whenever a work log is created, edited,
+ * has its status changed or is deleted. Carries both the previous and the new
+ * values so listeners can tell which user-months were affected.
+ */
+@Getter
+@Builder
+@ToString
+public class WorkLogChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final ChangeType type;
+    private final Long workLogId;
+    private final Long userId;
+    private final LocalDate date;
+    private final LocalDate previousDate;
+    private final Double hoursWorked;
+    private final Double previousHoursWorked;
+    private final WorkLog.WorkLogStatus status;
+    private final WorkLog.WorkLogStatus previousStatus;
+
+    public boolean affectsApprovedHours() {
+        return status == WorkLog.WorkLogStatus.APPROVED
+                || previousStatus == WorkLog.WorkLogStatus.APPROVED;
+    }
+
+    public YearMonth getYearMonth() {
+        return date != null ? YearMonth.from(date) : null;
+    }
+
+    public YearMonth getPreviousYearMonth() {
+        return previousDate != null ? YearMonth.from(previousDate) : null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ems.event;
+
+import com.ems.model.WorkLog;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Published after a bulk status change of work logs, and by bulk ingestion
+ * for each committed chunk of new PENDING logs. Instead of one
+ * {@link WorkLogChangedEvent} per log it carries the affected months per
+ * user, so listeners refresh each user-month once.
+ */
+@Getter
+@Builder
+@ToString
+public class WorkLogsStatusChangedEvent {
+
+    private final WorkLog.WorkLogStatus status;
+    private final boolean approvedHoursChanged;
+    private final int updatedCount;
+    private final Map<Long, Set<YearMonth>> userMonths;
+
+    public boolean affectsApprovedHours() {
+        return approvedHoursChanged;
+    }
+
+    public Set<YearMonth> getMonths() {
+        Set<YearMonth> months = new TreeSet<>();
+        userMonths.values().forEach(months::addAll);
+        return months;
+    }
+
+    public Collection<Long> getUserIds() {
+        return userMonths.keySet();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ems.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Answers a {@link ResponseStatusException} with its own status and headers,
+ * such as the 503 and {@code Retry-After} of a {@link ServiceBusyException},
+ * in the body format of {@link GlobalExceptionHandler}. Ordered ahead of it,
+ * since its {@code RuntimeException} handler would turn these into 500s.
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ResponseStatusExceptionHandler {
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatus(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", ex.getStatusCode().value());
+        body.put("error", status != null ? status.getReasonPhrase() : ex.getStatusCode().toString());
+        body.put("message", ex.getReason());
+        log.debug("Request failed with status {}: {}", ex.getStatusCode().value(), ex.getReason());
+        return ResponseEntity.status(ex.getStatusCode())
+                .headers(ex.getHeaders())
+                .body(body);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ems.exception;
+
+/**
+ * A work log could not be written for a reason other than invalid input,
+ * such as a write that keeps losing to concurrent writers.
+ */
+public class WorkLogProcessingException extends RuntimeException {
+
+    public WorkLogProcessingException(String message) {
+        super(message);
+    }
+
+    public WorkLogProcessingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
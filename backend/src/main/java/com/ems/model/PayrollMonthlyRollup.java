@@ -0,0 +1,49 @@
+package com.ems.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payroll totals of one department for one closed month.
+ */
+@Entity
+@Table(name = "payroll_monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "unique_period_department", columnNames = {"period", "department"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Column(nullable = false, length = 50)
+    private String department;
+
+    @Column(name = "employee_count")
+    private Integer employeeCount;
+
+    @Column(name = "total_hours")
+    private Double totalHours;
+
+    @Column(name = "gross_pay")
+    private Double grossPay;
+
+    @Column(name = "net_pay")
+    private Double netPay;
+
+    @UpdateTimestamp
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,79 @@
+package com.ems.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A month-end payroll batch run. {@code lastUserId} and
+ * {@code processedCount} are the checkpoint written with every committed
+ * chunk, so an interrupted run continues after the last committed user.
+ */
+@Entity
+@Table(name = "payroll_runs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private PayrollRunStatus status = PayrollRunStatus.QUEUED;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Column(name = "commit_interval", nullable = false)
+    private Integer commitInterval;
+
+    @Column(name = "last_user_id", nullable = false)
+    @Builder.Default
+    private Long lastUserId = 0L;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private Long processedCount = 0L;
+
+    @Column(name = "employees_per_second")
+    private Double employeesPerSecond;
+
+    @Column(name = "requested_by")
+    private Long requestedBy;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    public enum PayrollRunStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,86 @@
+package com.ems.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Materialized payroll figures for one employee and one month, refreshed
+ * whenever an approved work log of that month changes.
+ */
+@Entity
+@Table(name = "payroll_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "unique_user_period", columnNames = {"user_id", "period"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "employee_name")
+    private String employeeName;
+
+    private String department;
+
+    @Column(name = "total_hours")
+    private Double totalHours;
+
+    @Column(name = "regular_hours")
+    private Double regularHours;
+
+    @Column(name = "overtime_hours")
+    private Double overtimeHours;
+
+    @Column(name = "weekend_hours", nullable = false)
+    @Builder.Default
+    private Double weekendHours = 0.0;
+
+    @Column(name = "regular_pay")
+    private Double regularPay;
+
+    @Column(name = "overtime_pay")
+    private Double overtimePay;
+
+    @Column(name = "weekend_pay", nullable = false)
+    @Builder.Default
+    private Double weekendPay = 0.0;
+
+    @Column(name = "gross_pay")
+    private Double grossPay;
+
+    private Double tax;
+
+    private Double insurance;
+
+    private Double pension;
+
+    @Column(name = "total_deductions")
+    private Double totalDeductions;
+
+    @Column(name = "net_pay")
+    private Double netPay;
+
+    @UpdateTimestamp
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+
+    public YearMonth getYearMonth() {
+        return YearMonth.parse(period);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ems.repository;
+
+import com.ems.model.Role;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Enabled administrators, read through {@code idx_users_role_enabled} so the
+ * cost follows the number of admins rather than the number of users.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnabledAdminRepository {
+
+    private static final String LOCK_IDS_SQL = """
+            SELECT id FROM users
+            WHERE role = :role AND enabled = TRUE
+            ORDER BY id
+            FOR UPDATE
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks the rows of all enabled admins in id order and returns their ids.
+     * Concurrent callers queue on the same rows, so each sees the admins the
+     * previous one left.
+     */
+    public List<Long> lockEnabledAdminIds() {
+        return jdbcTemplate.queryForList(LOCK_IDS_SQL, new MapSqlParameterSource("role", Role.ROLE_ADMIN.name()),
+                Long.class);
+    }
+}
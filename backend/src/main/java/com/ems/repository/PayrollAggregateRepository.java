@@ -0,0 +1,226 @@
+package com.ems.repository;
+
+import com.ems.dto.payroll.ApprovedDay;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Computes approved hours and the regular/overtime split for every employee
+ * of a pay period in a single grouped query, instead of loading work logs
+ * user by user. The split is the standard eight-hour rule; employees under
+ * other pay rules are priced from {@link #findApprovedDays} instead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PayrollAggregateRepository {
+
+    public static final double STANDARD_DAILY_HOURS = 8.0;
+
+    private static final String MONTHLY_AGGREGATE_SQL = """
+            SELECT u.id, u.first_name, u.last_name, u.department, u.hourly_rate,
+                   COALESCE(SUM(w.hours_worked), 0) AS total_hours,
+                   COALESCE(SUM(CASE WHEN w.hours_worked > :standardHours
+                                     THEN :standardHours ELSE w.hours_worked END), 0) AS regular_hours,
+                   COALESCE(SUM(CASE WHEN w.hours_worked > :standardHours
+                                     THEN w.hours_worked - :standardHours ELSE 0 END), 0) AS overtime_hours
+            FROM users u
+            LEFT JOIN %1$s w
+                   ON w.user_id = u.id
+                  AND w.status = 'APPROVED'
+                  AND w.date BETWEEN :startDate AND :endDate
+            %2$s
+            GROUP BY u.id, u.first_name, u.last_name, u.department, u.hourly_rate
+            ORDER BY u.id
+            """;
+
+    private static final String DEPARTMENT_FILTER = "WHERE u.department = :department";
+    private static final String NO_DEPARTMENT_FILTER = "WHERE u.department IS NULL";
+    private static final String USER_FILTER = "WHERE u.id = :userId";
+    private static final String BUCKET_FILTER = "WHERE MOD(u.id, :buckets) = :bucket";
+    private static final String WITHOUT_SNAPSHOT_FILTER = """
+            WHERE NOT EXISTS (SELECT 1 FROM payroll_snapshots s WHERE s.user_id = u.id AND s.period = :period)""";
+    private static final String KEYSET_FILTER = "WHERE u.id > :afterUserId";
+    private static final String KEYSET_LIMIT = "LIMIT :limit";
+
+    private static final String DEPARTMENTS_SQL = "SELECT DISTINCT department FROM users";
+
+    private static final String APPROVED_DAYS_SQL = """
+            SELECT user_id, date, SUM(hours_worked) AS hours
+            FROM %s
+            WHERE status = 'APPROVED'
+              AND user_id IN (:userIds)
+              AND date BETWEEN :startDate AND :endDate
+            GROUP BY user_id, date
+            ORDER BY user_id, date
+            """;
+
+    private static final String APPROVED_MONTHS_SQL = """
+            SELECT DISTINCT EXTRACT(YEAR FROM date) AS y, EXTRACT(MONTH FROM date) AS m
+            FROM %s
+            WHERE user_id = :userId
+              AND status = 'APPROVED'
+              AND date < :before
+            """;
+
+    private static final RowMapper<EmployeePayrollAggregate> ROW_MAPPER = (rs, rowNum) ->
+            EmployeePayrollAggregate.builder()
+                    .userId(rs.getLong("id"))
+                    .firstName(rs.getString("first_name"))
+                    .lastName(rs.getString("last_name"))
+                    .department(rs.getString("department"))
+                    .hourlyRate(rs.getObject("hourly_rate") != null ? rs.getDouble("hourly_rate") : null)
+                    .totalHours(rs.getDouble("total_hours"))
+                    .regularHours(rs.getDouble("regular_hours"))
+                    .overtimeHours(rs.getDouble("overtime_hours"))
+                    .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final WorkLogArchiveRepository workLogArchiveRepository;
+
+    public List<EmployeePayrollAggregate> findMonthlyAggregates(YearMonth yearMonth) {
+        return jdbcTemplate.query(sql(yearMonth, ""), monthParams(yearMonth), ROW_MAPPER);
+    }
+
+    public Optional<EmployeePayrollAggregate> findMonthlyAggregate(YearMonth yearMonth, Long userId) {
+        MapSqlParameterSource params = monthParams(yearMonth).addValue("userId", userId);
+        return jdbcTemplate.query(sql(yearMonth, USER_FILTER), params, ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Aggregates the users that have no payroll snapshot for the month yet.
+     */
+    public List<EmployeePayrollAggregate> findMonthlyAggregatesWithoutSnapshot(YearMonth yearMonth) {
+        MapSqlParameterSource params = monthParams(yearMonth).addValue("period", yearMonth.toString());
+        return jdbcTemplate.query(sql(yearMonth, WITHOUT_SNAPSHOT_FILTER), params, ROW_MAPPER);
+    }
+
+    /**
+     * Aggregates a single department; a {@code null} department selects the
+     * users that have none assigned.
+     */
+    public List<EmployeePayrollAggregate> findMonthlyAggregatesByDepartment(YearMonth yearMonth, String department) {
+        MapSqlParameterSource params = monthParams(yearMonth).addValue("department", department);
+        String filter = department != null ? DEPARTMENT_FILTER : NO_DEPARTMENT_FILTER;
+        return jdbcTemplate.query(sql(yearMonth, filter), params, ROW_MAPPER);
+    }
+
+    /**
+     * Aggregates the users whose id falls into {@code bucket} out of
+     * {@code buckets} equally sized id buckets.
+     */
+    public List<EmployeePayrollAggregate> findMonthlyAggregatesByBucket(YearMonth yearMonth, int bucket, int buckets) {
+        MapSqlParameterSource params = monthParams(yearMonth)
+                .addValue("bucket", bucket)
+                .addValue("buckets", buckets);
+        return jdbcTemplate.query(sql(yearMonth, BUCKET_FILTER), params, ROW_MAPPER);
+    }
+
+    /**
+     * Aggregates the next {@code limit} users with an id above
+     * {@code afterUserId}, in id order. Walking the users this way costs the
+     * same for the last chunk as for the first.
+     */
+    public List<EmployeePayrollAggregate> findMonthlyAggregatesAfter(YearMonth yearMonth, long afterUserId, int limit) {
+        MapSqlParameterSource params = monthParams(yearMonth)
+                .addValue("afterUserId", afterUserId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(sql(yearMonth, KEYSET_FILTER) + KEYSET_LIMIT, params, ROW_MAPPER);
+    }
+
+    /**
+     * Streams every employee's aggregate for the month through a forward-only,
+     * read-only cursor so callers can write rows out without holding the whole
+     * result in memory. Must run inside a transaction for drivers (PostgreSQL)
+     * that only honour the fetch size with auto-commit disabled.
+     */
+    public void streamMonthlyAggregates(YearMonth yearMonth, int fetchSize, Consumer<EmployeePayrollAggregate> consumer) {
+        String sql = sql(yearMonth, "");
+        MapSqlParameterSource params = monthParams(yearMonth);
+
+        ParsedSql parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        PreparedStatementCreatorFactory factory = new PreparedStatementCreatorFactory(
+                NamedParameterUtils.substituteNamedParameters(parsedSql, params),
+                NamedParameterUtils.buildSqlParameterList(parsedSql, params));
+        factory.setResultSetType(ResultSet.TYPE_FORWARD_ONLY);
+        factory.setUpdatableResults(false);
+        PreparedStatementCreator creator = factory.newPreparedStatementCreator(
+                NamedParameterUtils.buildValueArray(parsedSql, params, null));
+
+        PreparedStatementCreator cursor = connection -> {
+            PreparedStatement statement = creator.createPreparedStatement(connection);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        };
+        jdbcTemplate.getJdbcTemplate().query(cursor, (RowCallbackHandler) rs ->
+                consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Approved hours per user and day between the two dates, for the users
+     * whose pay rules need more than monthly totals.
+     */
+    public Map<Long, List<ApprovedDay>> findApprovedDays(Collection<Long> userIds, LocalDate startDate,
+                                                         LocalDate endDate) {
+        Map<Long, List<ApprovedDay>> days = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return days;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate);
+        jdbcTemplate.query(APPROVED_DAYS_SQL.formatted(workLogArchiveRepository.sourceFor(startDate)), params,
+                (RowCallbackHandler) rs -> days.computeIfAbsent(rs.getLong("user_id"), id -> new ArrayList<>())
+                        .add(new ApprovedDay(rs.getDate("date").toLocalDate(), rs.getDouble("hours"))));
+        return days;
+    }
+
+    /**
+     * Months before {@code before} in which the user has approved hours.
+     */
+    public List<YearMonth> findApprovedMonths(Long userId, YearMonth before) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("before", before.atDay(1));
+        return jdbcTemplate.query(APPROVED_MONTHS_SQL.formatted(workLogArchiveRepository.sourceFor(null)), params,
+                (rs, rowNum) -> YearMonth.of(rs.getInt("y"), rs.getInt("m")));
+    }
+
+    public List<String> findDepartments() {
+        return jdbcTemplate.getJdbcTemplate().queryForList(DEPARTMENTS_SQL, String.class);
+    }
+
+    private String sql(YearMonth yearMonth, String filter) {
+        return MONTHLY_AGGREGATE_SQL.formatted(workLogArchiveRepository.sourceFor(yearMonth.atDay(1)), filter);
+    }
+
+    private MapSqlParameterSource monthParams(YearMonth yearMonth) {
+        return new MapSqlParameterSource()
+                .addValue("standardHours", STANDARD_DAILY_HOURS)
+                .addValue("startDate", yearMonth.atDay(1))
+                .addValue("endDate", yearMonth.atEndOfMonth());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ems.repository;
+
+import com.ems.model.PayrollMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Department rollups of closed months. Each month has a row in
+ * {@code payroll_rollup_periods} whose {@code generation} every invalidation
+ * increments; a build records the generation it read before aggregating as
+ * {@code built_generation}, and only if no invalidation has happened since.
+ * A month counts as rolled up while the two match, which also covers months
+ * without any department rows.
+ * <p>
+ * Two transactions that MERGE the same missing key at the same time can
+ * both try to insert it, so callers retry on {@code DuplicateKeyException}.
+ */
+@Repository
+public interface PayrollMonthlyRollupRepository extends JpaRepository<PayrollMonthlyRollup, Long> {
+
+    List<PayrollMonthlyRollup> findByPeriodIn(Collection<String> periods);
+
+    @Query(value = """
+            SELECT period FROM payroll_rollup_periods
+            WHERE period IN (:periods) AND built_generation = generation
+            """, nativeQuery = true)
+    List<String> findBuiltPeriods(@Param("periods") Collection<String> periods);
+
+    @Query(value = "SELECT generation FROM payroll_rollup_periods WHERE period = :period", nativeQuery = true)
+    Optional<Integer> findGeneration(@Param("period") String period);
+
+    @Query("SELECT DISTINCT r.period FROM PayrollMonthlyRollup r WHERE r.department = :department")
+    List<String> findPeriodsByDepartment(@Param("department") String department);
+
+    @Modifying
+    @Query(value = """
+            MERGE INTO payroll_monthly_rollups r
+            USING (VALUES (CAST(:period AS VARCHAR(7)), CAST(:department AS VARCHAR(50)))) AS s(period, department)
+               ON r.period = s.period AND r.department = s.department
+            WHEN MATCHED THEN
+                UPDATE SET employee_count = :employeeCount, total_hours = :totalHours,
+                           gross_pay = :grossPay, net_pay = :netPay, computed_at = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN
+                INSERT (period, department, employee_count, total_hours, gross_pay, net_pay)
+                VALUES (s.period, s.department, :employeeCount, :totalHours, :grossPay, :netPay)
+            """, nativeQuery = true)
+    int upsert(@Param("period") String period,
+               @Param("department") String department,
+               @Param("employeeCount") int employeeCount,
+               @Param("totalHours") double totalHours,
+               @Param("grossPay") double grossPay,
+               @Param("netPay") double netPay);
+
+    /**
+     * Marks the month built from data read at {@code generation}; returns 0
+     * and marks nothing if the month was invalidated since.
+     */
+    @Modifying
+    @Query(value = """
+            MERGE INTO payroll_rollup_periods p
+            USING (VALUES (CAST(:period AS VARCHAR(7)))) AS s(period)
+               ON p.period = s.period
+            WHEN MATCHED AND p.generation = :generation THEN
+                UPDATE SET built_generation = :generation, computed_at = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN
+                INSERT (period, generation, built_generation) VALUES (s.period, :generation, :generation)
+            """, nativeQuery = true)
+    int markBuilt(@Param("period") String period, @Param("generation") int generation);
+
+    @Modifying
+    @Query(value = """
+            MERGE INTO payroll_rollup_periods p
+            USING (VALUES (CAST(:period AS VARCHAR(7)))) AS s(period)
+               ON p.period = s.period
+            WHEN MATCHED THEN UPDATE SET generation = p.generation + 1
+            WHEN NOT MATCHED THEN INSERT (period, generation) VALUES (s.period, 1)
+            """, nativeQuery = true)
+    int invalidatePeriod(@Param("period") String period);
+
+    @Modifying
+    @Query("DELETE FROM PayrollMonthlyRollup r WHERE r.period = :period")
+    int deleteByPeriod(@Param("period") String period);
+}
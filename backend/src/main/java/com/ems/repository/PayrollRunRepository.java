@@ -0,0 +1,78 @@
+package com.ems.repository;
+
+import com.ems.model.PayrollRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayrollRunRepository extends JpaRepository<PayrollRun, Long> {
+
+    List<PayrollRun> findByStatusOrderByCreatedAtAsc(PayrollRun.PayrollRunStatus status);
+
+    Optional<PayrollRun> findFirstByPeriodAndStatusInOrderByCreatedAtDesc(String period,
+                                                                          Collection<PayrollRun.PayrollRunStatus> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PayrollRun r SET r.status = :to, r.startedAt = :now, r.heartbeatAt = :now " +
+            "WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") PayrollRun.PayrollRunStatus from,
+                   @Param("to") PayrollRun.PayrollRunStatus to,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Moves a queued run to RUNNING. Returns false when another worker or
+     * node has already claimed it.
+     */
+    default boolean claim(Long id) {
+        return transition(id, PayrollRun.PayrollRunStatus.QUEUED, PayrollRun.PayrollRunStatus.RUNNING,
+                LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Records the checkpoint. Joins the chunk's transaction so the checkpoint
+     * commits together with the chunk's results or not at all.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PayrollRun r SET r.lastUserId = :lastUserId, r.processedCount = :processedCount WHERE r.id = :id")
+    int checkpoint(@Param("id") Long id,
+                   @Param("lastUserId") Long lastUserId,
+                   @Param("processedCount") long processedCount);
+
+    /**
+     * Refreshes the heartbeat of the runs this node is still executing.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PayrollRun r SET r.heartbeatAt = :now WHERE r.id IN :ids AND r.status = :status")
+    int heartbeat(@Param("ids") Collection<Long> ids,
+                  @Param("status") PayrollRun.PayrollRunStatus status,
+                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PayrollRun r SET r.status = :to WHERE r.status = :from " +
+            "AND (r.heartbeatAt IS NULL OR r.heartbeatAt < :cutoff)")
+    int updateStatusIfStale(@Param("from") PayrollRun.PayrollRunStatus from,
+                            @Param("to") PayrollRun.PayrollRunStatus to,
+                            @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Queues RUNNING runs whose heartbeat stopped before {@code cutoff}; they
+     * resume from their checkpoint on whichever node claims them next.
+     */
+    default int requeueStale(LocalDateTime cutoff) {
+        return updateStatusIfStale(PayrollRun.PayrollRunStatus.RUNNING, PayrollRun.PayrollRunStatus.QUEUED, cutoff);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ems.repository;
+
+import com.ems.model.PayrollSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayrollSnapshotRepository extends JpaRepository<PayrollSnapshot, Long> {
+
+    Optional<PayrollSnapshot> findByUserIdAndPeriod(Long userId, String period);
+
+    List<PayrollSnapshot> findByPeriodOrderByUserId(String period);
+
+    @Modifying
+    @Query("DELETE FROM PayrollSnapshot s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM PayrollSnapshot s WHERE s.userId = :userId AND s.period = :period")
+    int deleteByUserIdAndPeriod(@Param("userId") Long userId, @Param("period") String period);
+}
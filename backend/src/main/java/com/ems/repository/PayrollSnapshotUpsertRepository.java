@@ -0,0 +1,58 @@
+package com.ems.repository;
+
+import com.ems.model.PayrollSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Writes payroll snapshots with one MERGE per snapshot keyed on the
+ * {@code unique_user_period} constraint, so writers that find no snapshot
+ * for a user and month do not each insert one. Two transactions that MERGE
+ * the same missing key at the same time can still both try to insert it, so
+ * callers retry on {@code DuplicateKeyException}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PayrollSnapshotUpsertRepository {
+
+    private static final String UPSERT_SQL = """
+            MERGE INTO payroll_snapshots p
+            USING (VALUES (CAST(:userId AS BIGINT), CAST(:period AS VARCHAR(7)))) AS s(user_id, period)
+               ON p.user_id = s.user_id AND p.period = s.period
+            WHEN MATCHED THEN
+                UPDATE SET employee_name = :employeeName, department = :department,
+                           total_hours = :totalHours, regular_hours = :regularHours,
+                           overtime_hours = :overtimeHours, weekend_hours = :weekendHours,
+                           regular_pay = :regularPay, overtime_pay = :overtimePay, weekend_pay = :weekendPay,
+                           gross_pay = :grossPay, tax = :tax, insurance = :insurance, pension = :pension,
+                           total_deductions = :totalDeductions, net_pay = :netPay,
+                           computed_at = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN
+                INSERT (user_id, period, employee_name, department, total_hours, regular_hours, overtime_hours,
+                        weekend_hours, regular_pay, overtime_pay, weekend_pay, gross_pay, tax, insurance, pension,
+                        total_deductions, net_pay)
+                VALUES (s.user_id, s.period, :employeeName, :department, :totalHours, :regularHours,
+                        :overtimeHours, :weekendHours, :regularPay, :overtimePay, :weekendPay, :grossPay, :tax,
+                        :insurance, :pension, :totalDeductions, :netPay)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public int upsert(PayrollSnapshot snapshot) {
+        return jdbcTemplate.update(UPSERT_SQL, new BeanPropertySqlParameterSource(snapshot));
+    }
+
+    public void upsertAll(Collection<PayrollSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, snapshots.stream()
+                .map(BeanPropertySqlParameterSource::new)
+                .toArray(SqlParameterSource[]::new));
+    }
+}
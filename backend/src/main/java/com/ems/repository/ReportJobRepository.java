@@ -0,0 +1,130 @@
+package com.ems.repository;
+
+import com.ems.model.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    List<ReportJob> findByStatusOrderByCreatedAtAsc(ReportJob.ReportJobStatus status);
+
+    long countByStatus(ReportJob.ReportJobStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = :to, j.leaseOwner = :owner, j.startedAt = :now, " +
+            "j.heartbeatAt = :now, j.progress = 0 WHERE j.id = :id AND j.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") ReportJob.ReportJobStatus from,
+                   @Param("to") ReportJob.ReportJobStatus to,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Moves a queued job to RUNNING under {@code owner}'s lease. Returns
+     * false when another worker or node has already claimed it.
+     */
+    default boolean claim(Long id, String owner) {
+        return transition(id, ReportJob.ReportJobStatus.QUEUED, ReportJob.ReportJobStatus.RUNNING,
+                owner, LocalDateTime.now()) == 1;
+    }
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE ReportJob j SET j.progress = :progress WHERE j.id = :id AND j.leaseOwner = :owner")
+    int updateProgress(@Param("id") Long id, @Param("owner") String owner, @Param("progress") int progress);
+
+    /**
+     * Refreshes the heartbeat of the jobs this node is still running.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.heartbeatAt = :now " +
+            "WHERE j.id IN :ids AND j.status = :status AND j.leaseOwner = :owner")
+    int heartbeat(@Param("ids") Collection<Long> ids,
+                  @Param("status") ReportJob.ReportJobStatus status,
+                  @Param("owner") String owner,
+                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = :to, j.progress = 100, j.resultSize = :resultSize, " +
+            "j.finishedAt = :now WHERE j.id = :id AND j.status = :from AND j.leaseOwner = :owner")
+    int transitionToCompleted(@Param("id") Long id,
+                              @Param("owner") String owner,
+                              @Param("from") ReportJob.ReportJobStatus from,
+                              @Param("to") ReportJob.ReportJobStatus to,
+                              @Param("resultSize") long resultSize,
+                              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = :to, j.errorMessage = :errorMessage, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.status = :from AND j.leaseOwner = :owner")
+    int transitionToFailed(@Param("id") Long id,
+                           @Param("owner") String owner,
+                           @Param("from") ReportJob.ReportJobStatus from,
+                           @Param("to") ReportJob.ReportJobStatus to,
+                           @Param("errorMessage") String errorMessage,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * Completes a running job if {@code owner} still holds its lease. Returns
+     * false when the lease expired and the job was queued again, in which
+     * case the caller's result must be discarded.
+     */
+    default boolean complete(Long id, String owner, long resultSize) {
+        return transitionToCompleted(id, owner, ReportJob.ReportJobStatus.RUNNING,
+                ReportJob.ReportJobStatus.COMPLETED, resultSize, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Fails a running job if {@code owner} still holds its lease.
+     */
+    default boolean fail(Long id, String owner, String errorMessage) {
+        return transitionToFailed(id, owner, ReportJob.ReportJobStatus.RUNNING,
+                ReportJob.ReportJobStatus.FAILED, errorMessage, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Clears the result size of jobs whose results were deleted for being
+     * older than {@code cutoff}; the job rows stay as history.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.resultSize = NULL " +
+            "WHERE j.status = :status AND j.finishedAt < :cutoff AND j.resultSize IS NOT NULL")
+    int clearResultSize(@Param("status") ReportJob.ReportJobStatus status, @Param("cutoff") LocalDateTime cutoff);
+
+    default int clearExpiredResults(LocalDateTime cutoff) {
+        return clearResultSize(ReportJob.ReportJobStatus.COMPLETED, cutoff);
+    }
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = :to, j.leaseOwner = NULL WHERE j.status = :from " +
+            "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :cutoff)")
+    int updateStatusIfStale(@Param("from") ReportJob.ReportJobStatus from,
+                            @Param("to") ReportJob.ReportJobStatus to,
+                            @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Queues RUNNING jobs whose heartbeat stopped before {@code cutoff}; the
+     * node running them has gone away. Jobs still running on a live node keep
+     * their heartbeat fresh and are left alone. Dropping the lease makes the
+     * old node's progress, heartbeat and final updates miss the row.
+     */
+    default int requeueStale(LocalDateTime cutoff) {
+        return updateStatusIfStale(ReportJob.ReportJobStatus.RUNNING, ReportJob.ReportJobStatus.QUEUED, cutoff);
+    }
+}
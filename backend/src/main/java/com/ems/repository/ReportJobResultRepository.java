@@ -0,0 +1,61 @@
+package com.ems.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Result files of report jobs, kept in {@code report_job_results} so any
+ * node can serve the download of a job another node ran.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReportJobResultRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO report_job_results (job_id, content) VALUES (?, ?)";
+
+    private static final String FIND_SQL = "SELECT content FROM report_job_results WHERE job_id = :jobId";
+
+    private static final String DELETE_FINISHED_BEFORE_SQL = """
+            DELETE FROM report_job_results
+            WHERE job_id IN (SELECT id FROM report_jobs WHERE status = 'COMPLETED' AND finished_at < :cutoff)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams {@code file} into the result of the job; the file is not read
+     * into memory.
+     */
+    public void store(Long jobId, Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            long size = Files.size(file);
+            jdbcTemplate.getJdbcOperations().update(INSERT_SQL, ps -> {
+                ps.setLong(1, jobId);
+                ps.setBinaryStream(2, in, size);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read report result " + file, e);
+        }
+    }
+
+    public Optional<byte[]> find(Long jobId) {
+        return jdbcTemplate.query(FIND_SQL, new MapSqlParameterSource("jobId", jobId),
+                        (rs, rowNum) -> rs.getBytes("content"))
+                .stream()
+                .findFirst();
+    }
+
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_FINISHED_BEFORE_SQL, new MapSqlParameterSource("cutoff", cutoff));
+    }
+}
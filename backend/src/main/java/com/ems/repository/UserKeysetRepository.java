@@ -0,0 +1,16 @@
+package com.ems.repository;
+
+import com.ems.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination of users on the primary key; no count query runs.
+ */
+@Repository
+public interface UserKeysetRepository extends org.springframework.data.repository.Repository<User, Long> {
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package com.ems.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Writes a user's password hash without loading the user.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserPasswordRepository {
+
+    private static final String UPDATE_SQL = """
+            UPDATE users
+            SET password = :password, updated_at = CURRENT_TIMESTAMP
+            WHERE username = :username
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public int updatePassword(String username, String encodedPassword) {
+        return jdbcTemplate.update(UPDATE_SQL, new MapSqlParameterSource()
+                .addValue("username", username)
+                .addValue("password", encodedPassword));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ems.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The columns of {@code users} that decide whether a signed token is still
+ * good: the enabled flag and {@code token_version}, a counter that only ever
+ * goes up. Every change that must revoke tokens increments it and stamps
+ * {@code token_changed_at}, so other instances find the change without
+ * reading the whole table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserTokenStateRepository {
+
+    private static final String SELECT_SQL = "SELECT id, enabled, token_version FROM users";
+
+    private static final String FIND_BY_ID_SQL = SELECT_SQL + " WHERE id = :id";
+
+    private static final String FIND_CHANGED_SINCE_SQL = SELECT_SQL + " WHERE token_changed_at >= :since";
+
+    private static final String INCREMENT_SQL = """
+            UPDATE users
+            SET token_version = token_version + 1, token_changed_at = CURRENT_TIMESTAMP
+            WHERE id = :id
+            """;
+
+    private static final String CURRENT_TIMESTAMP_SQL = "SELECT CURRENT_TIMESTAMP";
+
+    private static final RowMapper<UserTokenState> ROW_MAPPER = (rs, rowNum) -> new UserTokenState(
+            rs.getLong("id"),
+            rs.getBoolean("enabled"),
+            rs.getInt("token_version"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Optional<UserTokenState> findById(Long id) {
+        return jdbcTemplate.query(FIND_BY_ID_SQL, new MapSqlParameterSource("id", id), ROW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Users whose token version changed at or after {@code since}, by the
+     * database clock.
+     */
+    public List<UserTokenState> findChangedSince(LocalDateTime since) {
+        return jdbcTemplate.query(FIND_CHANGED_SINCE_SQL, new MapSqlParameterSource("since", since), ROW_MAPPER);
+    }
+
+    /**
+     * Revokes every token issued to the user so far. Runs in the caller's
+     * transaction, so the revocation commits with the change that caused it.
+     */
+    public int incrementTokenVersion(Long id) {
+        return jdbcTemplate.update(INCREMENT_SQL, new MapSqlParameterSource("id", id));
+    }
+
+    public LocalDateTime currentTimestamp() {
+        return jdbcTemplate.queryForObject(CURRENT_TIMESTAMP_SQL, EmptySqlParameterSource.INSTANCE,
+                LocalDateTime.class);
+    }
+
+    @Value
+    public static class UserTokenState {
+        long id;
+        boolean enabled;
+        int tokenVersion;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ems.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot/archive split of work log storage. Approved and rejected logs of closed
+ * years move from {@code work_logs} to {@code work_logs_archive}, and the
+ * {@code work_logs_all} view unions both. Readers ask {@link #sourceFor} which
+ * of the two to query, so ranges inside the hot years never touch the
+ * archive.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkLogArchiveRepository {
+
+    public static final String HOT_TABLE = "work_logs";
+    public static final String ALL_TABLE = "work_logs_all";
+
+    private static final long BOUNDARY_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final String MAX_ARCHIVED_DATE_SQL = "SELECT MAX(date) FROM work_logs_archive";
+
+    private static final String ARCHIVABLE_IDS_SQL = """
+            SELECT id
+            FROM work_logs
+            WHERE date < :before
+              AND status <> 'PENDING'
+              AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE
+            """;
+
+    private static final String COPY_SQL = """
+            INSERT INTO work_logs_archive (id, user_id, date, hours_worked, remarks, status, created_at, updated_at)
+            SELECT id, user_id, date, hours_worked, remarks, status, created_at, updated_at
+            FROM work_logs
+            WHERE id IN (:ids)
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM work_logs WHERE id IN (:ids)";
+
+    private static final String ARCHIVED_DAY_SQL =
+            "SELECT COUNT(*) FROM work_logs_archive WHERE user_id = :userId AND date = :date";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile LocalDate archivedBefore;
+    private volatile long boundaryLoadedAt;
+    private volatile boolean boundaryLoaded;
+
+    /**
+     * The table or view holding every log dated {@code startDate} or later;
+     * a {@code null} start date means the whole history.
+     */
+    public String sourceFor(LocalDate startDate) {
+        LocalDate boundary = getArchivedBefore();
+        return boundary != null && (startDate == null || startDate.isBefore(boundary)) ? ALL_TABLE : HOT_TABLE;
+    }
+
+    /**
+     * First day after the archived years, or {@code null} while nothing is
+     * archived. Logs dated before it are read-only. The value is cached for a
+     * few minutes so other instances pick up an archive run.
+     */
+    public LocalDate getArchivedBefore() {
+        if (!boundaryLoaded || System.nanoTime() - boundaryLoadedAt > BOUNDARY_TTL_NANOS) {
+            return refreshArchivedBefore();
+        }
+        return archivedBefore;
+    }
+
+    public LocalDate refreshArchivedBefore() {
+        LocalDate latest = jdbcTemplate.queryForObject(MAX_ARCHIVED_DATE_SQL, EmptySqlParameterSource.INSTANCE,
+                LocalDate.class);
+        archivedBefore = latest != null ? LocalDate.of(latest.getYear() + 1, 1, 1) : null;
+        boundaryLoadedAt = System.nanoTime();
+        boundaryLoaded = true;
+        return archivedBefore;
+    }
+
+    /**
+     * Whether the user's day is already in the archive. Unlike the cached
+     * {@link #getArchivedBefore} boundary this is always current; writers
+     * that insert into {@code work_logs} check it so the
+     * {@code work_logs_all} view never sees the same day twice.
+     */
+    public boolean isArchived(Long userId, LocalDate date) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("date", date);
+        Long count = jdbcTemplate.queryForObject(ARCHIVED_DAY_SQL, params, Long.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Locks the next batch of approved or rejected logs dated before
+     * {@code before}, in id order after {@code afterId}. Must run in the
+     * transaction that copies and deletes them.
+     */
+    public List<Long> lockArchivableIds(LocalDate before, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", before)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(ARCHIVABLE_IDS_SQL, params, Long.class);
+    }
+
+    public int copyToArchive(List<Long> ids) {
+        return jdbcTemplate.update(COPY_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    public int deleteFromHot(List<Long> ids) {
+        return jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource("ids", ids));
+    }
+}
@@ -0,0 +1,116 @@
+package com.ems.repository;
+
+import com.ems.dto.worklog.WorkLogBatchItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based reads and batched inserts for bulk work log ingestion. Callers
+ * keep id lists to a few thousand entries per call.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkLogBatchRepository {
+
+    private static final String EXISTING_USERS_SQL = "SELECT id FROM users WHERE id IN (:userIds)";
+
+    private static final String USER_IDS_BY_USERNAME_SQL = "SELECT id, username FROM users WHERE username IN (:usernames)";
+
+    private static final String EXISTING_DATES_SQL = """
+            SELECT user_id, date
+            FROM work_logs
+            WHERE user_id IN (:userIds)
+              AND date BETWEEN :startDate AND :endDate
+            """;
+
+    /**
+     * Writes nothing when the user's day is already in the archive, so a
+     * stale archive boundary cannot put the same day in both tables.
+     */
+    private static final String INSERT_SQL = """
+            INSERT INTO work_logs (user_id, date, hours_worked, remarks, status)
+            SELECT CAST(:userId AS BIGINT), CAST(:date AS DATE), :hoursWorked, :remarks, 'PENDING'
+            FROM (VALUES (1)) AS one(x)
+            WHERE NOT EXISTS (SELECT 1 FROM work_logs_archive a WHERE a.user_id = :userId AND a.date = :date)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Set<Long> findExistingUserIds(Collection<Long> userIds) {
+        return new HashSet<>(jdbcTemplate.queryForList(EXISTING_USERS_SQL,
+                new MapSqlParameterSource("userIds", userIds), Long.class));
+    }
+
+    /**
+     * Ids of the users with the given usernames; usernames without a user are
+     * absent from the result.
+     */
+    public Map<String, Long> findUserIdsByUsername(Collection<String> usernames) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(USER_IDS_BY_USERNAME_SQL, new MapSqlParameterSource("usernames", usernames),
+                rs -> {
+                    ids.put(rs.getString("username"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Dates that already have a work log, per user, within the range. One
+     * query answers the {@code unique_user_date} check for a whole chunk.
+     */
+    public Map<Long, Set<LocalDate>> findExistingDates(Collection<Long> userIds, LocalDate startDate, LocalDate endDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate);
+        Map<Long, Set<LocalDate>> existing = new HashMap<>();
+        jdbcTemplate.query(EXISTING_DATES_SQL, params, rs -> {
+            existing.computeIfAbsent(rs.getLong("user_id"), id -> new HashSet<>())
+                    .add(rs.getDate("date").toLocalDate());
+        });
+        return existing;
+    }
+
+    /**
+     * Inserts the logs as PENDING with a single batched statement. Returns
+     * the items that were skipped because their day is already archived.
+     */
+    public List<WorkLogBatchItem> insertBatch(List<WorkLogBatchItem> items) {
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL,
+                items.stream().map(this::params).toArray(SqlParameterSource[]::new));
+        List<WorkLogBatchItem> archived = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                archived.add(items.get(i));
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Returns 1, or 0 when the item's day is already archived.
+     */
+    public int insert(WorkLogBatchItem item) {
+        return jdbcTemplate.update(INSERT_SQL, params(item));
+    }
+
+    private SqlParameterSource params(WorkLogBatchItem item) {
+        return new MapSqlParameterSource()
+                .addValue("userId", item.getUserId())
+                .addValue("date", item.getWorkLog().getDate())
+                .addValue("hoursWorked", item.getWorkLog().getHoursWorked())
+                .addValue("remarks", item.getWorkLog().getRemarks());
+    }
+}
@@ -0,0 +1,232 @@
+package com.ems.repository;
+
+import com.ems.model.WorkLog;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code work_log_monthly_agg} table: count, hours and overtime hours of
+ * every user's work logs per month and status. Rows are rebuilt per
+ * user-month from the logs themselves, so a refresh is correct whatever the
+ * change was; callers serialize refreshes of a user with
+ * {@link #lockUsers(Collection)}.
+ * <p>
+ * A month's rows are complete for every user only once the month is listed
+ * in {@code work_log_monthly_agg_periods}, which {@link #backfill(YearMonth)}
+ * writes after grouping the month's logs; until then readers group the logs
+ * themselves.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkLogMonthlyAggRepository {
+
+    private static final String LOCK_USERS_SQL = "SELECT id FROM users WHERE id IN (:userIds) ORDER BY id FOR UPDATE";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM work_log_monthly_agg WHERE user_id = :userId AND period = :period";
+
+    private static final String REBUILD_SQL = """
+            INSERT INTO work_log_monthly_agg (user_id, period, status, log_count, total_hours, overtime_hours)
+            SELECT user_id, :period, status, COUNT(*), SUM(hours_worked),
+                   SUM(CASE WHEN hours_worked > :standardHours THEN hours_worked - :standardHours ELSE 0 END)
+            FROM %s
+            WHERE user_id = :userId
+              AND date BETWEEN :startDate AND :endDate
+            GROUP BY user_id, status
+            """;
+
+    private static final String PERIOD_USERS_SQL = "SELECT DISTINCT user_id FROM %s WHERE date BETWEEN :startDate AND :endDate";
+
+    /**
+     * Users rebuilt by a refresh since the month was last looked at already
+     * have their rows and are skipped.
+     */
+    private static final String BACKFILL_SQL = """
+            INSERT INTO work_log_monthly_agg (user_id, period, status, log_count, total_hours, overtime_hours)
+            SELECT w.user_id, :period, w.status, COUNT(*), SUM(w.hours_worked),
+                   SUM(CASE WHEN w.hours_worked > :standardHours THEN w.hours_worked - :standardHours ELSE 0 END)
+            FROM %s w
+            WHERE w.date BETWEEN :startDate AND :endDate
+              AND NOT EXISTS (SELECT 1 FROM work_log_monthly_agg a WHERE a.user_id = w.user_id AND a.period = :period)
+            GROUP BY w.user_id, w.status
+            """;
+
+    private static final String MARK_BUILT_SQL = """
+            MERGE INTO work_log_monthly_agg_periods p
+            USING (VALUES (CAST(:period AS VARCHAR(7)))) AS s(period)
+               ON p.period = s.period
+            WHEN NOT MATCHED THEN INSERT (period) VALUES (s.period)
+            """;
+
+    private static final String BUILT_PERIODS_SQL = "SELECT period FROM work_log_monthly_agg_periods WHERE period IN (:periods)";
+
+    private static final String FIRST_LOG_DATE_SQL = "SELECT MIN(date) FROM %s";
+
+    private static final String COMPUTE_PERIOD_SQL = """
+            SELECT user_id, status, COUNT(*) AS log_count, SUM(hours_worked) AS total_hours,
+                   SUM(CASE WHEN hours_worked > :standardHours
+                            THEN hours_worked - :standardHours ELSE 0 END) AS overtime_hours
+            FROM %s
+            WHERE date BETWEEN :startDate AND :endDate
+            GROUP BY user_id, status
+            """;
+
+    private static final String STORED_PERIOD_SQL = """
+            SELECT user_id, status, log_count, total_hours, overtime_hours
+            FROM work_log_monthly_agg
+            WHERE period = :period
+            """;
+
+    private static final RowMapper<MonthlyTotal> TOTAL_MAPPER = (rs, rowNum) -> new MonthlyTotal(
+            rs.getLong("user_id"),
+            WorkLog.WorkLogStatus.valueOf(rs.getString("status")),
+            rs.getInt("log_count"),
+            rs.getBigDecimal("total_hours").stripTrailingZeros(),
+            rs.getBigDecimal("overtime_hours").stripTrailingZeros());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final WorkLogArchiveRepository workLogArchiveRepository;
+
+    /** Built months never become unbuilt, so they are cached for good. */
+    private final Set<YearMonth> builtPeriods = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Locks the users' rows in id order so concurrent refreshes of the same
+     * user run one after the other and each sees the other's logs.
+     */
+    public void lockUsers(Collection<Long> userIds) {
+        jdbcTemplate.queryForList(LOCK_USERS_SQL, new MapSqlParameterSource("userIds", userIds), Long.class);
+    }
+
+    /**
+     * Rebuilds the rows of each user-month from the work logs.
+     */
+    public void refresh(Map<Long, Set<YearMonth>> userMonths) {
+        List<SqlParameterSource> deletes = new ArrayList<>();
+        Map<String, List<SqlParameterSource>> rebuilds = new HashMap<>();
+        userMonths.forEach((userId, months) -> months.forEach(month -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("userId", userId)
+                    .addValue("period", month.toString())
+                    .addValue("startDate", month.atDay(1))
+                    .addValue("endDate", month.atEndOfMonth())
+                    .addValue("standardHours", PayrollAggregateRepository.STANDARD_DAILY_HOURS);
+            deletes.add(params);
+            rebuilds.computeIfAbsent(workLogArchiveRepository.sourceFor(month.atDay(1)), source -> new ArrayList<>())
+                    .add(params);
+        }));
+        if (deletes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, deletes.toArray(SqlParameterSource[]::new));
+        rebuilds.forEach((source, params) ->
+                jdbcTemplate.batchUpdate(REBUILD_SQL.formatted(source), params.toArray(SqlParameterSource[]::new)));
+    }
+
+    /**
+     * Fills in the month for every user with logs in it and marks the month
+     * built. Locks the month's users first, in the same order as
+     * {@link #lockUsers(Collection)}, so a concurrent refresh either lands
+     * before and is skipped, or waits and rebuilds on top. Must run in a
+     * transaction.
+     */
+    public int backfill(YearMonth period) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("period", period.toString())
+                .addValue("startDate", period.atDay(1))
+                .addValue("endDate", period.atEndOfMonth())
+                .addValue("standardHours", PayrollAggregateRepository.STANDARD_DAILY_HOURS);
+        String source = workLogArchiveRepository.sourceFor(period.atDay(1));
+        List<Long> userIds = jdbcTemplate.queryForList(PERIOD_USERS_SQL.formatted(source), params, Long.class);
+        int inserted = 0;
+        if (!userIds.isEmpty()) {
+            lockUsers(userIds);
+            inserted = jdbcTemplate.update(BACKFILL_SQL.formatted(source), params);
+        }
+        jdbcTemplate.update(MARK_BUILT_SQL, params);
+        return inserted;
+    }
+
+    /**
+     * The months among {@code periods} whose rows are complete.
+     */
+    public Set<YearMonth> findBuiltPeriods(Collection<YearMonth> periods) {
+        List<String> unknown = periods.stream()
+                .filter(period -> !builtPeriods.contains(period))
+                .map(YearMonth::toString)
+                .toList();
+        if (!unknown.isEmpty()) {
+            jdbcTemplate.queryForList(BUILT_PERIODS_SQL, new MapSqlParameterSource("periods", unknown), String.class)
+                    .forEach(period -> builtPeriods.add(YearMonth.parse(period)));
+        }
+        Set<YearMonth> built = new HashSet<>(periods);
+        built.retainAll(builtPeriods);
+        return built;
+    }
+
+    /**
+     * Month of the oldest work log, hot or archived, or {@code null} when
+     * there are none.
+     */
+    public YearMonth findFirstLogMonth() {
+        LocalDate first = jdbcTemplate.queryForObject(
+                FIRST_LOG_DATE_SQL.formatted(workLogArchiveRepository.sourceFor(null)),
+                new MapSqlParameterSource(), LocalDate.class);
+        return first != null ? YearMonth.from(first) : null;
+    }
+
+    /**
+     * Totals of the month computed from the work logs, keyed by user.
+     */
+    public Map<Long, List<MonthlyTotal>> computeTotals(YearMonth period) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("startDate", period.atDay(1))
+                .addValue("endDate", period.atEndOfMonth())
+                .addValue("standardHours", PayrollAggregateRepository.STANDARD_DAILY_HOURS);
+        String source = workLogArchiveRepository.sourceFor(period.atDay(1));
+        return byUser(jdbcTemplate.query(COMPUTE_PERIOD_SQL.formatted(source), params, TOTAL_MAPPER));
+    }
+
+    /**
+     * Totals of the month as stored in {@code work_log_monthly_agg}, keyed by
+     * user.
+     */
+    public Map<Long, List<MonthlyTotal>> findStoredTotals(YearMonth period) {
+        return byUser(jdbcTemplate.query(STORED_PERIOD_SQL, new MapSqlParameterSource("period", period.toString()),
+                TOTAL_MAPPER));
+    }
+
+    private static Map<Long, List<MonthlyTotal>> byUser(List<MonthlyTotal> totals) {
+        Map<Long, List<MonthlyTotal>> byUser = new HashMap<>();
+        for (MonthlyTotal total : totals) {
+            byUser.computeIfAbsent(total.getUserId(), id -> new ArrayList<>()).add(total);
+        }
+        return byUser;
+    }
+
+    @Value
+    public static class MonthlyTotal {
+        long userId;
+        WorkLog.WorkLogStatus status;
+        int logCount;
+        BigDecimal totalHours;
+        BigDecimal overtimeHours;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ems.repository;
+
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.model.WorkLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only work log listings projected straight into
+ * {@link WorkLogResponse}. Only the response's columns are selected, the
+ * user's name and per-log pay are computed in the query, and no entity
+ * enters the persistence context. Pay is multiplied and rounded half up in
+ * exact decimals, matching {@code PayrollCalculator.calculatedPay}. Listings include archived years; date
+ * ranges read the archive only when they reach into it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkLogProjectionRepository {
+
+    private static final String SELECT_SQL = """
+            SELECT w.id, w.user_id, u.first_name, u.last_name, w.date, w.hours_worked, w.remarks, w.status,
+                   ROUND(CAST(w.hours_worked AS DECIMAL(5,2))
+                         * CAST(COALESCE(u.hourly_rate, 0) AS DECIMAL(10,2)), 2) AS calculated_pay
+            FROM %s w
+            JOIN users u ON u.id = w.user_id
+            """;
+
+    private static final String BY_ID_SQL = SELECT_SQL + "WHERE w.id = :id";
+
+    private static final String ORDER_SQL = "ORDER BY w.date DESC, w.id DESC\n";
+
+    private static final String BY_USER_SQL = SELECT_SQL + "WHERE w.user_id = :userId\n" + ORDER_SQL
+            + "LIMIT :limit OFFSET :offset";
+
+    private static final String COUNT_BY_USER_SQL = "SELECT COUNT(*) FROM %s WHERE user_id = :userId";
+
+    private static final String BY_USER_AND_DATES_SQL = SELECT_SQL
+            + "WHERE w.user_id = :userId AND w.date BETWEEN :startDate AND :endDate\n" + ORDER_SQL;
+
+    private static final String FIRST_PAGE_SQL = SELECT_SQL + "WHERE w.user_id = :userId\n" + ORDER_SQL
+            + "LIMIT :limit";
+
+    private static final String PAGE_AFTER_SQL = SELECT_SQL
+            + "WHERE w.user_id = :userId AND (w.date < :date OR (w.date = :date AND w.id < :id))\n" + ORDER_SQL
+            + "LIMIT :limit";
+
+    private static final RowMapper<WorkLogResponse> ROW_MAPPER = (rs, rowNum) -> WorkLogResponse.builder()
+            .id(rs.getLong("id"))
+            .userId(rs.getLong("user_id"))
+            .userName(rs.getString("first_name") + " " + rs.getString("last_name"))
+            .date(rs.getDate("date").toLocalDate())
+            .hoursWorked(rs.getDouble("hours_worked"))
+            .remarks(rs.getString("remarks"))
+            .status(WorkLog.WorkLogStatus.valueOf(rs.getString("status")))
+            .calculatedPay(rs.getDouble("calculated_pay"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final WorkLogArchiveRepository workLogArchiveRepository;
+
+    public Optional<WorkLogResponse> findById(Long id) {
+        return jdbcTemplate.query(BY_ID_SQL.formatted(WorkLogArchiveRepository.HOT_TABLE),
+                new MapSqlParameterSource("id", id), ROW_MAPPER).stream().findFirst();
+    }
+
+    /**
+     * Offset page of the user's logs, newest first. The pageable's sort is
+     * not used; the order is always (date, id) descending.
+     */
+    public Page<WorkLogResponse> findByUser(Long userId, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        String source = workLogArchiveRepository.sourceFor(null);
+        if (pageable.isUnpaged()) {
+            List<WorkLogResponse> all = jdbcTemplate.query(
+                    (SELECT_SQL + "WHERE w.user_id = :userId\n" + ORDER_SQL).formatted(source), params, ROW_MAPPER);
+            return new PageImpl<>(all, pageable, all.size());
+        }
+        params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+        List<WorkLogResponse> content = jdbcTemplate.query(BY_USER_SQL.formatted(source), params, ROW_MAPPER);
+        Long total = jdbcTemplate.queryForObject(COUNT_BY_USER_SQL.formatted(source), params, Long.class);
+        return new PageImpl<>(content, pageable, total != null ? total : 0L);
+    }
+
+    public List<WorkLogResponse> findByUserAndDateRange(Long userId, LocalDate startDate, LocalDate endDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate);
+        return jdbcTemplate.query(BY_USER_AND_DATES_SQL.formatted(workLogArchiveRepository.sourceFor(startDate)),
+                params, ROW_MAPPER);
+    }
+
+    /**
+     * Keyset page of the user's logs, newest first; a {@code null} date
+     * starts from the newest log.
+     */
+    public List<WorkLogResponse> findPage(Long userId, LocalDate afterDate, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", limit);
+        String source = workLogArchiveRepository.sourceFor(null);
+        if (afterDate == null) {
+            return jdbcTemplate.query(FIRST_PAGE_SQL.formatted(source), params, ROW_MAPPER);
+        }
+        params.addValue("date", afterDate).addValue("id", afterId);
+        return jdbcTemplate.query(PAGE_AFTER_SQL.formatted(source), params, ROW_MAPPER);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ems.repository;
+
+import com.ems.model.WorkLog;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based status changes of work logs. Each change first locks the
+ * matching rows (so the caller learns exactly which user-months change)
+ * and then updates them with one UPDATE.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkLogStatusRepository {
+
+    private static final String LOCK_BY_IDS_SQL = """
+            SELECT id, user_id, date, status
+            FROM work_logs
+            WHERE id IN (:ids) AND status <> :status
+            FOR UPDATE
+            """;
+
+    private static final String UPDATE_BY_IDS_SQL = """
+            UPDATE work_logs
+            SET status = :status, updated_at = CURRENT_TIMESTAMP
+            WHERE id IN (:ids) AND status <> :status
+            """;
+
+    private static final String FILTER = """
+            date BETWEEN :startDate AND :endDate
+              AND status = :currentStatus
+              AND status <> :status
+            """;
+
+    private static final String DEPARTMENT_FILTER =
+            "  AND user_id IN (SELECT u.id FROM users u WHERE u.department = :department)\n";
+
+    private static final String LOCK_BY_FILTER_SQL =
+            "SELECT id, user_id, date, status\nFROM work_logs\nWHERE %s%sFOR UPDATE";
+
+    private static final String UPDATE_BY_FILTER_SQL =
+            "UPDATE work_logs\nSET status = :status, updated_at = CURRENT_TIMESTAMP\nWHERE %s%s";
+
+    private static final RowMapper<LockedRow> ROW_MAPPER = (rs, rowNum) -> new LockedRow(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getDate("date").toLocalDate(),
+            WorkLog.WorkLogStatus.valueOf(rs.getString("status")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<LockedRow> lockByIds(Collection<Long> ids, WorkLog.WorkLogStatus status) {
+        return jdbcTemplate.query(LOCK_BY_IDS_SQL, idParams(ids, status), ROW_MAPPER);
+    }
+
+    public int updateByIds(Collection<Long> ids, WorkLog.WorkLogStatus status) {
+        return jdbcTemplate.update(UPDATE_BY_IDS_SQL, idParams(ids, status));
+    }
+
+    /**
+     * Locks the logs in the date range that are in {@code currentStatus};
+     * a {@code null} department selects all departments.
+     */
+    public List<LockedRow> lockByFilter(String department, LocalDate startDate, LocalDate endDate,
+                                        WorkLog.WorkLogStatus currentStatus, WorkLog.WorkLogStatus status) {
+        return jdbcTemplate.query(LOCK_BY_FILTER_SQL.formatted(FILTER, departmentFilter(department)),
+                filterParams(department, startDate, endDate, currentStatus, status), ROW_MAPPER);
+    }
+
+    public int updateByFilter(String department, LocalDate startDate, LocalDate endDate,
+                              WorkLog.WorkLogStatus currentStatus, WorkLog.WorkLogStatus status) {
+        return jdbcTemplate.update(UPDATE_BY_FILTER_SQL.formatted(FILTER, departmentFilter(department)),
+                filterParams(department, startDate, endDate, currentStatus, status));
+    }
+
+    private static String departmentFilter(String department) {
+        return department != null ? DEPARTMENT_FILTER : "";
+    }
+
+    private MapSqlParameterSource idParams(Collection<Long> ids, WorkLog.WorkLogStatus status) {
+        return new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("status", status.name());
+    }
+
+    private MapSqlParameterSource filterParams(String department, LocalDate startDate, LocalDate endDate,
+                                               WorkLog.WorkLogStatus currentStatus, WorkLog.WorkLogStatus status) {
+        return new MapSqlParameterSource()
+                .addValue("department", department)
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("currentStatus", currentStatus.name())
+                .addValue("status", status.name());
+    }
+
+    @Value
+    public static class LockedRow {
+        long id;
+        long userId;
+        LocalDate date;
+        WorkLog.WorkLogStatus status;
+    }
+}
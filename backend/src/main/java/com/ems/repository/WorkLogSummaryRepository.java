@@ -0,0 +1,141 @@
+package com.ems.repository;
+
+import com.ems.model.WorkLog;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Monthly work log figures of one user, grouped by month and status in the
+ * database so only a handful of aggregate rows cross the wire. Whole past
+ * months that are built in {@code work_log_monthly_agg} are point reads of
+ * it; partial months, the current month and months not backfilled yet are
+ * grouped from the logs. The current month is always grouped from the logs
+ * because not every writer of it refreshes the aggregate yet.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkLogSummaryRepository {
+
+    private static final String MONTHLY_STATUS_SQL = """
+            SELECT EXTRACT(YEAR FROM date) AS log_year,
+                   EXTRACT(MONTH FROM date) AS log_month,
+                   status,
+                   COUNT(*) AS log_count,
+                   COALESCE(SUM(hours_worked), 0) AS hours,
+                   COALESCE(SUM(CASE WHEN hours_worked > :standardHours
+                                     THEN hours_worked - :standardHours ELSE 0 END), 0) AS overtime_hours
+            FROM %s
+            WHERE user_id = :userId
+              AND date BETWEEN :startDate AND :endDate
+            GROUP BY EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date), status
+            ORDER BY log_year, log_month
+            """;
+
+    private static final String MONTHLY_AGG_SQL = """
+            SELECT period, status, log_count, total_hours AS hours, overtime_hours
+            FROM work_log_monthly_agg
+            WHERE user_id = :userId
+              AND period IN (:periods)
+            ORDER BY period
+            """;
+
+    private static final RowMapper<MonthlyStatusAggregate> AGG_ROW_MAPPER = (rs, rowNum) -> new MonthlyStatusAggregate(
+            YearMonth.parse(rs.getString("period")),
+            WorkLog.WorkLogStatus.valueOf(rs.getString("status")),
+            rs.getInt("log_count"),
+            rs.getBigDecimal("hours"),
+            rs.getBigDecimal("overtime_hours"));
+
+    private static final RowMapper<MonthlyStatusAggregate> ROW_MAPPER = (rs, rowNum) -> new MonthlyStatusAggregate(
+            YearMonth.of(rs.getInt("log_year"), rs.getInt("log_month")),
+            WorkLog.WorkLogStatus.valueOf(rs.getString("status")),
+            rs.getInt("log_count"),
+            rs.getBigDecimal("hours"),
+            rs.getBigDecimal("overtime_hours"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final WorkLogArchiveRepository workLogArchiveRepository;
+    private final WorkLogMonthlyAggRepository workLogMonthlyAggRepository;
+
+    public List<MonthlyStatusAggregate> findMonthlyStatusAggregates(Long userId, LocalDate startDate, LocalDate endDate) {
+        Set<YearMonth> aggregated = aggregatedMonths(startDate, endDate);
+        List<MonthlyStatusAggregate> rows = new ArrayList<>();
+        if (!aggregated.isEmpty()) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("userId", userId)
+                    .addValue("periods", aggregated.stream().map(YearMonth::toString).toList());
+            rows.addAll(jdbcTemplate.query(MONTHLY_AGG_SQL, params, AGG_ROW_MAPPER));
+        }
+
+        LocalDate segmentStart = null;
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate));
+             month = month.plusMonths(1)) {
+            if (aggregated.contains(month)) {
+                if (segmentStart != null) {
+                    rows.addAll(groupLogs(userId, segmentStart, month.minusMonths(1).atEndOfMonth()));
+                    segmentStart = null;
+                }
+            } else if (segmentStart == null) {
+                segmentStart = month.atDay(1).isBefore(startDate) ? startDate : month.atDay(1);
+            }
+        }
+        if (segmentStart != null) {
+            rows.addAll(groupLogs(userId, segmentStart, endDate));
+        }
+        rows.sort(Comparator.comparing(MonthlyStatusAggregate::getYearMonth));
+        return rows;
+    }
+
+    /**
+     * Months wholly inside the range, before the current month and built in
+     * {@code work_log_monthly_agg}.
+     */
+    private Set<YearMonth> aggregatedMonths(LocalDate startDate, LocalDate endDate) {
+        YearMonth first = startDate.getDayOfMonth() == 1
+                ? YearMonth.from(startDate)
+                : YearMonth.from(startDate).plusMonths(1);
+        YearMonth last = endDate.equals(YearMonth.from(endDate).atEndOfMonth())
+                ? YearMonth.from(endDate)
+                : YearMonth.from(endDate).minusMonths(1);
+        YearMonth lastClosed = YearMonth.now().minusMonths(1);
+        if (last.isAfter(lastClosed)) {
+            last = lastClosed;
+        }
+        List<YearMonth> candidates = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            candidates.add(month);
+        }
+        return candidates.isEmpty() ? Set.of() : workLogMonthlyAggRepository.findBuiltPeriods(candidates);
+    }
+
+    private List<MonthlyStatusAggregate> groupLogs(Long userId, LocalDate startDate, LocalDate endDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("startDate", startDate)
+                .addValue("endDate", endDate)
+                .addValue("standardHours", PayrollAggregateRepository.STANDARD_DAILY_HOURS);
+        return jdbcTemplate.query(MONTHLY_STATUS_SQL.formatted(workLogArchiveRepository.sourceFor(startDate)),
+                params, ROW_MAPPER);
+    }
+
+    @Value
+    public static class MonthlyStatusAggregate {
+        YearMonth yearMonth;
+        WorkLog.WorkLogStatus status;
+        int logCount;
+        BigDecimal hours;
+        BigDecimal overtimeHours;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ems.repository;
+
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Insert-or-update of a user's work log for a day in one standard MERGE
+ * statement keyed on the {@code unique_user_date} constraint, followed by a
+ * read of the row by {@code (user_id, date)}. Both must run in the same
+ * transaction: the MERGE's row lock keeps the written row as it was written
+ * until the read.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkLogUpsertRepository {
+
+    /**
+     * Pending and rejected logs take the new hours, go back to PENDING and
+     * get their {@code revision} incremented; approved logs are left as they
+     * are. Inserts start at revision 0, so the row read back alone tells a
+     * created log from an updated one. A day that is already archived yields
+     * an empty source, so it never gets a second, hot copy.
+     */
+    private static final String UPSERT_SQL = """
+            MERGE INTO work_logs w
+            USING (SELECT v.user_id, v.date
+                   FROM (VALUES (CAST(:userId AS BIGINT), CAST(:date AS DATE))) AS v(user_id, date)
+                   WHERE NOT EXISTS (SELECT 1 FROM work_logs_archive a
+                                     WHERE a.user_id = v.user_id AND a.date = v.date)) AS s
+               ON w.user_id = s.user_id AND w.date = s.date
+            WHEN MATCHED AND w.status <> 'APPROVED' THEN
+                UPDATE SET hours_worked = :hoursWorked, remarks = :remarks, status = 'PENDING',
+                           revision = w.revision + 1, updated_at = CURRENT_TIMESTAMP
+            WHEN NOT MATCHED THEN
+                INSERT (user_id, date, hours_worked, remarks, status, revision)
+                VALUES (s.user_id, s.date, :hoursWorked, :remarks, 'PENDING', 0)
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT id, hours_worked, remarks, status, revision
+            FROM work_logs
+            WHERE user_id = :userId AND date = :date
+            """;
+
+    private static final RowMapper<UpsertedRow> ROW_MAPPER = (rs, rowNum) -> UpsertedRow.builder()
+            .id(rs.getLong("id"))
+            .hoursWorked(rs.getDouble("hours_worked"))
+            .remarks(rs.getString("remarks"))
+            .status(rs.getString("status"))
+            .revision(rs.getInt("revision"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the user's log for the day as it stands after the MERGE, or
+     * nothing when the day is archived. Must be called in a transaction.
+     */
+    public Optional<UpsertedRow> upsert(Long userId, LocalDate date, Double hoursWorked, String remarks) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("date", date)
+                .addValue("hoursWorked", hoursWorked)
+                .addValue("remarks", remarks);
+        jdbcTemplate.update(UPSERT_SQL, params);
+        return jdbcTemplate.query(FIND_SQL, params, ROW_MAPPER).stream().findFirst();
+    }
+
+    @Value
+    @Builder
+    public static class UpsertedRow {
+        Long id;
+        Double hoursWorked;
+        String remarks;
+        String status;
+        int revision;
+
+        public boolean isApproved() {
+            return "APPROVED".equals(status);
+        }
+
+        public boolean isCreated() {
+            return !isApproved() && revision == 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ems.service;
+
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.repository.EnabledAdminRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keeps at least one enabled administrator when a user is deleted or
+ * disabled. The check locks the enabled admins' rows, so two admins
+ * disabling each other at the same time cannot both succeed; it must run in
+ * the transaction that makes the change.
+ * <p>
+ * Callers, all in {@code UserService} and all {@code @Transactional}:
+ * {@code deleteUser(id)} before {@code userRepository.delete(user)}, and
+ * {@code updateUserStatus(id, false)} before {@code userRepository.save(user)},
+ * each passing the user as loaded, before it is changed. Called outside a
+ * transaction the guard throws {@code IllegalTransactionStateException}
+ * rather than check without the lock.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminInvariantService {
+
+    private final EnabledAdminRepository enabledAdminRepository;
+
+    /**
+     * Throws if {@code target} is the only enabled admin left. Users that are
+     * not enabled admins pass without a query.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ensureNotLastEnabledAdmin(User target) {
+        if (target.getRole() != Role.ROLE_ADMIN || !target.isEnabled()) {
+            return;
+        }
+        List<Long> enabledAdminIds = enabledAdminRepository.lockEnabledAdminIds();
+        boolean anotherAdmin = enabledAdminIds.stream().anyMatch(id -> !id.equals(target.getId()));
+        if (!anotherAdmin) {
+            throw new UnauthorizedAccessException("Cannot remove or disable the last active administrator");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ems.service;
+
+import com.ems.dto.CursorPage;
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.model.User;
+import com.ems.repository.UserKeysetRepository;
+import com.ems.repository.WorkLogProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Cursor-based listings next to the offset-based Page API. Each page seeks
+ * to the last key of the previous one, so page 5,000 costs the same as
+ * page 1.
+ */
+@Service
+@RequiredArgsConstructor
+public class CursorPaginationService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final WorkLogProjectionRepository workLogProjectionRepository;
+    private final UserKeysetRepository userKeysetRepository;
+    private final AuthService authService;
+
+    public CursorPage<WorkLogResponse> getUserWorkLogs(String cursor, Integer size) {
+        User currentUser = authService.getCurrentUser();
+        int pageSize = pageSize(size);
+        boolean first = cursor == null || cursor.isBlank();
+
+        List<WorkLogResponse> rows = workLogProjectionRepository.findPage(currentUser.getId(),
+                first ? null : KeysetCursor.decodeDate(cursor),
+                first ? null : KeysetCursor.decodeId(cursor),
+                pageSize + 1);
+        return CursorPage.of(rows, pageSize, workLog -> KeysetCursor.encode(workLog.getDate(), workLog.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<User> getAllUsers(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        long afterId = cursor == null || cursor.isBlank() ? 0L : KeysetCursor.decodeId(cursor);
+        List<User> rows = userKeysetRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize + 1));
+        return CursorPage.of(rows, pageSize, user -> KeysetCursor.encode(user.getId()));
+    }
+
+    private static int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
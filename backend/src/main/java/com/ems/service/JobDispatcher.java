@@ -0,0 +1,95 @@
+package com.ems.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Hands persisted background jobs to a task executor. A job id is submitted
+ * at most once per process, and only the worker whose {@code claim} moves the
+ * row from QUEUED to RUNNING executes it, so several nodes can poll the same
+ * table. Ids in {@link #inFlight()} are the ones whose heartbeat this node
+ * keeps alive.
+ */
+@Slf4j
+final class JobDispatcher {
+
+    /** Length of the {@code error_message} columns of the job tables. */
+    static final int MAX_ERROR_MESSAGE_LENGTH = 500;
+
+    private final String jobName;
+    private final TaskExecutor taskExecutor;
+    private final Predicate<Long> claim;
+    private final Consumer<Long> work;
+
+    private final Set<Long> dispatched = ConcurrentHashMap.newKeySet();
+
+    JobDispatcher(String jobName, TaskExecutor taskExecutor, Predicate<Long> claim, Consumer<Long> work) {
+        this.jobName = jobName;
+        this.taskExecutor = taskExecutor;
+        this.claim = claim;
+        this.work = work;
+    }
+
+    void dispatch(Long id) {
+        if (!dispatched.add(id)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> run(id));
+        } catch (TaskRejectedException e) {
+            dispatched.remove(id);
+            log.warn("{} {} stays queued, task executor is saturated", jobName, id);
+        }
+    }
+
+    /**
+     * Dispatches once the surrounding transaction has committed, so the
+     * worker never looks for a row it cannot see yet.
+     */
+    void dispatchAfterCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(id);
+                }
+            });
+        } else {
+            dispatch(id);
+        }
+    }
+
+    void run(Long id) {
+        try {
+            if (claim.test(id)) {
+                work.accept(id);
+            }
+        } finally {
+            dispatched.remove(id);
+        }
+    }
+
+    Set<Long> inFlight() {
+        return Set.copyOf(dispatched);
+    }
+
+    /**
+     * The failure's message cut to fit {@code error_message}; an oversized
+     * message would otherwise fail the FAILED update and leave the job
+     * RUNNING.
+     */
+    static String errorMessage(Throwable e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        return message.length() <= MAX_ERROR_MESSAGE_LENGTH
+                ? message
+                : message.substring(0, MAX_ERROR_MESSAGE_LENGTH - 3) + "...";
+    }
+}
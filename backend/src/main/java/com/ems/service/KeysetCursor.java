@@ -0,0 +1,67 @@
+package com.ems.service;
+
+import jakarta.validation.ConstraintViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+
+/**
+ * Opaque continuation tokens for keyset pagination: the sort key of the last
+ * row of a page, URL-safe Base64 encoded so clients treat it as a black box.
+ */
+final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(LocalDate date, Long id) {
+        return encode(date + SEPARATOR + id);
+    }
+
+    static String encode(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    static LocalDate decodeDate(String cursor) {
+        String[] parts = decode(cursor).split("\\|", 2);
+        try {
+            if (parts.length == 2) {
+                return LocalDate.parse(parts[0]);
+            }
+        } catch (DateTimeParseException e) {
+            // fall through to the invalid cursor error
+        }
+        throw invalid();
+    }
+
+    static long decodeId(String cursor) {
+        String decoded = decode(cursor);
+        String id = decoded.substring(decoded.indexOf(SEPARATOR) + 1);
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    private static ConstraintViolationException invalid() {
+        return new ConstraintViolationException("Invalid pagination cursor", Collections.emptySet());
+    }
+}
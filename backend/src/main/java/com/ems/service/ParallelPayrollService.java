@@ -0,0 +1,178 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.exception.PayrollProcessingException;
+import com.ems.repository.PayrollAggregateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Computes payroll partition by partition on the dedicated payroll pool;
+ * each partition is aggregated and priced under its pay rules on the pool.
+ * Partitions are either departments or a fixed number of user id buckets
+ * ({@code payroll.parallel.partitioning=DEPARTMENT|ID_BUCKET}); the time
+ * spent on each partition is recorded as the {@code payroll.partition.duration}
+ * timer.
+ */
+@Slf4j
+@Service
+public class ParallelPayrollService {
+
+    public enum Partitioning {
+        DEPARTMENT,
+        ID_BUCKET
+    }
+
+    static final String UNASSIGNED_DEPARTMENT = "Unassigned";
+
+    /**
+     * One unit of parallel work. Partitions are kept in a list, not keyed by
+     * name, so employees without a department never share a slot with a
+     * department that happens to be called {@value #UNASSIGNED_DEPARTMENT}.
+     */
+    private record Partition(String name, Supplier<List<EmployeePayrollAggregate>> work) {
+    }
+
+    private record PricedEmployee(EmployeePayrollAggregate aggregate, PayrollResult result) {
+    }
+
+    private final PayrollAggregateRepository payrollAggregateRepository;
+    private final PayrollPricingService payrollPricingService;
+    private final ExecutorService payrollPool;
+    private final MeterRegistry meterRegistry;
+    private final Partitioning partitioning;
+    private final int buckets;
+
+    public ParallelPayrollService(PayrollAggregateRepository payrollAggregateRepository,
+                                  PayrollPricingService payrollPricingService,
+                                  @Qualifier("payrollPool") ExecutorService payrollPool,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${payroll.parallel.partitioning:DEPARTMENT}") Partitioning partitioning,
+                                  @Value("${payroll.parallel.buckets:16}") int buckets) {
+        this.payrollAggregateRepository = payrollAggregateRepository;
+        this.payrollPricingService = payrollPricingService;
+        this.payrollPool = payrollPool;
+        this.meterRegistry = meterRegistry;
+        this.partitioning = partitioning;
+        this.buckets = Math.max(1, buckets);
+    }
+
+    public List<Map<String, Object>> generatePayrollReport(YearMonth yearMonth) {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (PricedEmployee employee : computeMonth(yearMonth)) {
+            report.add(employee.result().toMap());
+        }
+        report.sort(Comparator.comparing(payroll -> (Long) payroll.get("employeeId")));
+        return report;
+    }
+
+    public Map<String, Object> getPayrollSummary(YearMonth startMonth, YearMonth endMonth) {
+        Map<String, Long> departmentCents = new HashMap<>();
+        Set<Long> employees = new HashSet<>();
+        long totalCents = 0;
+        int months = 0;
+
+        for (YearMonth month = startMonth; !month.isAfter(endMonth); month = month.plusMonths(1)) {
+            for (PricedEmployee employee : computeMonth(month)) {
+                EmployeePayrollAggregate aggregate = employee.aggregate();
+                long grossPay = employee.result().getGrossPayCents();
+                String department = aggregate.getDepartment() != null
+                        ? aggregate.getDepartment() : UNASSIGNED_DEPARTMENT;
+
+                departmentCents.merge(department, grossPay, Long::sum);
+                employees.add(aggregate.getUserId());
+                totalCents += grossPay;
+            }
+            months++;
+        }
+
+        Map<String, Double> departmentTotals = new HashMap<>();
+        departmentCents.forEach((department, cents) -> departmentTotals.put(department, cents / 100.0));
+        double totalPayroll = totalCents / 100.0;
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalPayroll", totalPayroll);
+        summary.put("totalEmployees", employees.size());
+        summary.put("averageMonthlyPayroll", months > 0 ? totalPayroll / months : 0.0);
+        summary.put("departmentTotals", departmentTotals);
+        return summary;
+    }
+
+    private List<PricedEmployee> computeMonth(YearMonth yearMonth) {
+        List<Partition> partitions = partitionsFor(yearMonth);
+
+        List<CompletableFuture<List<PricedEmployee>>> futures = new ArrayList<>(partitions.size());
+        for (Partition partition : partitions) {
+            futures.add(CompletableFuture.supplyAsync(() -> timed(partition, yearMonth), payrollPool));
+        }
+
+        try {
+            List<PricedEmployee> merged = new ArrayList<>();
+            for (CompletableFuture<List<PricedEmployee>> future : futures) {
+                merged.addAll(future.join());
+            }
+            return merged;
+        } catch (CompletionException e) {
+            throw new PayrollProcessingException("Parallel payroll computation failed for " + yearMonth, e.getCause());
+        }
+    }
+
+    private List<Partition> partitionsFor(YearMonth yearMonth) {
+        List<Partition> partitions = new ArrayList<>();
+        if (partitioning == Partitioning.ID_BUCKET) {
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                int current = bucket;
+                partitions.add(new Partition("bucket-" + bucket, () ->
+                        payrollAggregateRepository.findMonthlyAggregatesByBucket(yearMonth, current, buckets)));
+            }
+        } else {
+            for (String department : payrollAggregateRepository.findDepartments()) {
+                String name = department != null ? department : UNASSIGNED_DEPARTMENT;
+                partitions.add(new Partition(name, () ->
+                        payrollAggregateRepository.findMonthlyAggregatesByDepartment(yearMonth, department)));
+            }
+        }
+        return partitions;
+    }
+
+    private List<PricedEmployee> timed(Partition partition, YearMonth yearMonth) {
+        long start = System.nanoTime();
+        try {
+            List<EmployeePayrollAggregate> aggregates = partition.work().get();
+            List<PayrollResult> results = payrollPricingService.price(aggregates, yearMonth);
+            List<PricedEmployee> priced = new ArrayList<>(aggregates.size());
+            for (int i = 0; i < aggregates.size(); i++) {
+                priced.add(new PricedEmployee(aggregates.get(i), results.get(i)));
+            }
+            return priced;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("payroll.partition.duration")
+                    .description("Time spent computing one payroll partition")
+                    .tag("partitioning", partitioning.name())
+                    .tag("partition", partition.name())
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Payroll partition {} computed in {} ms", partition.name(), elapsed / 1_000_000);
+        }
+    }
+}
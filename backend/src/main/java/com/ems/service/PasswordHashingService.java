@@ -0,0 +1,245 @@
+package com.ems.service;
+
+import com.ems.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt hashing and verification on the bounded {@code passwordHashExecutor}.
+ * When its threads and queue are full, or a hash waits in the queue longer
+ * than the timeout, callers fail fast with a 503 and {@code Retry-After}
+ * instead of tying up a servlet thread. A hash that has started is waited
+ * for, since BCrypt cannot be interrupted and abandoning it would only hide
+ * the work still occupying the pool.
+ * <p>
+ * The cost is {@code security.password.bcrypt-strength}, the same on every
+ * node. Hashes made with any other cost are reported by
+ * {@link #needsRehash(String)} so they are rehashed after a successful
+ * login, which is how a lowered cost takes effect. While a cost change is
+ * rolling out, {@code security.password.rehash-higher-cost=false} keeps
+ * nodes on the old setting from rehashing back down. Hash times are published as the
+ * {@code password.hash} timer, tagged by operation.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    static final int CALIBRATION_STRENGTH = 10;
+    static final int MAX_RECOMMENDED_STRENGTH = 16;
+
+    private final ThreadPoolTaskExecutor executor;
+    private final long targetHashMillis;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+    private final int strength;
+    private final boolean rehashHigherCost;
+    private final BCryptPasswordEncoder encoder;
+
+    public PasswordHashingService(@Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor executor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.password.bcrypt-strength:10}") int strength,
+                                  @Value("${security.password.rehash-higher-cost:true}") boolean rehashHigherCost,
+                                  @Value("${security.password.target-hash-ms:0}") long targetHashMillis,
+                                  @Value("${security.password.timeout:PT5S}") Duration timeout,
+                                  @Value("${security.password.retry-after:PT2S}") Duration retryAfter) {
+        this.executor = executor;
+        this.targetHashMillis = targetHashMillis;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+        this.strength = strength;
+        this.rehashHigherCost = rehashHigherCost;
+        this.encoder = new BCryptPasswordEncoder(strength);
+
+        this.encodeTimer = Timer.builder("password.hash")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("password.hash")
+                .tag("operation", "verify")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Hash requests refused because the hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .register(meterRegistry);
+        Gauge.builder("password.hash.strength", this, PasswordHashingService::getStrength)
+                .register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(verifyTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether {@code encodedPassword} was hashed with a cost other than the
+     * configured one; higher costs only count while
+     * {@code security.password.rehash-higher-cost} is on.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && (cost < strength || (rehashHigherCost && cost > strength));
+    }
+
+    /**
+     * {@link PasswordEncoder} view for Spring Security, whose
+     * {@code upgradeEncoding} drives rehashing on login.
+     */
+    public PasswordEncoder passwordEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return PasswordHashingService.this.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return PasswordHashingService.this.matches(rawPassword, encodedPassword);
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return needsRehash(encodedPassword);
+            }
+        };
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Measures a hash at {@link #CALIBRATION_STRENGTH} on this node and logs
+     * the expected time of the configured cost and, with
+     * {@code security.password.target-hash-ms} set, the cost that would meet
+     * the target. Only informs the choice of
+     * {@code security.password.bcrypt-strength}; it never changes the cost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        long baseMillis = measure();
+        long expectedMillis = Math.round(baseMillis * Math.pow(2, strength - CALIBRATION_STRENGTH));
+        log.info("BCrypt cost {} takes {} ms on this node, configured cost {} takes about {} ms",
+                CALIBRATION_STRENGTH, baseMillis, strength, expectedMillis);
+        if (targetHashMillis > 0) {
+            log.info("BCrypt cost {} would meet the target of {} ms on this node",
+                    recommendedStrength(baseMillis, targetHashMillis), targetHashMillis);
+        }
+    }
+
+    /**
+     * Highest cost whose hash time, doubling per step from {@code baseMillis}
+     * at {@link #CALIBRATION_STRENGTH}, stays within {@code targetMillis}.
+     */
+    static int recommendedStrength(long baseMillis, long targetMillis) {
+        int steps = 63 - Long.numberOfLeadingZeros(Math.max(1, targetMillis / Math.max(1, baseMillis)));
+        return Math.min(MAX_RECOMMENDED_STRENGTH, CALIBRATION_STRENGTH + steps);
+    }
+
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private long measure() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        probe.encode("calibration");
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        return Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Runs {@code task} on the pool. The timeout applies to the wait in the
+     * queue: a task that has not started by then is cancelled, which removes
+     * its work for good. Once started, it runs to completion and its result
+     * is used.
+     */
+    private <T> T submit(Timer timer, Callable<T> task) {
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                started.complete(null);
+                return timer.recordCallable(task);
+            });
+        } catch (TaskRejectedException e) {
+            throw busy();
+        }
+        try {
+            started.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return future.get();
+        } catch (TimeoutException e) {
+            if (future.cancel(false)) {
+                throw busy();
+            }
+            return await(future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw busy();
+        } catch (ExecutionException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Waits for a task that started just as its queue wait timed out.
+     */
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            throw failure(e);
+        }
+    }
+
+    private RuntimeException failure(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Password hashing failed", e.getCause());
+    }
+
+    private ServiceBusyException busy() {
+        rejected.increment();
+        return new ServiceBusyException("Too many sign-ins in progress, please retry shortly", retryAfter);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ems.service;
+
+import com.ems.model.User;
+import com.ems.repository.UserPasswordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stores the rehashed password Spring Security produces after a successful
+ * login whose hash had another BCrypt cost than the current one (see
+ * {@link PasswordHashingService#needsRehash(String)}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordRehashService implements UserDetailsPasswordService {
+
+    private final UserPasswordRepository userPasswordRepository;
+    private final UserPrincipalCache userPrincipalCache;
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userPasswordRepository.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof User cached) {
+            userPrincipalCache.invalidate(cached.getId(), cached.getUsername());
+        } else {
+            userPrincipalCache.invalidateUsername(user.getUsername());
+        }
+        log.debug("Rehashed password of user {}", user.getUsername());
+        return user;
+    }
+}
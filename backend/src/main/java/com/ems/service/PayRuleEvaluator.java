@@ -0,0 +1,222 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.ApprovedDay;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.model.WorkLog;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A rule set compiled to fixed-point constants. Thresholds are hundredths of
+ * an hour, multipliers are basis points, and a disabled threshold is
+ * {@link Long#MAX_VALUE}, so evaluating a day is the same handful of min/max
+ * operations whatever the rules are.
+ * <p>
+ * Each hour is paid once: the part of a day above the double-time threshold
+ * at the double-time multiplier, the part above the daily threshold at the
+ * overtime multiplier, and regular hours beyond the weekly threshold (per ISO
+ * week) at the overtime multiplier too. A week that starts in the previous
+ * month counts from its Monday, so the days needed start at
+ * {@link #firstDayFor(YearMonth)}; days before the month only fill the weekly
+ * threshold and are not paid again. Under a weekend rule every hour worked on
+ * a weekend is paid at least the weekend multiplier and reported as weekend
+ * hours. Premium and weekend pay are each rounded once per employee; the
+ * premium is reported as overtime pay.
+ */
+public final class PayRuleEvaluator {
+
+    static final long BASIS_POINTS = 10_000;
+
+    public static final PayRuleEvaluator STANDARD = compile(new PayRuleProperties.RuleSet());
+
+    private final long dailyThreshold;
+    private final long doubleTimeThreshold;
+    private final long weeklyThreshold;
+    private final long overtimeBasisPoints;
+    private final long doubleTimeBasisPoints;
+    private final long weekendBasisPoints;
+    private final long weekendOvertimeBasisPoints;
+    private final long weekendDoubleTimeBasisPoints;
+    private final boolean weekly;
+    private final boolean weekend;
+
+    private PayRuleEvaluator(long dailyThreshold, long doubleTimeThreshold, long weeklyThreshold,
+                             long overtimeBasisPoints, long doubleTimeBasisPoints, long weekendBasisPoints) {
+        this.dailyThreshold = dailyThreshold;
+        this.doubleTimeThreshold = doubleTimeThreshold;
+        this.weeklyThreshold = weeklyThreshold;
+        this.overtimeBasisPoints = overtimeBasisPoints;
+        this.doubleTimeBasisPoints = doubleTimeBasisPoints;
+        this.weekendBasisPoints = weekendBasisPoints;
+        this.weekendOvertimeBasisPoints = Math.max(overtimeBasisPoints, weekendBasisPoints);
+        this.weekendDoubleTimeBasisPoints = Math.max(doubleTimeBasisPoints, weekendBasisPoints);
+        this.weekly = weeklyThreshold != Long.MAX_VALUE;
+        this.weekend = weekendBasisPoints > 0;
+    }
+
+    /**
+     * Compiles {@code rules}. A {@code null} overtime multiplier turns off
+     * the daily and weekly thresholds, and a {@code null} double-time
+     * multiplier the double-time threshold, so those hours are paid as
+     * regular hours.
+     */
+    public static PayRuleEvaluator compile(PayRuleProperties.RuleSet rules) {
+        long overtime = multiplier(rules.getOvertimeMultiplier(), "overtime multiplier");
+        long doubleTimeMultiplier = multiplier(rules.getDoubleTimeMultiplier(), "double-time multiplier");
+        long doubleTime = doubleTimeMultiplier > 0
+                ? threshold(rules.getDoubleTimeThresholdHours(), "double-time threshold")
+                : Long.MAX_VALUE;
+        long daily = doubleTime;
+        long weekly = Long.MAX_VALUE;
+        if (overtime > 0) {
+            daily = threshold(rules.getDailyThresholdHours(), "daily threshold");
+            if (doubleTime != Long.MAX_VALUE && doubleTime <= daily) {
+                throw new IllegalArgumentException("Double-time threshold must be above the daily threshold");
+            }
+            weekly = threshold(rules.getWeeklyThresholdHours(), "weekly threshold");
+        }
+        return new PayRuleEvaluator(daily, doubleTime, weekly, overtime, doubleTimeMultiplier,
+                multiplier(rules.getWeekendMultiplier(), "weekend multiplier"));
+    }
+
+    /**
+     * Whether these rules pay exactly like the aggregate query: the part of
+     * each day above eight hours at time and a half, nothing else. Payroll
+     * under such rules can be computed from monthly totals alone.
+     */
+    public boolean isStandard() {
+        return dailyThreshold == PayrollCalculator.toHundredths(8.0)
+                && overtimeBasisPoints * PayrollCalculator.OVERTIME_DENOMINATOR
+                == BASIS_POINTS * PayrollCalculator.OVERTIME_NUMERATOR
+                && doubleTimeThreshold == Long.MAX_VALUE
+                && !weekly
+                && !weekend;
+    }
+
+    /**
+     * First day whose hours the month's payroll depends on: the Monday of the
+     * ISO week containing the 1st under a weekly threshold, else the 1st.
+     */
+    public LocalDate firstDayFor(YearMonth yearMonth) {
+        LocalDate first = yearMonth.atDay(1);
+        return weekly ? first.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : first;
+    }
+
+    /**
+     * Payroll for the employee's logs; only approved logs count and the logs
+     * may come in any order.
+     */
+    public PayrollResult evaluate(Long employeeId, String employeeName, YearMonth yearMonth,
+                                  List<WorkLog> workLogs, long rateCents) {
+        List<ApprovedDay> days = new ArrayList<>(workLogs.size());
+        for (WorkLog workLog : workLogs) {
+            if (workLog.getStatus() == WorkLog.WorkLogStatus.APPROVED && workLog.getHoursWorked() != null) {
+                days.add(new ApprovedDay(workLog.getDate(), workLog.getHoursWorked()));
+            }
+        }
+        return evaluateDays(employeeId, employeeName, yearMonth, days, rateCents);
+    }
+
+    /**
+     * Payroll for the employee's approved hours per day, in any order. Days
+     * from {@link #firstDayFor(YearMonth)} up to the end of the month are
+     * used; others are ignored.
+     */
+    public PayrollResult evaluateDays(Long employeeId, String employeeName, YearMonth yearMonth,
+                                      List<ApprovedDay> approvedDays, long rateCents) {
+        List<ApprovedDay> days = approvedDays;
+        if (weekly) {
+            days = new ArrayList<>(approvedDays);
+            days.sort(Comparator.comparing(ApprovedDay::getDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+        }
+        LocalDate monthStart = yearMonth.atDay(1);
+        LocalDate monthEnd = yearMonth.atEndOfMonth();
+        LocalDate firstDay = firstDayFor(yearMonth);
+
+        long regular = 0;
+        long overtime = 0;
+        long overtimeWeighted = 0;
+        long weekendHours = 0;
+        long weekendWeighted = 0;
+        long weekKey = Long.MIN_VALUE;
+        long weekRegular = 0;
+
+        for (ApprovedDay day : days) {
+            LocalDate date = day.getDate();
+            if (date != null && (date.isBefore(firstDay) || date.isAfter(monthEnd))) {
+                continue;
+            }
+            long hours = PayrollCalculator.toHundredths(day.getHours());
+            long doubleTime = Math.max(hours - doubleTimeThreshold, 0);
+            long dayOvertime = Math.max(Math.min(hours, doubleTimeThreshold) - dailyThreshold, 0);
+            long base = Math.min(hours, dailyThreshold);
+
+            if (weekly && date != null) {
+                long key = date.get(IsoFields.WEEK_BASED_YEAR) * 100L + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+                if (key != weekKey) {
+                    weekKey = key;
+                    weekRegular = 0;
+                }
+                long shifted = Math.max(base - Math.max(weeklyThreshold - weekRegular, 0), 0);
+                base -= shifted;
+                dayOvertime += shifted;
+                weekRegular += base;
+            }
+            if (date != null && date.isBefore(monthStart)) {
+                continue;
+            }
+
+            if (weekend && date != null && isWeekend(date)) {
+                weekendHours += hours;
+                weekendWeighted += base * weekendBasisPoints
+                        + dayOvertime * weekendOvertimeBasisPoints
+                        + doubleTime * weekendDoubleTimeBasisPoints;
+            } else {
+                regular += base;
+                overtime += dayOvertime + doubleTime;
+                overtimeWeighted += dayOvertime * overtimeBasisPoints + doubleTime * doubleTimeBasisPoints;
+            }
+        }
+
+        long regularPay = PayrollCalculator.divideHalfUp(Math.multiplyExact(regular, rateCents), 100);
+        long overtimePay = PayrollCalculator.divideHalfUp(
+                Math.multiplyExact(overtimeWeighted, rateCents), 100 * BASIS_POINTS);
+        long weekendPay = PayrollCalculator.divideHalfUp(
+                Math.multiplyExact(weekendWeighted, rateCents), 100 * BASIS_POINTS);
+        return PayrollCalculator.fromPay(employeeId, employeeName, yearMonth, regular, overtime, weekendHours,
+                regularPay, overtimePay, weekendPay);
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    private static long threshold(Double hours, String name) {
+        if (hours == null) {
+            return Long.MAX_VALUE;
+        }
+        if (hours < 0) {
+            throw new IllegalArgumentException("Pay rule " + name + " must not be negative");
+        }
+        return PayrollCalculator.toHundredths(hours);
+    }
+
+    private static long multiplier(Double multiplier, String name) {
+        if (multiplier == null) {
+            return 0;
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("Pay rule " + name + " must be at least 1.0");
+        }
+        return Math.round(multiplier * BASIS_POINTS);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiles the configured pay rules once at startup and hands out the
+ * evaluator for a department; departments without rules of their own use
+ * the defaults. {@link PayrollPricingService} applies them to every payroll
+ * computed from aggregates.
+ */
+@Slf4j
+@Component
+public class PayRuleRegistry {
+
+    private final PayRuleEvaluator defaults;
+    private final Map<String, PayRuleEvaluator> departments = new HashMap<>();
+
+    public PayRuleRegistry(PayRuleProperties properties) {
+        this.defaults = PayRuleEvaluator.compile(properties.getDefaults());
+        properties.getDepartments().forEach((department, rules) ->
+                departments.put(department, PayRuleEvaluator.compile(rules)));
+        log.info("Compiled pay rules for {} department(s)", departments.size());
+    }
+
+    public PayRuleEvaluator forDepartment(String department) {
+        return department != null ? departments.getOrDefault(department, defaults) : defaults;
+    }
+
+    /**
+     * Whether payroll of the department can be computed from the monthly
+     * totals of the aggregate query; see {@link PayRuleEvaluator#isStandard()}.
+     */
+    public boolean isStandard(String department) {
+        return forDepartment(department).isStandard();
+    }
+
+    public boolean hasCustomRules(String department) {
+        return department != null && departments.containsKey(department);
+    }
+}
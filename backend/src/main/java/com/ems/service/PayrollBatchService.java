@@ -0,0 +1,282 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.dto.payroll.PayrollRunResponse;
+import com.ems.exception.PayrollProcessingException;
+import com.ems.exception.ResourceNotFoundException;
+import com.ems.model.PayrollRun;
+import com.ems.model.PayrollSnapshot;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.repository.PayrollAggregateRepository;
+import com.ems.repository.PayrollRunRepository;
+import com.ems.repository.PayrollSnapshotUpsertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Computes a month's payroll for every employee as a background batch run.
+ * Users are read in keyset order over {@code users.id}, {@code chunk-size}
+ * at a time, and results are written to {@code payroll_snapshots}; every
+ * {@code commit-interval} chunks the results and the run's checkpoint commit
+ * in one transaction. A run interrupted by a crash or a failure resumes after
+ * the last committed user. Runs are dispatched like report jobs: a RUNNING
+ * run whose heartbeat is older than {@code payroll.batch.lease-timeout} is
+ * queued again by any node. At most one run per period is queued or running,
+ * enforced by a unique index on the active period.
+ */
+@Slf4j
+@Service
+public class PayrollBatchService {
+
+    private static final Set<PayrollRun.PayrollRunStatus> UNFINISHED =
+            EnumSet.of(PayrollRun.PayrollRunStatus.QUEUED, PayrollRun.PayrollRunStatus.RUNNING);
+
+    private final PayrollRunRepository payrollRunRepository;
+    private final PayrollAggregateRepository payrollAggregateRepository;
+    private final PayrollSnapshotUpsertRepository payrollSnapshotUpsertRepository;
+    private final PayrollPricingService payrollPricingService;
+    private final AuthService authService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int commitInterval;
+    private final Duration leaseTimeout;
+
+    private final JobDispatcher dispatcher;
+    private final Counter employeesProcessed;
+
+    public PayrollBatchService(PayrollRunRepository payrollRunRepository,
+                               PayrollAggregateRepository payrollAggregateRepository,
+                               PayrollSnapshotUpsertRepository payrollSnapshotUpsertRepository,
+                               PayrollPricingService payrollPricingService,
+                               AuthService authService,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${payroll.batch.chunk-size:500}") int chunkSize,
+                               @Value("${payroll.batch.commit-interval:1}") int commitInterval,
+                               @Value("${payroll.batch.lease-timeout:PT2M}") Duration leaseTimeout) {
+        this.payrollRunRepository = payrollRunRepository;
+        this.payrollAggregateRepository = payrollAggregateRepository;
+        this.payrollSnapshotUpsertRepository = payrollSnapshotUpsertRepository;
+        this.payrollPricingService = payrollPricingService;
+        this.authService = authService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.commitInterval = Math.max(1, commitInterval);
+        this.leaseTimeout = leaseTimeout;
+        this.dispatcher = new JobDispatcher("Payroll run", taskExecutor, payrollRunRepository::claim,
+                runId -> execute(findRun(runId)));
+
+        this.employeesProcessed = Counter.builder("payroll.batch.employees")
+                .description("Employees whose payroll was committed by batch runs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a batch run for the month, or returns the run already queued or
+     * running for it. Not transactional: the insert commits on its own so a
+     * concurrent start that loses on the unique active period can read the
+     * winner's run.
+     */
+    public PayrollRunResponse startRun(YearMonth yearMonth) {
+        User currentUser = requireAdmin();
+        String period = yearMonth.toString();
+        PayrollRun existing = findUnfinished(period).orElse(null);
+        if (existing != null) {
+            return PayrollRunResponse.fromEntity(existing);
+        }
+
+        PayrollRun run;
+        try {
+            run = payrollRunRepository.save(PayrollRun.builder()
+                    .period(period)
+                    .chunkSize(chunkSize)
+                    .commitInterval(commitInterval)
+                    .requestedBy(currentUser.getId())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.info("Payroll run for {} was started concurrently", period);
+            return findUnfinished(period)
+                    .map(PayrollRunResponse::fromEntity)
+                    .orElseThrow(() -> e);
+        }
+        dispatcher.dispatchAfterCommit(run.getId());
+        return PayrollRunResponse.fromEntity(run);
+    }
+
+    /**
+     * Queues a failed run again; it continues from its checkpoint.
+     */
+    @Transactional
+    public PayrollRunResponse resumeRun(Long id) {
+        requireAdmin();
+        PayrollRun run = findRun(id);
+        if (run.getStatus() != PayrollRun.PayrollRunStatus.FAILED) {
+            throw new PayrollProcessingException("Payroll run " + id + " is " + run.getStatus());
+        }
+        findUnfinished(run.getPeriod()).ifPresent(other -> {
+            throw new PayrollProcessingException("Payroll run " + other.getId() + " for " + run.getPeriod()
+                    + " is " + other.getStatus());
+        });
+        run.setStatus(PayrollRun.PayrollRunStatus.QUEUED);
+        run.setErrorMessage(null);
+        run.setFinishedAt(null);
+        payrollRunRepository.save(run);
+        dispatcher.dispatchAfterCommit(id);
+        return PayrollRunResponse.fromEntity(run);
+    }
+
+    @Transactional(readOnly = true)
+    public PayrollRunResponse getRun(Long id) {
+        return PayrollRunResponse.fromEntity(findRun(id));
+    }
+
+    /**
+     * Queues runs whose node stopped sending heartbeats, then dispatches
+     * every queued run; re-queued runs continue from their last checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${payroll.batch.dispatch-interval-ms:5000}")
+    public void dispatchQueued() {
+        int requeued = payrollRunRepository.requeueStale(LocalDateTime.now().minus(leaseTimeout));
+        if (requeued > 0) {
+            log.info("Re-queued {} payroll runs whose heartbeat expired", requeued);
+        }
+        for (PayrollRun run : payrollRunRepository.findByStatusOrderByCreatedAtAsc(PayrollRun.PayrollRunStatus.QUEUED)) {
+            dispatch(run.getId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedRuns() {
+        dispatchQueued();
+    }
+
+    @Scheduled(fixedDelayString = "${payroll.batch.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        Set<Long> running = dispatcher.inFlight();
+        if (!running.isEmpty()) {
+            payrollRunRepository.heartbeat(running, PayrollRun.PayrollRunStatus.RUNNING, LocalDateTime.now());
+        }
+    }
+
+    void dispatch(Long runId) {
+        dispatcher.dispatch(runId);
+    }
+
+    void run(Long runId) {
+        dispatcher.run(runId);
+    }
+
+    private void execute(PayrollRun run) {
+        YearMonth yearMonth = YearMonth.parse(run.getPeriod());
+        long start = System.nanoTime();
+        long resumedFrom = run.getProcessedCount();
+        if (run.getLastUserId() > 0) {
+            log.info("Resuming payroll run {} for {} after user {}", run.getId(), yearMonth, run.getLastUserId());
+        }
+
+        try {
+            Checkpoint checkpoint;
+            do {
+                checkpoint = transactionTemplate.execute(status -> commitChunks(run, yearMonth));
+                employeesProcessed.increment(checkpoint.processedCount() - run.getProcessedCount());
+                run.setLastUserId(checkpoint.lastUserId());
+                run.setProcessedCount(checkpoint.processedCount());
+            } while (checkpoint.more());
+
+            double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-9);
+            run.setEmployeesPerSecond((run.getProcessedCount() - resumedFrom) / seconds);
+            run.setStatus(PayrollRun.PayrollRunStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+            payrollRunRepository.save(run);
+            log.info("Payroll run {} for {} completed: {} employees, {} employees/s",
+                    run.getId(), yearMonth, run.getProcessedCount(), String.format("%.1f", run.getEmployeesPerSecond()));
+        } catch (RuntimeException e) {
+            log.error("Payroll run {} failed after user {}", run.getId(), run.getLastUserId(), e);
+            run.setStatus(PayrollRun.PayrollRunStatus.FAILED);
+            run.setErrorMessage(JobDispatcher.errorMessage(e));
+            run.setFinishedAt(LocalDateTime.now());
+            payrollRunRepository.save(run);
+        }
+    }
+
+    /**
+     * Processes up to {@code commitInterval} chunks inside the caller's
+     * transaction and records the checkpoint with them.
+     */
+    private Checkpoint commitChunks(PayrollRun run, YearMonth yearMonth) {
+        long lastUserId = run.getLastUserId();
+        long processed = run.getProcessedCount();
+        boolean more = true;
+
+        for (int i = 0; i < commitInterval && more; i++) {
+            List<EmployeePayrollAggregate> chunk =
+                    payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, lastUserId, chunkSize);
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, yearMonth);
+                lastUserId = chunk.get(chunk.size() - 1).getUserId();
+                processed += chunk.size();
+            }
+            more = chunk.size() == chunkSize;
+        }
+
+        payrollRunRepository.checkpoint(run.getId(), lastUserId, processed);
+        return new Checkpoint(lastUserId, processed, more);
+    }
+
+    private void writeChunk(List<EmployeePayrollAggregate> chunk, YearMonth yearMonth) {
+        String period = yearMonth.toString();
+        List<PayrollResult> results = payrollPricingService.price(chunk, yearMonth);
+        List<PayrollSnapshot> snapshots = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            EmployeePayrollAggregate aggregate = chunk.get(i);
+            PayrollSnapshot snapshot = PayrollSnapshot.builder().userId(aggregate.getUserId()).period(period).build();
+            PayrollSnapshotService.apply(snapshot, aggregate, results.get(i));
+            snapshots.add(snapshot);
+        }
+        payrollSnapshotUpsertRepository.upsertAll(snapshots);
+    }
+
+    private Optional<PayrollRun> findUnfinished(String period) {
+        return payrollRunRepository.findFirstByPeriodAndStatusInOrderByCreatedAtDesc(period, UNFINISHED);
+    }
+
+    private User requireAdmin() {
+        User currentUser = authService.getCurrentUser();
+        if (currentUser.getRole() != Role.ROLE_ADMIN) {
+            throw new PayrollProcessingException("Only administrators can run payroll batches");
+        }
+        return currentUser;
+    }
+
+    private record Checkpoint(long lastUserId, long processedCount, boolean more) {
+    }
+
+    private PayrollRun findRun(Long id) {
+        return payrollRunRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Payroll run not found with id: " + id));
+    }
+}
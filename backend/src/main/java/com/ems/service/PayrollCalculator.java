@@ -0,0 +1,139 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Fixed-point payroll arithmetic. Hours are long hundredths of an hour
+ * (work_logs.hours_worked is DECIMAL(5,2)) and money is long cents
+ * (users.hourly_rate is DECIMAL(10,2)), so every intermediate value is exact.
+ * Rounding happens once per amount, half-up to the cent:
+ * <ul>
+ *     <li>regular pay = regular hours x rate</li>
+ *     <li>overtime pay = overtime hours x rate x 3/2</li>
+ *     <li>each deduction = gross pay x its rate in basis points</li>
+ *     <li>net pay = gross pay - sum of the rounded deductions</li>
+ * </ul>
+ */
+public final class PayrollCalculator {
+
+    static final long OVERTIME_NUMERATOR = 3;
+    static final long OVERTIME_DENOMINATOR = 2;
+
+    static final long TAX_BASIS_POINTS = 2_000;
+    static final long INSURANCE_BASIS_POINTS = 500;
+    static final long PENSION_BASIS_POINTS = 500;
+
+    private PayrollCalculator() {
+    }
+
+    public static PayrollResult calculate(EmployeePayrollAggregate aggregate, YearMonth yearMonth) {
+        return calculate(aggregate.getUserId(), aggregate.getFullName(), yearMonth,
+                toHundredths(aggregate.getRegularHours()),
+                toHundredths(aggregate.getOvertimeHours()),
+                toCents(aggregate.getHourlyRate()));
+    }
+
+    /**
+     * Payroll from the employee's work logs of the month under the standard
+     * rules; only approved logs count and overtime is the part of each log
+     * above eight hours. Under rules with a weekly threshold the logs must
+     * start at {@link PayRuleEvaluator#firstDayFor(YearMonth)}.
+     */
+    public static PayrollResult calculate(User user, List<WorkLog> workLogs, YearMonth yearMonth) {
+        return calculate(user, workLogs, yearMonth, PayRuleEvaluator.STANDARD);
+    }
+
+    public static PayrollResult calculate(User user, List<WorkLog> workLogs, YearMonth yearMonth,
+                                          PayRuleEvaluator rules) {
+        return rules.evaluate(user.getId(), user.getFullName(), yearMonth, workLogs, toCents(user.getHourlyRate()));
+    }
+
+    public static PayrollResult calculate(Long employeeId, String employeeName, YearMonth yearMonth,
+                                          long regularHundredths, long overtimeHundredths, long rateCents) {
+        long regularPay = divideHalfUp(Math.multiplyExact(regularHundredths, rateCents), 100);
+        long overtimePay = divideHalfUp(
+                Math.multiplyExact(Math.multiplyExact(overtimeHundredths, rateCents), OVERTIME_NUMERATOR),
+                100 * OVERTIME_DENOMINATOR);
+        return fromPay(employeeId, employeeName, yearMonth, regularHundredths, overtimeHundredths,
+                regularPay, overtimePay);
+    }
+
+    static PayrollResult fromPay(Long employeeId, String employeeName, YearMonth yearMonth,
+                                 long regularHundredths, long overtimeHundredths,
+                                 long regularPay, long overtimePay) {
+        return fromPay(employeeId, employeeName, yearMonth, regularHundredths, overtimeHundredths, 0,
+                regularPay, overtimePay, 0);
+    }
+
+    static PayrollResult fromPay(Long employeeId, String employeeName, YearMonth yearMonth,
+                                 long regularHundredths, long overtimeHundredths, long weekendHundredths,
+                                 long regularPay, long overtimePay, long weekendPay) {
+        long grossPay = regularPay + overtimePay + weekendPay;
+
+        long tax = basisPoints(grossPay, TAX_BASIS_POINTS);
+        long insurance = basisPoints(grossPay, INSURANCE_BASIS_POINTS);
+        long pension = basisPoints(grossPay, PENSION_BASIS_POINTS);
+        long totalDeductions = tax + insurance + pension;
+
+        return PayrollResult.builder()
+                .employeeId(employeeId)
+                .employeeName(employeeName)
+                .period(yearMonth.toString())
+                .totalHundredths(regularHundredths + overtimeHundredths + weekendHundredths)
+                .regularHundredths(regularHundredths)
+                .overtimeHundredths(overtimeHundredths)
+                .weekendHundredths(weekendHundredths)
+                .regularPayCents(regularPay)
+                .overtimePayCents(overtimePay)
+                .weekendPayCents(weekendPay)
+                .grossPayCents(grossPay)
+                .taxCents(tax)
+                .insuranceCents(insurance)
+                .pensionCents(pension)
+                .totalDeductionsCents(totalDeductions)
+                .netPayCents(grossPay - totalDeductions)
+                .build();
+    }
+
+    /**
+     * Converts a two-decimal value read from a DECIMAL column to hundredths.
+     * Exact for every value such a column can hold.
+     */
+    public static long toHundredths(double value) {
+        return Math.round(value * 100);
+    }
+
+    public static long toCents(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0L;
+    }
+
+    /**
+     * Pay for a single work log at the plain hourly rate, as shown next to
+     * the log in listings.
+     */
+    public static double calculatedPay(Double hoursWorked, Double hourlyRate) {
+        if (hoursWorked == null) {
+            return 0.0;
+        }
+        return divideHalfUp(Math.multiplyExact(toHundredths(hoursWorked), toCents(hourlyRate)), 100) / 100.0;
+    }
+
+    static long basisPoints(long cents, long basisPoints) {
+        return divideHalfUp(Math.multiplyExact(cents, basisPoints), 10_000);
+    }
+
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,192 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.exception.PayrollProcessingException;
+import com.ems.repository.PayrollAggregateRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+/**
+ * Writes the monthly payroll report straight to an output stream, one row per
+ * employee as it comes off the database cursor. Rows under standard pay rules
+ * are written as they arrive; rows under other department rules are priced in
+ * batches of at most {@code fetch-size}, which bounds what is held in memory
+ * whatever the number of employees.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayrollExportService {
+
+    @Getter
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Optional<ExportFormat> from(String format) {
+            return Arrays.stream(values())
+                    .filter(value -> value.name().equalsIgnoreCase(format))
+                    .findFirst();
+        }
+    }
+
+    static final String[] COLUMNS = {
+            "employeeId", "employeeName", "department", "period",
+            "totalHours", "regularHours", "overtimeHours", "weekendHours",
+            "regularPay", "overtimePay", "weekendPay", "grossPay",
+            "tax", "insurance", "pension", "totalDeductions", "netPay"
+    };
+
+    private final PayrollAggregateRepository payrollAggregateRepository;
+    private final PayrollPricingService payrollPricingService;
+
+    @Value("${payroll.export.fetch-size:500}")
+    private int fetchSize = 500;
+
+    public String fileName(YearMonth yearMonth, ExportFormat format) {
+        return "payroll-report-" + yearMonth + "." + format.getExtension();
+    }
+
+    @Transactional(readOnly = true)
+    public void export(YearMonth yearMonth, ExportFormat format, OutputStream outputStream) {
+        export(yearMonth, format, outputStream, row -> { });
+    }
+
+    /**
+     * Same as {@link #export(YearMonth, ExportFormat, OutputStream)}, reporting
+     * the running row count to {@code onRow} after each row is written.
+     */
+    @Transactional(readOnly = true)
+    public void export(YearMonth yearMonth, ExportFormat format, OutputStream outputStream, LongConsumer onRow) {
+        try {
+            RowWriter writer = format == ExportFormat.XLSX
+                    ? new XlsxRowWriter(outputStream)
+                    : new CsvRowWriter(outputStream);
+            writer.writeHeader(COLUMNS);
+
+            long[] rows = {0};
+            List<EmployeePayrollAggregate> pending = new ArrayList<>();
+            payrollAggregateRepository.streamMonthlyAggregates(yearMonth, fetchSize, aggregate -> {
+                pending.add(aggregate);
+                // Rows under standard rules go straight out; others wait for a batch to price together
+                if (pending.size() >= fetchSize
+                        || pending.size() == 1 && payrollPricingService.isStandard(aggregate)) {
+                    writeRows(writer, pending, yearMonth, rows, onRow);
+                }
+            });
+            writeRows(writer, pending, yearMonth, rows, onRow);
+            writer.finish();
+            log.info("Exported {} payroll rows for {} as {}", rows[0], yearMonth, format);
+        } catch (IOException | UncheckedIOException e) {
+            throw new PayrollProcessingException("Failed to export payroll report for " + yearMonth, e);
+        }
+    }
+
+    private void writeRows(RowWriter writer, List<EmployeePayrollAggregate> pending, YearMonth yearMonth,
+                           long[] rows, LongConsumer onRow) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<PayrollResult> results = payrollPricingService.price(pending, yearMonth);
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                writer.writeRow(toRow(pending.get(i), results.get(i)));
+                onRow.accept(++rows[0]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pending.clear();
+    }
+
+    static Object[] toRow(EmployeePayrollAggregate aggregate, PayrollResult result) {
+        return new Object[]{
+                result.getEmployeeId(), result.getEmployeeName(), aggregate.getDepartment(), result.getPeriod(),
+                result.getTotalHours(), result.getRegularHours(), result.getOvertimeHours(), result.getWeekendHours(),
+                result.getRegularPayCents() / 100.0, result.getOvertimePayCents() / 100.0,
+                result.getWeekendPayCents() / 100.0, result.getGrossPay(),
+                result.getTaxCents() / 100.0, result.getInsuranceCents() / 100.0, result.getPensionCents() / 100.0,
+                result.getTotalDeductionsCents() / 100.0, result.getNetPay()
+        };
+    }
+
+    interface RowWriter {
+        void writeHeader(String[] columns) throws IOException;
+
+        void writeRow(Object[] values) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream outputStream) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeHeader(String[] columns) throws IOException {
+            writeRow(columns);
+        }
+
+        @Override
+        public void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = String.valueOf(value);
+            if (value instanceof CharSequence && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                // Keep spreadsheet apps from evaluating user-entered text as a formula
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+    }
+}
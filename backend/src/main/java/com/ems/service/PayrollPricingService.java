@@ -0,0 +1,73 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.ApprovedDay;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.repository.PayrollAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns monthly aggregates into payroll under each employee's department pay
+ * rules. Employees under standard rules are priced from the aggregate's own
+ * regular/overtime split; the approved days of everyone else are loaded in
+ * one query per call and run through their {@link PayRuleEvaluator}. Every
+ * aggregate-based payroll path goes through here, so reports, snapshots,
+ * rollups, exports and batch runs agree with each other.
+ */
+@Service
+@RequiredArgsConstructor
+public class PayrollPricingService {
+
+    private final PayRuleRegistry payRuleRegistry;
+    private final PayrollAggregateRepository payrollAggregateRepository;
+
+    /**
+     * Whether the aggregate can be priced on its own without another query.
+     */
+    public boolean isStandard(EmployeePayrollAggregate aggregate) {
+        return payRuleRegistry.isStandard(aggregate.getDepartment());
+    }
+
+    public PayrollResult price(EmployeePayrollAggregate aggregate, YearMonth yearMonth) {
+        return price(List.of(aggregate), yearMonth).get(0);
+    }
+
+    /**
+     * Results in the order of {@code aggregates}.
+     */
+    public List<PayrollResult> price(List<EmployeePayrollAggregate> aggregates, YearMonth yearMonth) {
+        List<Long> ruled = new ArrayList<>();
+        LocalDate firstDay = yearMonth.atDay(1);
+        for (EmployeePayrollAggregate aggregate : aggregates) {
+            PayRuleEvaluator rules = payRuleRegistry.forDepartment(aggregate.getDepartment());
+            if (!rules.isStandard()) {
+                ruled.add(aggregate.getUserId());
+                LocalDate needed = rules.firstDayFor(yearMonth);
+                if (needed.isBefore(firstDay)) {
+                    firstDay = needed;
+                }
+            }
+        }
+        Map<Long, List<ApprovedDay>> days = ruled.isEmpty()
+                ? Map.of()
+                : payrollAggregateRepository.findApprovedDays(ruled, firstDay, yearMonth.atEndOfMonth());
+
+        List<PayrollResult> results = new ArrayList<>(aggregates.size());
+        for (EmployeePayrollAggregate aggregate : aggregates) {
+            PayRuleEvaluator rules = payRuleRegistry.forDepartment(aggregate.getDepartment());
+            results.add(rules.isStandard()
+                    ? PayrollCalculator.calculate(aggregate, yearMonth)
+                    : rules.evaluateDays(aggregate.getUserId(), aggregate.getFullName(), yearMonth,
+                            days.getOrDefault(aggregate.getUserId(), List.of()),
+                            PayrollCalculator.toCents(aggregate.getHourlyRate())));
+        }
+        return results;
+    }
+}
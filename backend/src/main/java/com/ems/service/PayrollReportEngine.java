@@ -0,0 +1,50 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.repository.PayrollAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the monthly payroll report from one aggregate query rather than one
+ * work log query per employee, priced under each department's pay rules.
+ * The per-employee results serialize exactly like
+ * {@link PayrollService#calculatePayroll}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PayrollReportEngine {
+
+    private final PayrollAggregateRepository payrollAggregateRepository;
+    private final PayrollPricingService payrollPricingService;
+
+    @Transactional(readOnly = true)
+    public List<PayrollResult> generateResults(YearMonth yearMonth) {
+        long start = System.nanoTime();
+        List<EmployeePayrollAggregate> aggregates = payrollAggregateRepository.findMonthlyAggregates(yearMonth);
+        List<PayrollResult> results = payrollPricingService.price(aggregates, yearMonth);
+
+        log.debug("Generated payroll report for {} with {} employees in {} ms",
+                yearMonth, results.size(), (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> generateReport(YearMonth yearMonth) {
+        List<PayrollResult> results = generateResults(yearMonth);
+        List<Map<String, Object>> report = new ArrayList<>(results.size());
+        for (PayrollResult result : results) {
+            report.add(result.toMap());
+        }
+        return report;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ems.service;
+
+import com.ems.cache.BoundedCache;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.event.UserChangedEvent;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring cache of {@link PayrollResult}s in front of
+ * {@code PayrollService.calculatePayroll}, keyed by employee and month.
+ * Entries are evicted after commit of the change that affects them: approved
+ * hours of that user-month, or the employee's hourly rate, name or
+ * department. A result loaded while an eviction ran may predate that change
+ * and is returned without being cached; the check and the put happen under
+ * the cache lock, after which evictions bump the generation.
+ * <p>
+ * Evictions are process-local: the cache assumes the changes it serves are
+ * made on the same instance. With several instances, another instance's
+ * change is seen once the entry expires, which is what bounds
+ * {@code payroll.cache.ttl}; keep it short there.
+ */
+@Slf4j
+@Component
+public class PayrollResultCache {
+
+    record Key(Long userId, YearMonth yearMonth) {
+    }
+
+    private final BoundedCache<Key, PayrollResult> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public PayrollResultCache(MeterRegistry meterRegistry,
+                              @Value("${payroll.cache.max-size:10000}") int maxSize,
+                              @Value("${payroll.cache.ttl:PT1M}") Duration ttl) {
+        this.cache = new BoundedCache<>("payroll", maxSize, ttl, meterRegistry);
+    }
+
+    public PayrollResult get(Long userId, YearMonth yearMonth, Supplier<PayrollResult> loader) {
+        Key key = new Key(userId, yearMonth);
+        Optional<PayrollResult> cached = cache.getIfPresent(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long loadedAt = generation.get();
+        PayrollResult result = loader.get();
+        cache.putIf(key, result, () -> generation.get() == loadedAt);
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onWorkLogChanged(WorkLogChangedEvent event) {
+        if (!event.affectsApprovedHours()) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.invalidate(new Key(event.getUserId(), event.getYearMonth()));
+        if (event.getPreviousYearMonth() != null) {
+            cache.invalidate(new Key(event.getUserId(), event.getPreviousYearMonth()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onWorkLogsStatusChanged(WorkLogsStatusChangedEvent event) {
+        if (event.affectsApprovedHours()) {
+            generation.incrementAndGet();
+            event.getUserMonths().forEach((userId, months) ->
+                    months.forEach(month -> cache.invalidate(new Key(userId, month))));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.payrollIdentityChanged()) {
+            generation.incrementAndGet();
+            cache.invalidateIf(key -> key.userId().equals(event.getUserId()));
+            log.debug("Evicted cached payroll of user {}", event.getUserId());
+        }
+    }
+
+    long size() {
+        return cache.size();
+    }
+}
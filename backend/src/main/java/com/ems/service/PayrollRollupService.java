@@ -0,0 +1,251 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.event.UserChangedEvent;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.model.PayrollMonthlyRollup;
+import com.ems.repository.PayrollAggregateRepository;
+import com.ems.repository.PayrollMonthlyRollupRepository;
+import com.ems.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Serves payroll summaries over month ranges from per-month, per-department
+ * rollups. Closed months are read from {@code payroll_monthly_rollups} (and
+ * built once on first access); only the open month is aggregated live. A
+ * month's rollup is dropped when its approved hours change. A user's rate or
+ * department change drops the months in which that user has approved hours,
+ * since closed months are priced at the current rate; a deletion drops the
+ * months that have a rollup row for the user's department, as the user's
+ * logs are gone by then.
+ * <p>
+ * Builds and invalidations each run in their own transaction and are retried
+ * once when a concurrent one inserted the same month first.
+ */
+@Slf4j
+@Service
+public class PayrollRollupService {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final PayrollMonthlyRollupRepository payrollMonthlyRollupRepository;
+    private final PayrollAggregateRepository payrollAggregateRepository;
+    private final PayrollPricingService payrollPricingService;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public PayrollRollupService(PayrollMonthlyRollupRepository payrollMonthlyRollupRepository,
+                                PayrollAggregateRepository payrollAggregateRepository,
+                                PayrollPricingService payrollPricingService,
+                                UserRepository userRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.payrollMonthlyRollupRepository = payrollMonthlyRollupRepository;
+        this.payrollAggregateRepository = payrollAggregateRepository;
+        this.payrollPricingService = payrollPricingService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Map<String, Object> getPayrollSummary(YearMonth startMonth, YearMonth endMonth) {
+        List<String> closedPeriods = new ArrayList<>();
+        List<YearMonth> openMonths = new ArrayList<>();
+        int months = 0;
+        for (YearMonth month = startMonth; !month.isAfter(endMonth); month = month.plusMonths(1)) {
+            if (isClosed(month)) {
+                closedPeriods.add(month.toString());
+            } else {
+                openMonths.add(month);
+            }
+            months++;
+        }
+
+        Set<String> rolledUp = new HashSet<>(closedPeriods.isEmpty()
+                ? List.of() : payrollMonthlyRollupRepository.findBuiltPeriods(closedPeriods));
+        List<PayrollMonthlyRollup> rollups = new ArrayList<>(rolledUp.isEmpty()
+                ? List.of() : payrollMonthlyRollupRepository.findByPeriodIn(rolledUp));
+        for (String period : closedPeriods) {
+            if (!rolledUp.contains(period)) {
+                rollups.addAll(buildRollup(YearMonth.parse(period)));
+            }
+        }
+        for (YearMonth month : openMonths) {
+            rollups.addAll(rollUp(month));
+        }
+
+        Map<String, Long> departmentCents = new HashMap<>();
+        long totalCents = 0;
+        for (PayrollMonthlyRollup rollup : rollups) {
+            long grossCents = PayrollCalculator.toCents(rollup.getGrossPay());
+            departmentCents.merge(rollup.getDepartment(), grossCents, Long::sum);
+            totalCents += grossCents;
+        }
+        Map<String, Double> departmentTotals = new HashMap<>();
+        departmentCents.forEach((department, cents) -> departmentTotals.put(department, cents / 100.0));
+        double totalPayroll = totalCents / 100.0;
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("totalPayroll", totalPayroll);
+        summary.put("totalEmployees", (int) userRepository.count());
+        summary.put("averageMonthlyPayroll", months > 0 ? totalPayroll / months : 0.0);
+        summary.put("departmentTotals", departmentTotals);
+        return summary;
+    }
+
+    /**
+     * Drops the rollup of a closed month whose approved hours changed; it is
+     * rebuilt on the next summary that covers the month.
+     */
+    @TransactionalEventListener
+    public void onWorkLogChanged(WorkLogChangedEvent event) {
+        if (!event.affectsApprovedHours()) {
+            return;
+        }
+        Set<YearMonth> months = new HashSet<>();
+        months.add(event.getYearMonth());
+        months.add(event.getPreviousYearMonth());
+        invalidate(months);
+    }
+
+    @TransactionalEventListener
+    public void onWorkLogsStatusChanged(WorkLogsStatusChangedEvent event) {
+        if (event.affectsApprovedHours()) {
+            invalidate(event.getMonths());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        List<YearMonth> affected;
+        if (event.getType() == UserChangedEvent.ChangeType.DELETED) {
+            String department = event.getDepartment() != null
+                    ? event.getDepartment() : ParallelPayrollService.UNASSIGNED_DEPARTMENT;
+            affected = payrollMonthlyRollupRepository.findPeriodsByDepartment(department).stream()
+                    .map(YearMonth::parse)
+                    .toList();
+        } else if (event.hourlyRateChanged() || event.departmentChanged()) {
+            affected = payrollAggregateRepository.findApprovedMonths(event.getUserId(), YearMonth.now());
+        } else {
+            return;
+        }
+        invalidate(affected);
+        log.info("Dropped {} months of payroll rollups after change of user {}", affected.size(), event.getUserId());
+    }
+
+    /**
+     * Marks the closed months among {@code months} as needing a rebuild; they
+     * are rebuilt on the next summary that covers them.
+     */
+    public void invalidate(Collection<YearMonth> months) {
+        List<String> periods = months.stream()
+                .filter(month -> month != null && isClosed(month))
+                .map(YearMonth::toString)
+                .sorted()
+                .toList();
+        if (periods.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        periods.forEach(payrollMonthlyRollupRepository::invalidatePeriod));
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent invalidation of payroll rollups {}, retrying", periods);
+            }
+        }
+    }
+
+    public boolean isClosed(YearMonth yearMonth) {
+        return yearMonth.isBefore(YearMonth.now());
+    }
+
+    /**
+     * Rebuilds the month in its own transaction and returns its rows. If
+     * concurrent builds keep colliding, the rows are returned without being
+     * stored and a later summary builds the month.
+     */
+    private List<PayrollMonthlyRollup> buildRollup(YearMonth yearMonth) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> storeRollup(yearMonth));
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("Could not store payroll rollup for {}, serving it live", yearMonth);
+                    return rollUp(yearMonth);
+                }
+                log.debug("Concurrent build of payroll rollup for {}, retrying", yearMonth);
+            }
+        }
+    }
+
+    /**
+     * Reads the month's generation before aggregating, replaces its
+     * department rows and marks it built only if that generation is still
+     * current. An invalidation that commits while the aggregates are read
+     * leaves the month unbuilt, so the stale rows are never served from the
+     * table.
+     */
+    private List<PayrollMonthlyRollup> storeRollup(YearMonth yearMonth) {
+        String period = yearMonth.toString();
+        int generation = payrollMonthlyRollupRepository.findGeneration(period).orElse(0);
+        List<PayrollMonthlyRollup> rollups = rollUp(yearMonth);
+        payrollMonthlyRollupRepository.deleteByPeriod(period);
+        for (PayrollMonthlyRollup rollup : rollups) {
+            payrollMonthlyRollupRepository.upsert(rollup.getPeriod(), rollup.getDepartment(),
+                    rollup.getEmployeeCount(), rollup.getTotalHours(), rollup.getGrossPay(), rollup.getNetPay());
+        }
+        if (payrollMonthlyRollupRepository.markBuilt(period, generation) > 0) {
+            log.info("Built payroll rollup for {} ({} departments)", yearMonth, rollups.size());
+        } else {
+            log.debug("Payroll rollup for {} was invalidated while building, left unbuilt", yearMonth);
+        }
+        return rollups;
+    }
+
+    private List<PayrollMonthlyRollup> rollUp(YearMonth yearMonth) {
+        Map<String, PayrollMonthlyRollup> byDepartment = new HashMap<>();
+        List<EmployeePayrollAggregate> aggregates = payrollAggregateRepository.findMonthlyAggregates(yearMonth);
+        List<PayrollResult> results = payrollPricingService.price(aggregates, yearMonth);
+        for (int i = 0; i < aggregates.size(); i++) {
+            EmployeePayrollAggregate aggregate = aggregates.get(i);
+            PayrollResult result = results.get(i);
+            String department = aggregate.getDepartment() != null
+                    ? aggregate.getDepartment() : ParallelPayrollService.UNASSIGNED_DEPARTMENT;
+
+            PayrollMonthlyRollup rollup = byDepartment.computeIfAbsent(department, key -> PayrollMonthlyRollup.builder()
+                    .period(yearMonth.toString())
+                    .department(key)
+                    .employeeCount(0)
+                    .totalHours(0.0)
+                    .grossPay(0.0)
+                    .netPay(0.0)
+                    .build());
+            rollup.setEmployeeCount(rollup.getEmployeeCount() + 1);
+            rollup.setTotalHours(rollup.getTotalHours() + aggregate.getTotalHours());
+            rollup.setGrossPay((PayrollCalculator.toCents(rollup.getGrossPay()) + result.getGrossPayCents()) / 100.0);
+            rollup.setNetPay((PayrollCalculator.toCents(rollup.getNetPay()) + result.getNetPayCents()) / 100.0);
+        }
+        return new ArrayList<>(byDepartment.values());
+    }
+}
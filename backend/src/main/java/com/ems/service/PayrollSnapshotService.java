@@ -0,0 +1,226 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.event.UserChangedEvent;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.model.PayrollSnapshot;
+import com.ems.repository.PayrollAggregateRepository;
+import com.ems.repository.PayrollSnapshotRepository;
+import com.ems.repository.PayrollSnapshotUpsertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps one {@link PayrollSnapshot} per employee and month. Snapshots are
+ * refreshed for exactly the user-month touched by a change to an approved
+ * work log, so payroll for a closed month is a single-row lookup. A change to
+ * an employee's rate, name or department drops their snapshots, which are
+ * rebuilt on next access; deleted users lose theirs through the foreign key.
+ * <p>
+ * Snapshots are written by MERGE on {@code (user_id, period)}, each batch of
+ * writes in its own transaction, retried once when a concurrent writer
+ * inserted the same snapshot first.
+ */
+@Slf4j
+@Service
+public class PayrollSnapshotService {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final PayrollSnapshotRepository payrollSnapshotRepository;
+    private final PayrollSnapshotUpsertRepository payrollSnapshotUpsertRepository;
+    private final PayrollAggregateRepository payrollAggregateRepository;
+    private final PayrollPricingService payrollPricingService;
+    private final TransactionTemplate transactionTemplate;
+
+    public PayrollSnapshotService(PayrollSnapshotRepository payrollSnapshotRepository,
+                                  PayrollSnapshotUpsertRepository payrollSnapshotUpsertRepository,
+                                  PayrollAggregateRepository payrollAggregateRepository,
+                                  PayrollPricingService payrollPricingService,
+                                  PlatformTransactionManager transactionManager) {
+        this.payrollSnapshotRepository = payrollSnapshotRepository;
+        this.payrollSnapshotUpsertRepository = payrollSnapshotUpsertRepository;
+        this.payrollAggregateRepository = payrollAggregateRepository;
+        this.payrollPricingService = payrollPricingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener
+    public void onWorkLogChanged(WorkLogChangedEvent event) {
+        if (!event.affectsApprovedHours()) {
+            return;
+        }
+        YearMonth previous = event.getPreviousYearMonth();
+        inTransaction(() -> {
+            recomputeSnapshot(event.getUserId(), event.getYearMonth());
+            if (previous != null && !previous.equals(event.getYearMonth())) {
+                recomputeSnapshot(event.getUserId(), previous);
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onWorkLogsStatusChanged(WorkLogsStatusChangedEvent event) {
+        if (!event.affectsApprovedHours()) {
+            return;
+        }
+        inTransaction(() -> event.getUserMonths().forEach((userId, months) ->
+                months.forEach(month -> recomputeSnapshot(userId, month))));
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() != UserChangedEvent.ChangeType.DELETED && event.payrollIdentityChanged()) {
+            int dropped = transactionTemplate.execute(status ->
+                    payrollSnapshotRepository.deleteByUserId(event.getUserId()));
+            log.debug("Dropped {} payroll snapshots of user {}", dropped, event.getUserId());
+        }
+    }
+
+    public void recompute(Long userId, YearMonth yearMonth) {
+        inTransaction(() -> recomputeSnapshot(userId, yearMonth));
+    }
+
+    /**
+     * Returns the payroll of a closed month from its snapshot, materializing
+     * it on first access. Open months are never served from snapshots.
+     */
+    public Optional<Map<String, Object>> findClosedMonthPayroll(Long userId, YearMonth yearMonth) {
+        if (!isClosed(yearMonth)) {
+            return Optional.empty();
+        }
+        Optional<PayrollSnapshot> snapshot = payrollSnapshotRepository.findByUserIdAndPeriod(userId, yearMonth.toString());
+        if (snapshot.isEmpty()) {
+            recompute(userId, yearMonth);
+            snapshot = payrollSnapshotRepository.findByUserIdAndPeriod(userId, yearMonth.toString());
+        }
+        return snapshot.map(found -> toResult(found).toMap());
+    }
+
+    public Optional<List<Map<String, Object>>> findClosedMonthReport(YearMonth yearMonth) {
+        if (!isClosed(yearMonth)) {
+            return Optional.empty();
+        }
+        String period = yearMonth.toString();
+        inTransaction(() -> materializeMissing(yearMonth));
+
+        List<PayrollSnapshot> snapshots = payrollSnapshotRepository.findByPeriodOrderByUserId(period);
+        List<Map<String, Object>> report = new ArrayList<>(snapshots.size());
+        for (PayrollSnapshot snapshot : snapshots) {
+            report.add(toResult(snapshot).toMap());
+        }
+        return Optional.of(report);
+    }
+
+    public boolean isClosed(YearMonth yearMonth) {
+        return yearMonth.isBefore(YearMonth.now());
+    }
+
+    private void recomputeSnapshot(Long userId, YearMonth yearMonth) {
+        String period = yearMonth.toString();
+        Optional<EmployeePayrollAggregate> aggregate = payrollAggregateRepository.findMonthlyAggregate(yearMonth, userId);
+        if (aggregate.isEmpty()) {
+            payrollSnapshotRepository.deleteByUserIdAndPeriod(userId, period);
+            return;
+        }
+
+        PayrollSnapshot snapshot = PayrollSnapshot.builder()
+                .userId(userId)
+                .period(period)
+                .build();
+        apply(snapshot, aggregate.get(), payrollPricingService.price(aggregate.get(), yearMonth));
+        payrollSnapshotUpsertRepository.upsert(snapshot);
+        log.debug("Recomputed payroll snapshot for user {} and {}", userId, period);
+    }
+
+    /**
+     * Builds the snapshots of every employee that has none for the month yet:
+     * all of them on first access, afterwards only users added since or
+     * whose snapshots were dropped.
+     */
+    private void materializeMissing(YearMonth yearMonth) {
+        List<EmployeePayrollAggregate> aggregates = payrollAggregateRepository.findMonthlyAggregatesWithoutSnapshot(yearMonth);
+        if (aggregates.isEmpty()) {
+            return;
+        }
+        List<PayrollResult> results = payrollPricingService.price(aggregates, yearMonth);
+        List<PayrollSnapshot> snapshots = new ArrayList<>(aggregates.size());
+        for (int i = 0; i < aggregates.size(); i++) {
+            PayrollSnapshot snapshot = PayrollSnapshot.builder()
+                    .userId(aggregates.get(i).getUserId())
+                    .period(yearMonth.toString())
+                    .build();
+            apply(snapshot, aggregates.get(i), results.get(i));
+            snapshots.add(snapshot);
+        }
+        payrollSnapshotUpsertRepository.upsertAll(snapshots);
+        log.info("Materialized {} payroll snapshots for {}", snapshots.size(), yearMonth);
+    }
+
+    private void inTransaction(Runnable work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> work.run());
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent write of payroll snapshots, retrying");
+            }
+        }
+    }
+
+    static void apply(PayrollSnapshot snapshot, EmployeePayrollAggregate aggregate, PayrollResult result) {
+        snapshot.setEmployeeName(result.getEmployeeName());
+        snapshot.setDepartment(aggregate.getDepartment());
+        snapshot.setTotalHours(result.getTotalHours());
+        snapshot.setRegularHours(result.getRegularHours());
+        snapshot.setOvertimeHours(result.getOvertimeHours());
+        snapshot.setWeekendHours(result.getWeekendHours());
+        snapshot.setRegularPay(result.getRegularPayCents() / 100.0);
+        snapshot.setOvertimePay(result.getOvertimePayCents() / 100.0);
+        snapshot.setWeekendPay(result.getWeekendPayCents() / 100.0);
+        snapshot.setGrossPay(result.getGrossPay());
+        snapshot.setTax(result.getTaxCents() / 100.0);
+        snapshot.setInsurance(result.getInsuranceCents() / 100.0);
+        snapshot.setPension(result.getPensionCents() / 100.0);
+        snapshot.setTotalDeductions(result.getTotalDeductionsCents() / 100.0);
+        snapshot.setNetPay(result.getNetPay());
+    }
+
+    static PayrollResult toResult(PayrollSnapshot snapshot) {
+        return PayrollResult.builder()
+                .employeeId(snapshot.getUserId())
+                .employeeName(snapshot.getEmployeeName())
+                .period(snapshot.getPeriod())
+                .totalHundredths(PayrollCalculator.toHundredths(snapshot.getTotalHours()))
+                .regularHundredths(PayrollCalculator.toHundredths(snapshot.getRegularHours()))
+                .overtimeHundredths(PayrollCalculator.toHundredths(snapshot.getOvertimeHours()))
+                .weekendHundredths(PayrollCalculator.toHundredths(snapshot.getWeekendHours()))
+                .regularPayCents(PayrollCalculator.toCents(snapshot.getRegularPay()))
+                .overtimePayCents(PayrollCalculator.toCents(snapshot.getOvertimePay()))
+                .weekendPayCents(PayrollCalculator.toCents(snapshot.getWeekendPay()))
+                .grossPayCents(PayrollCalculator.toCents(snapshot.getGrossPay()))
+                .taxCents(PayrollCalculator.toCents(snapshot.getTax()))
+                .insuranceCents(PayrollCalculator.toCents(snapshot.getInsurance()))
+                .pensionCents(PayrollCalculator.toCents(snapshot.getPension()))
+                .totalDeductionsCents(PayrollCalculator.toCents(snapshot.getTotalDeductions()))
+                .netPayCents(PayrollCalculator.toCents(snapshot.getNetPay()))
+                .build();
+    }
+}
@@ -0,0 +1,276 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.ReportJobResponse;
+import com.ems.exception.PayrollProcessingException;
+import com.ems.exception.ResourceNotFoundException;
+import com.ems.model.ReportJob;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.repository.ReportJobRepository;
+import com.ems.repository.ReportJobResultRepository;
+import com.ems.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs payroll reports as background jobs on the {@code spring.task.execution}
+ * pool. Job metadata lives in {@code report_jobs} and results in
+ * {@code report_job_results}, so queued and interrupted jobs are picked up
+ * again after a restart and any node can serve any job's result.
+ * <p>
+ * A claimed job is leased to this instance's {@link #leaseOwner}. Its
+ * heartbeat is refreshed every {@code reports.jobs.heartbeat-interval-ms};
+ * once it is older than {@code reports.jobs.lease-timeout} any node may queue
+ * the job again, which drops the lease. Progress, heartbeat and the final
+ * status update only touch the row while this instance still holds the
+ * lease, and the result is stored in the transaction that completes the job,
+ * so a node whose lease was taken over discards its result. Results are
+ * deleted {@code reports.jobs.result-retention} after the job finished.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    private static final int PROGRESS_STEP_ROWS = 1_000;
+
+    private final ReportJobRepository reportJobRepository;
+    private final UserRepository userRepository;
+    private final PayrollExportService payrollExportService;
+    private final AuthService authService;
+    private final ReportJobResultRepository reportJobResultRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration leaseTimeout;
+    private final Duration resultRetention;
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    private final JobDispatcher dispatcher;
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Timer jobDuration;
+
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            UserRepository userRepository,
+                            PayrollExportService payrollExportService,
+                            AuthService authService,
+                            ReportJobResultRepository reportJobResultRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${reports.jobs.lease-timeout:PT2M}") Duration leaseTimeout,
+                            @Value("${reports.jobs.result-retention:P7D}") Duration resultRetention) {
+        this.reportJobRepository = reportJobRepository;
+        this.userRepository = userRepository;
+        this.payrollExportService = payrollExportService;
+        this.authService = authService;
+        this.reportJobResultRepository = reportJobResultRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseTimeout = leaseTimeout;
+        this.resultRetention = resultRetention;
+        this.dispatcher = new JobDispatcher("Report job", taskExecutor,
+                id -> reportJobRepository.claim(id, leaseOwner), this::runClaimed);
+
+        Gauge.builder("report.jobs.queue.depth", queueDepth, AtomicLong::get)
+                .description("Report jobs waiting for a worker")
+                .register(meterRegistry);
+        this.jobDuration = Timer.builder("report.jobs.duration")
+                .description("Wall time of completed report jobs")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public ReportJobResponse createPayrollReportJob(YearMonth yearMonth, String format) {
+        User currentUser = authService.getCurrentUser();
+        if (currentUser.getRole() != Role.ROLE_ADMIN) {
+            throw new PayrollProcessingException("Only administrators can generate payroll reports");
+        }
+        PayrollExportService.ExportFormat exportFormat = PayrollExportService.ExportFormat.from(format)
+                .orElseThrow(() -> new PayrollProcessingException("Unsupported report format: " + format));
+
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+                .period(yearMonth.toString())
+                .format(exportFormat.name())
+                .requestedBy(currentUser.getId())
+                .build());
+        queueDepth.incrementAndGet();
+
+        dispatcher.dispatchAfterCommit(job.getId());
+        return ReportJobResponse.fromEntity(job);
+    }
+
+    @Transactional(readOnly = true)
+    public ReportJobResponse getJob(Long id) {
+        return ReportJobResponse.fromEntity(findJob(id));
+    }
+
+    @Transactional(readOnly = true)
+    public Resource getResult(Long id) {
+        ReportJob job = findJob(id);
+        if (job.getStatus() != ReportJob.ReportJobStatus.COMPLETED) {
+            throw new PayrollProcessingException("Report job " + id + " is " + job.getStatus());
+        }
+        byte[] content = job.getResultSize() != null ? reportJobResultRepository.find(id).orElse(null) : null;
+        if (content == null) {
+            throw new ResourceNotFoundException("Result of report job " + id + " is no longer available");
+        }
+        String filename = resultFilename(id, PayrollExportService.ExportFormat.valueOf(job.getFormat()));
+        return new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+
+    public PayrollExportService.ExportFormat getFormat(Long id) {
+        return PayrollExportService.ExportFormat.valueOf(findJob(id).getFormat());
+    }
+
+    /**
+     * Picks up jobs that were queued while the pool was saturated, and jobs
+     * whose node stopped sending heartbeats; those re-run from the start.
+     */
+    @Scheduled(fixedDelayString = "${reports.jobs.dispatch-interval-ms:5000}")
+    public void dispatchQueued() {
+        int requeued = reportJobRepository.requeueStale(LocalDateTime.now().minus(leaseTimeout));
+        if (requeued > 0) {
+            log.info("Re-queued {} report jobs whose heartbeat expired", requeued);
+        }
+        List<ReportJob> queued = reportJobRepository.findByStatusOrderByCreatedAtAsc(ReportJob.ReportJobStatus.QUEUED);
+        queueDepth.set(queued.size());
+        for (ReportJob job : queued) {
+            dispatch(job.getId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInterruptedJobs() {
+        dispatchQueued();
+    }
+
+    @Scheduled(fixedDelayString = "${reports.jobs.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        Set<Long> running = dispatcher.inFlight();
+        if (!running.isEmpty()) {
+            reportJobRepository.heartbeat(running, ReportJob.ReportJobStatus.RUNNING, leaseOwner, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Deletes results of jobs that finished more than
+     * {@code reports.jobs.result-retention} ago; the job row stays as history.
+     */
+    @Scheduled(cron = "${reports.jobs.cleanup-cron:0 15 * * * *}")
+    public void deleteExpiredResults() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(resultRetention);
+        Integer deleted = transactionTemplate.execute(status -> {
+            reportJobRepository.clearExpiredResults(cutoff);
+            return reportJobResultRepository.deleteFinishedBefore(cutoff);
+        });
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} expired report results", deleted);
+        }
+    }
+
+    void dispatch(Long jobId) {
+        dispatcher.dispatch(jobId);
+    }
+
+    void run(Long jobId) {
+        dispatcher.run(jobId);
+    }
+
+    private void runClaimed(Long jobId) {
+        queueDepth.updateAndGet(depth -> Math.max(0, depth - 1));
+        execute(findJob(jobId));
+    }
+
+    private void execute(ReportJob job) {
+        long start = System.nanoTime();
+        YearMonth yearMonth = YearMonth.parse(job.getPeriod());
+        PayrollExportService.ExportFormat format = PayrollExportService.ExportFormat.valueOf(job.getFormat());
+        long expectedRows = Math.max(1, userRepository.count());
+        Path result = null;
+
+        try {
+            result = Files.createTempFile("payroll-report-" + job.getId() + "-", "." + format.getExtension());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(result))) {
+                payrollExportService.export(yearMonth, format, out, rows -> {
+                    if (rows % PROGRESS_STEP_ROWS == 0) {
+                        reportJobRepository.updateProgress(job.getId(), leaseOwner,
+                                (int) Math.min(99, rows * 100 / expectedRows));
+                    }
+                });
+            }
+
+            Path file = result;
+            long size = Files.size(file);
+            Boolean completed = transactionTemplate.execute(status -> {
+                if (!reportJobRepository.complete(job.getId(), leaseOwner, size)) {
+                    return false;
+                }
+                reportJobResultRepository.store(job.getId(), file);
+                return true;
+            });
+            if (Boolean.TRUE.equals(completed)) {
+                jobDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.info("Report job {} completed for {}", job.getId(), yearMonth);
+            } else {
+                log.warn("Report job {} lost its lease while running, discarding its result", job.getId());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Report job {} failed", job.getId(), e);
+            if (!reportJobRepository.fail(job.getId(), leaseOwner, JobDispatcher.errorMessage(e))) {
+                log.warn("Report job {} lost its lease while running, not marking it failed", job.getId());
+            }
+        } finally {
+            deleteTempResult(result);
+        }
+    }
+
+    private void deleteTempResult(Path result) {
+        if (result == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(result);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary report result {}", result, e);
+        }
+    }
+
+    private static String resultFilename(Long id, PayrollExportService.ExportFormat format) {
+        return "payroll-report-" + id + "." + format.getExtension();
+    }
+
+    private ReportJob findJob(Long id) {
+        return reportJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job not found with id: " + id));
+    }
+}
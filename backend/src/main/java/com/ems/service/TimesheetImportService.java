@@ -0,0 +1,368 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.TimesheetImportResponse;
+import com.ems.dto.worklog.WorkLogBatchItem;
+import com.ems.dto.worklog.WorkLogRequest;
+import com.ems.dto.worklog.WorkLogBatchResponse;
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.repository.WorkLogBatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Timesheet import behind {@code POST /work-logs/import}. The upload is read
+ * line by line from the multipart stream, which Spring spools to disk above
+ * {@code spring.servlet.multipart.file-size-threshold}, so memory use depends
+ * on the chunk size rather than the file size. Each chunk resolves its
+ * usernames with one query, backed by a bounded per-import cache, and is
+ * written through {@link WorkLogBatchService}.
+ * <p>
+ * CSV files start with a header naming at least {@code username},
+ * {@code date} and {@code hoursWorked}, plus an optional {@code remarks}
+ * column; quoted fields may not span lines. NDJSON files hold one object per
+ * line with the same fields.
+ */
+@Slf4j
+@Service
+public class TimesheetImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final long UNKNOWN_USER = -1L;
+
+    private final WorkLogBatchService workLogBatchService;
+    private final WorkLogBatchRepository workLogBatchRepository;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+    private final int usernameCacheSize;
+    private final int maxReportedErrors;
+
+    public TimesheetImportService(WorkLogBatchService workLogBatchService,
+                                  WorkLogBatchRepository workLogBatchRepository,
+                                  AuthService authService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${work-logs.import.username-cache-size:10000}") int usernameCacheSize,
+                                  @Value("${work-logs.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.workLogBatchService = workLogBatchService;
+        this.workLogBatchRepository = workLogBatchRepository;
+        this.authService = authService;
+        this.objectMapper = objectMapper;
+        this.usernameCacheSize = Math.max(1, usernameCacheSize);
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+    }
+
+    public TimesheetImportResponse importTimesheet(MultipartFile file) {
+        User currentUser = authService.getCurrentUser();
+        if (currentUser.getRole() != Role.ROLE_ADMIN) {
+            throw new UnauthorizedAccessException("Only administrators can import timesheets");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new ConstraintViolationException("Timesheet file is required", Collections.emptySet());
+        }
+        Format format = formatOf(file.getOriginalFilename(), file.getContentType());
+        try (InputStream in = file.getInputStream()) {
+            return importTimesheet(in, format, currentUser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read timesheet " + file.getOriginalFilename(), e);
+        }
+    }
+
+    TimesheetImportResponse importTimesheet(InputStream in, Format format, User currentUser) throws IOException {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(currentUser);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Integer> columns = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = csvColumns(line);
+                continue;
+            }
+            run.accept(lineNumber, line, format, columns);
+        }
+        run.flush();
+
+        long elapsedNanos = System.nanoTime() - start;
+        double linesPerSecond = run.lines / Math.max(elapsedNanos / 1e9, 1e-9);
+        log.info("Imported {} timesheet lines ({} created, {} duplicates, {} invalid) in {} ms ({} lines/s)",
+                run.lines, run.created, run.duplicates, run.invalid, elapsedNanos / 1_000_000,
+                String.format("%.0f", linesPerSecond));
+
+        return TimesheetImportResponse.builder()
+                .format(format.name())
+                .lines(run.lines)
+                .created(run.created)
+                .duplicates(run.duplicates)
+                .invalid(run.invalid)
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .linesPerSecond(linesPerSecond)
+                .errors(run.errors)
+                .errorsTruncated(run.duplicates + run.invalid > run.errors.size())
+                .build();
+    }
+
+    static Format formatOf(String filename, String contentType) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv") || type.startsWith("text/csv")) {
+            return Format.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                || type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return Format.NDJSON;
+        }
+        throw new ConstraintViolationException("Timesheets must be CSV or NDJSON files", Collections.emptySet());
+    }
+
+    private static Map<String, Integer> csvColumns(String header) {
+        List<String> names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "date", "hoursworked")) {
+            if (!columns.containsKey(required)) {
+                throw new ConstraintViolationException(
+                        "Timesheet header must contain username, date and hoursWorked", Collections.emptySet());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Splits one CSV record; fields may be quoted and quotes inside them are
+     * doubled.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private ParsedLine parseCsv(long lineNumber, String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        return parsedLine(lineNumber,
+                csvField(fields, columns.get("username")),
+                csvField(fields, columns.get("date")),
+                csvField(fields, columns.get("hoursworked")),
+                csvField(fields, columns.get("remarks")));
+    }
+
+    private static String csvField(List<String> fields, Integer column) {
+        if (column == null || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private ParsedLine parseNdjson(long lineNumber, String line) throws JsonProcessingException {
+        JsonNode node = objectMapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return parsedLine(lineNumber,
+                jsonField(node, "username"),
+                jsonField(node, "date"),
+                jsonField(node, "hoursWorked"),
+                jsonField(node, "remarks"));
+    }
+
+    private static String jsonField(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static ParsedLine parsedLine(long lineNumber, String username, String date, String hoursWorked,
+                                         String remarks) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        WorkLogBatchItem item = WorkLogBatchItem.builder()
+                .workLog(WorkLogRequest.builder()
+                        .date(date != null ? LocalDate.parse(date.trim()) : null)
+                        .hoursWorked(hoursWorked != null ? Double.valueOf(hoursWorked.trim()) : null)
+                        .remarks(remarks)
+                        .build())
+                .build();
+        return new ParsedLine(lineNumber, username.trim(), item);
+    }
+
+    private record ParsedLine(long line, String username, WorkLogBatchItem item) {
+    }
+
+    /**
+     * State of one import: the lines waiting for the next chunk, the
+     * username cache and the running totals.
+     */
+    private final class ImportRun {
+
+        private final User currentUser;
+        private final List<ParsedLine> pending = new ArrayList<>();
+        private final Map<String, Long> usernameIds = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > usernameCacheSize;
+            }
+        };
+        private final List<TimesheetImportResponse.LineError> errors = new ArrayList<>();
+        private long lines;
+        private long created;
+        private long duplicates;
+        private long invalid;
+
+        private ImportRun(User currentUser) {
+            this.currentUser = currentUser;
+        }
+
+        void accept(long lineNumber, String line, Format format, Map<String, Integer> columns) {
+            lines++;
+            try {
+                pending.add(format == Format.CSV
+                        ? parseCsv(lineNumber, line, columns)
+                        : parseNdjson(lineNumber, line));
+            } catch (JsonProcessingException e) {
+                fail(lineNumber, WorkLogBatchResponse.ItemStatus.INVALID, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (DateTimeException e) {
+                fail(lineNumber, WorkLogBatchResponse.ItemStatus.INVALID, "Date must be formatted as YYYY-MM-DD");
+            } catch (NumberFormatException e) {
+                fail(lineNumber, WorkLogBatchResponse.ItemStatus.INVALID, "Hours worked must be a number");
+            } catch (IllegalArgumentException e) {
+                fail(lineNumber, WorkLogBatchResponse.ItemStatus.INVALID, e.getMessage());
+            }
+            if (pending.size() >= workLogBatchService.getChunkSize()) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<String, Long> ids = resolveUsernames();
+            List<ParsedLine> resolved = new ArrayList<>(pending.size());
+            List<WorkLogBatchItem> items = new ArrayList<>(pending.size());
+            for (ParsedLine parsed : pending) {
+                long userId = ids.get(parsed.username());
+                if (userId == UNKNOWN_USER) {
+                    fail(parsed.line(), WorkLogBatchResponse.ItemStatus.INVALID,
+                            "User not found with username: " + parsed.username());
+                } else {
+                    parsed.item().setUserId(userId);
+                    resolved.add(parsed);
+                    items.add(parsed.item());
+                }
+            }
+            pending.clear();
+            if (items.isEmpty()) {
+                return;
+            }
+            for (WorkLogBatchResponse.ItemResult result : workLogBatchService.ingestChunk(items, currentUser)) {
+                if (result.getStatus() == WorkLogBatchResponse.ItemStatus.CREATED) {
+                    created++;
+                } else {
+                    fail(resolved.get(result.getIndex()).line(), result.getStatus(), result.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Ids for every username of the pending chunk. Cache misses, unknown
+         * usernames included, are looked up with a single query.
+         */
+        private Map<String, Long> resolveUsernames() {
+            Map<String, Long> ids = new HashMap<>();
+            Set<String> misses = new HashSet<>();
+            for (ParsedLine parsed : pending) {
+                Long id = usernameIds.get(parsed.username());
+                if (id != null) {
+                    ids.put(parsed.username(), id);
+                } else {
+                    misses.add(parsed.username());
+                }
+            }
+            if (!misses.isEmpty()) {
+                Map<String, Long> found = workLogBatchRepository.findUserIdsByUsername(misses);
+                for (String username : misses) {
+                    long id = found.getOrDefault(username, UNKNOWN_USER);
+                    ids.put(username, id);
+                    usernameIds.put(username, id);
+                }
+            }
+            return ids;
+        }
+
+        private void fail(long lineNumber, WorkLogBatchResponse.ItemStatus status, String message) {
+            if (status == WorkLogBatchResponse.ItemStatus.DUPLICATE) {
+                duplicates++;
+            } else {
+                invalid++;
+            }
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new TimesheetImportResponse.LineError(lineNumber, status, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.ems.service;
+
+import com.ems.event.UserChangedEvent;
+import com.ems.model.User;
+import com.ems.repository.UserTokenStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory table of users' current token versions, so a signed token can
+ * be checked without loading the user. The version is {@code
+ * users.token_version}, which every user update, status change and explicit
+ * {@link #revokeTokens} increments in the writer's transaction; it never
+ * goes back, so re-enabling a user or reverting a role does not revive old
+ * tokens. A disabled or deleted user has no valid version at all.
+ * <p>
+ * Entries are refreshed after commit of every {@link UserChangedEvent}. A
+ * periodic reload picks up changes made on other instances by reading only
+ * the users whose version changed since the previous reload; entries older
+ * than {@code jwt.version-entry-ttl} are dropped and loaded again on next
+ * use, which is how other instances' deletions are seen.
+ */
+@Slf4j
+@Service
+public class TokenVersionService {
+
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String ROLE_CLAIM = "role";
+    public static final String VERSION_CLAIM = "ver";
+
+    /** Covers transactions that incremented before a reload but committed after it. */
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+
+    private record Entry(int version, boolean enabled, long loadedAt) {
+    }
+
+    private final UserTokenStateRepository userTokenStateRepository;
+    private final long entryTtlNanos;
+    private final LongSupplier ticker;
+    private final Map<Long, Entry> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastReload;
+
+    public TokenVersionService(UserTokenStateRepository userTokenStateRepository,
+                               @Value("${jwt.version-entry-ttl:PT5M}") Duration entryTtl) {
+        this(userTokenStateRepository, entryTtl, System::nanoTime);
+    }
+
+    TokenVersionService(UserTokenStateRepository userTokenStateRepository, Duration entryTtl, LongSupplier ticker) {
+        this.userTokenStateRepository = userTokenStateRepository;
+        this.entryTtlNanos = entryTtl.toNanos();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Claims to sign into a token for {@code user} so it can later be
+     * authenticated from the token alone. Reads the version from the
+     * database, so a token issued right after a change on another instance
+     * is not born revoked.
+     */
+    public Map<String, Object> claimsFor(User user) {
+        Entry entry = load(user.getId());
+        versions.put(user.getId(), entry);
+        return Map.of(
+                USER_ID_CLAIM, user.getId(),
+                ROLE_CLAIM, user.getRole().name(),
+                VERSION_CLAIM, entry.version());
+    }
+
+    /**
+     * Whether a token carrying {@code version} is still good for the user.
+     * Users not seen recently are looked up once.
+     */
+    public boolean isCurrent(Long userId, int version) {
+        Entry entry = versions.get(userId);
+        if (entry == null || expired(entry)) {
+            entry = load(userId);
+            versions.put(userId, entry);
+        }
+        return entry.enabled() && entry.version() == version;
+    }
+
+    /**
+     * Revokes every token issued to the user so far, e.g. on a password
+     * change. Must run in the transaction that makes the change.
+     */
+    public void revokeTokens(Long userId) {
+        userTokenStateRepository.incrementTokenVersion(userId);
+    }
+
+    /**
+     * Updates and status changes revoke the user's tokens in the same
+     * transaction as the change itself.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onUserChanging(UserChangedEvent event) {
+        if (event.getType() != UserChangedEvent.ChangeType.DELETED) {
+            revokeTokens(event.getUserId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        versions.put(event.getUserId(), event.getType() == UserChangedEvent.ChangeType.DELETED
+                ? new Entry(0, false, ticker.getAsLong())
+                : load(event.getUserId()));
+        log.debug("Refreshed token version of user {}", event.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.version-reload-interval-ms:60000}")
+    public void reload() {
+        LocalDateTime now = userTokenStateRepository.currentTimestamp();
+        LocalDateTime since = lastReload;
+        versions.values().removeIf(this::expired);
+        if (since != null) {
+            long loadedAt = ticker.getAsLong();
+            userTokenStateRepository.findChangedSince(since.minus(COMMIT_LAG)).forEach(state ->
+                    versions.computeIfPresent(state.getId(), (id, entry) ->
+                            new Entry(state.getTokenVersion(), state.isEnabled(), loadedAt)));
+        } else {
+            versions.clear();
+        }
+        lastReload = now;
+    }
+
+    int size() {
+        return versions.size();
+    }
+
+    private boolean expired(Entry entry) {
+        return ticker.getAsLong() - entry.loadedAt() > entryTtlNanos;
+    }
+
+    private Entry load(Long userId) {
+        long loadedAt = ticker.getAsLong();
+        return userTokenStateRepository.findById(userId)
+                .map(state -> new Entry(state.getTokenVersion(), state.isEnabled(), loadedAt))
+                .orElse(new Entry(0, false, loadedAt));
+    }
+}
@@ -0,0 +1,173 @@
+package com.ems.service;
+
+import com.ems.cache.BoundedCache;
+import com.ems.event.UserChangedEvent;
+import com.ems.model.User;
+import com.ems.repository.UserRepository;
+import com.ems.repository.UserTokenStateRepository;
+import com.ems.repository.UserTokenStateRepository.UserTokenState;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Near cache of user principals by username and by id, in front of the
+ * lookups made by login, token validation and {@code getCurrentUser()}.
+ * Unknown usernames are cached too, for a shorter time, so repeated attempts
+ * with a wrong username stay off the database.
+ * <p>
+ * Entries of a user are evicted after commit of its {@link UserChangedEvent};
+ * a load that raced with an eviction is not cached, checked under each
+ * cache's lock when the entry is put. Changes committed on
+ * other instances are picked up by {@link #sync()} through {@code
+ * users.token_changed_at}, which every such change stamps; deletions there
+ * are only seen once the entry expires, hence the short default TTL. Cached
+ * users are shared and must not be modified.
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    /** Covers transactions that changed a user before a sync but committed after it. */
+    private static final Duration COMMIT_LAG = Duration.ofMinutes(1);
+
+    private final UserRepository userRepository;
+    private final UserTokenStateRepository userTokenStateRepository;
+    private final BoundedCache<String, Optional<User>> byUsername;
+    private final BoundedCache<Long, User> byId;
+    private final long negativeTtlNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile LocalDateTime lastSync;
+    private volatile Map<Long, Integer> lastSyncedVersions = Map.of();
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              UserTokenStateRepository userTokenStateRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${users.cache.max-size:10000}") int maxSize,
+                              @Value("${users.cache.ttl:PT1M}") Duration ttl,
+                              @Value("${users.cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.userRepository = userRepository;
+        this.userTokenStateRepository = userTokenStateRepository;
+        this.byUsername = new BoundedCache<>("users-by-username", maxSize, ttl, meterRegistry);
+        this.byId = new BoundedCache<>("users-by-id", maxSize, ttl, meterRegistry);
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    public Optional<User> findByUsername(String username) {
+        Optional<Optional<User>> cached = byUsername.getIfPresent(username);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long loadedAt = generation.get();
+        Optional<User> user = userRepository.findByUsername(username);
+        BooleanSupplier current = () -> generation.get() == loadedAt;
+        if (user.isPresent()) {
+            byUsername.putIf(username, user, current);
+            byId.putIf(user.get().getId(), user.get(), current);
+        } else {
+            byUsername.putUntilIf(username, user, System.nanoTime() + negativeTtlNanos, current);
+        }
+        return user;
+    }
+
+    public Optional<User> findById(Long id) {
+        Optional<User> cached = byId.getIfPresent(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        Optional<User> user = userRepository.findById(id);
+        if (user.isPresent()) {
+            BooleanSupplier current = () -> generation.get() == loadedAt;
+            byId.putIf(id, user.get(), current);
+            byUsername.putIf(user.get().getUsername(), user, current);
+        }
+        return user;
+    }
+
+    /**
+     * {@code UserDetailsService} contract on top of the cache.
+     */
+    public User loadUserByUsername(String username) {
+        return findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * Drops whatever is cached for {@code username}, e.g. the negative entry
+     * once a user registers under it.
+     */
+    public void invalidateUsername(String username) {
+        generation.incrementAndGet();
+        byUsername.invalidate(username);
+    }
+
+    /**
+     * Drops whatever is cached for the user, e.g. after its password hash
+     * was rewritten without a {@link UserChangedEvent}.
+     */
+    public void invalidate(Long id, String username) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+        byUsername.invalidate(username);
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        generation.incrementAndGet();
+        byId.invalidate(event.getUserId());
+        if (event.getUsername() != null) {
+            byUsername.invalidate(event.getUsername());
+        }
+        if (event.getPreviousUsername() != null) {
+            byUsername.invalidate(event.getPreviousUsername());
+        }
+        log.debug("Evicted cached principal of user {}", event.getUserId());
+    }
+
+    /**
+     * Evicts users changed on any instance since the previous sync. Each
+     * change is acted on once, although the overlapping windows return it
+     * several times. The username entries are dropped wholesale, since a
+     * rename on another instance leaves no trace of the old name; user
+     * changes are rare enough that this costs a few reloads.
+     */
+    @Scheduled(fixedDelayString = "${users.cache.sync-interval-ms:10000}")
+    public void sync() {
+        LocalDateTime now = userTokenStateRepository.currentTimestamp();
+        LocalDateTime since = lastSync;
+        lastSync = now;
+        if (since == null) {
+            return;
+        }
+        List<UserTokenState> changed = userTokenStateRepository.findChangedSince(since.minus(COMMIT_LAG));
+        Map<Long, Integer> seen = lastSyncedVersions;
+        lastSyncedVersions = changed.stream()
+                .collect(Collectors.toMap(UserTokenState::getId, UserTokenState::getTokenVersion));
+        List<Long> evicted = changed.stream()
+                .filter(state -> !Objects.equals(seen.get(state.getId()), state.getTokenVersion()))
+                .map(UserTokenState::getId)
+                .toList();
+        if (evicted.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        evicted.forEach(byId::invalidate);
+        byUsername.invalidateAll();
+        log.debug("Evicted cached principals of {} changed users", evicted.size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.ems.service;
+
+import com.ems.cache.BoundedCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of verified token {@link Claims} in front of
+ * {@code JwtService}'s signature check, keyed by the SHA-256 digest of the
+ * token so raw tokens are never held. Each entry lives until the token's
+ * {@code exp} at the latest, so a token is parsed and verified once per node
+ * and an expired token is never served. Failed parses are not cached.
+ * <p>
+ * Cached claims are shared between requests and must not be modified.
+ * Parse latency is published as {@code jwt.parse}, hit rates through the
+ * {@code cache.*} meters of the {@code jwt-claims} cache.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final BoundedCache<String, Claims> cache;
+    private final Timer parseTimer;
+    private final LongSupplier clock;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${jwt.claims-cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.claims-cache.ttl:PT15M}") Duration ttl) {
+        this(meterRegistry, maxSize, ttl, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(MeterRegistry meterRegistry, int maxSize, Duration ttl, LongSupplier clock) {
+        this.cache = new BoundedCache<>("jwt-claims", maxSize, ttl, meterRegistry);
+        this.parseTimer = Timer.builder("jwt.parse")
+                .description("Time to parse and verify a token that was not cached")
+                .register(meterRegistry);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the verified claims of {@code token}, running {@code parser}
+     * (which must check signature and expiry and throw otherwise) only if
+     * they are not cached.
+     */
+    public Claims get(String token, Function<String, Claims> parser) {
+        String key = digest(token);
+        Claims cached = cache.getIfPresent(key).orElse(null);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+        Claims claims = parseTimer.record(() -> parser.apply(token));
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            long remainingMillis = expiration.getTime() - clock.getAsLong();
+            if (remainingMillis > 0) {
+                cache.putUntil(key, claims, System.nanoTime() + remainingMillis * 1_000_000);
+            }
+        } else {
+            cache.put(key, claims);
+        }
+        return claims;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    long size() {
+        return cache.size();
+    }
+
+    private boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= clock.getAsLong();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ems.service;
+
+import com.ems.repository.WorkLogArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves approved and rejected work logs of closed years from the hot
+ * {@code work_logs} table to {@code work_logs_archive}. Rows move in small
+ * id-ordered batches, each locked, copied and deleted in its own short
+ * transaction, so writes to current logs never wait on the job. Pending logs
+ * stay hot until they are decided.
+ * <p>
+ * Disabled by default ({@code work-logs.archive.cron=-}): the JPA readers
+ * of {@code WorkLogRepository} still query {@code work_logs} only, and
+ * would lose archived logs until they read through
+ * {@link WorkLogArchiveRepository#sourceFor}.
+ */
+@Slf4j
+@Service
+public class WorkLogArchiveService {
+
+    private final WorkLogArchiveRepository workLogArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int keepClosedYears;
+    private final Counter archivedRows;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public WorkLogArchiveService(WorkLogArchiveRepository workLogArchiveRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${work-logs.archive.batch-size:1000}") int batchSize,
+                                 @Value("${work-logs.archive.keep-closed-years:1}") int keepClosedYears) {
+        this.workLogArchiveRepository = workLogArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.keepClosedYears = Math.max(0, keepClosedYears);
+        this.archivedRows = Counter.builder("worklogs.archive.rows")
+                .description("Work logs moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${work-logs.archive.cron:-}")
+    public void archiveClosedYears() {
+        archiveClosedYears(LocalDate.now());
+    }
+
+    /**
+     * Archives every decided log dated before the first closed year that is
+     * kept hot: with one kept year, a run during 2026 archives up to the end
+     * of 2024. Returns the number of logs moved.
+     */
+    public long archiveClosedYears(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Work log archiving is already running");
+            return 0;
+        }
+        try {
+            LocalDate cutoff = LocalDate.of(today.getYear() - keepClosedYears, 1, 1);
+            long start = System.nanoTime();
+            long moved = 0;
+            long afterId = 0;
+            while (true) {
+                long lastId = afterId;
+                List<Long> ids = transactionTemplate.execute(status -> {
+                    List<Long> batch = workLogArchiveRepository.lockArchivableIds(cutoff, lastId, batchSize);
+                    if (!batch.isEmpty()) {
+                        workLogArchiveRepository.copyToArchive(batch);
+                        workLogArchiveRepository.deleteFromHot(batch);
+                    }
+                    return batch;
+                });
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                moved += ids.size();
+                archivedRows.increment(ids.size());
+                afterId = ids.get(ids.size() - 1);
+            }
+            workLogArchiveRepository.refreshArchivedBefore();
+            if (moved > 0) {
+                log.info("Archived {} work logs dated before {} in {} ms", moved, cutoff,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+            return moved;
+        } finally {
+            running.set(false);
+        }
+    }
+}
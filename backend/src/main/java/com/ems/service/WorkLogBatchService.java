@@ -0,0 +1,324 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogBatchItem;
+import com.ems.dto.worklog.WorkLogBatchResponse;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogArchiveRepository;
+import com.ems.repository.WorkLogBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk ingestion behind {@code POST /work-logs/batch}. Items are processed in
+ * chunks of {@code work-logs.batch.chunk-size}: each chunk is validated in
+ * memory, checked against existing users and the {@code unique_user_date}
+ * constraint with one query each, and inserted as PENDING logs with a single
+ * batched statement in its own transaction. Each committed chunk publishes one
+ * {@link WorkLogsStatusChangedEvent} for the user-months it wrote, as bulk
+ * status changes do, which refreshes the monthly aggregates in the same
+ * transaction and notifies work log streams after commit.
+ */
+@Slf4j
+@Service
+public class WorkLogBatchService {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
+    private final WorkLogBatchRepository workLogBatchRepository;
+    private final WorkLogArchiveRepository workLogArchiveRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuthService authService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+    private final Map<WorkLogBatchResponse.ItemStatus, Counter> itemCounters =
+            new EnumMap<>(WorkLogBatchResponse.ItemStatus.class);
+
+    public WorkLogBatchService(WorkLogBatchRepository workLogBatchRepository,
+                               WorkLogArchiveRepository workLogArchiveRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               AuthService authService,
+                               Validator validator,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${work-logs.batch.chunk-size:1000}") int chunkSize,
+                               @Value("${work-logs.batch.max-items:250000}") int maxItems) {
+        this.workLogBatchRepository = workLogBatchRepository;
+        this.workLogArchiveRepository = workLogArchiveRepository;
+        this.eventPublisher = eventPublisher;
+        this.authService = authService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxItems = maxItems;
+
+        for (WorkLogBatchResponse.ItemStatus status : WorkLogBatchResponse.ItemStatus.values()) {
+            itemCounters.put(status, Counter.builder("worklogs.batch.items")
+                    .description("Work logs received through bulk ingestion")
+                    .tag("result", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public WorkLogBatchResponse ingest(List<WorkLogBatchItem> items) {
+        if (items == null || items.isEmpty() || items.size() > maxItems) {
+            throw new ConstraintViolationException(
+                    "A batch must contain between 1 and " + maxItems + " work logs", Collections.emptySet());
+        }
+        long start = System.nanoTime();
+        User currentUser = authService.getCurrentUser();
+        WorkLogBatchResponse.ItemResult[] results = new WorkLogBatchResponse.ItemResult[items.size()];
+
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            ingestChunk(items, from, Math.min(from + chunkSize, items.size()), currentUser, results);
+        }
+
+        Map<WorkLogBatchResponse.ItemStatus, Long> counts = Arrays.stream(results)
+                .collect(Collectors.groupingBy(WorkLogBatchResponse.ItemResult::getStatus,
+                        () -> new EnumMap<>(WorkLogBatchResponse.ItemStatus.class), Collectors.counting()));
+        counts.forEach((status, count) -> itemCounters.get(status).increment(count));
+
+        long elapsedNanos = System.nanoTime() - start;
+        double itemsPerSecond = items.size() / Math.max(elapsedNanos / 1e9, 1e-9);
+        log.info("Ingested {} work logs for user {} in {} ms ({} items/s)", items.size(), currentUser.getId(),
+                elapsedNanos / 1_000_000, String.format("%.0f", itemsPerSecond));
+
+        return WorkLogBatchResponse.builder()
+                .received(items.size())
+                .created(counts.getOrDefault(WorkLogBatchResponse.ItemStatus.CREATED, 0L).intValue())
+                .duplicates(counts.getOrDefault(WorkLogBatchResponse.ItemStatus.DUPLICATE, 0L).intValue())
+                .invalid(counts.getOrDefault(WorkLogBatchResponse.ItemStatus.INVALID, 0L).intValue())
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .itemsPerSecond(itemsPerSecond)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Runs a single chunk of at most {@code work-logs.batch.chunk-size} items
+     * for callers that produce work logs incrementally, such as the timesheet
+     * import. Result indexes are positions within {@code chunk}.
+     */
+    List<WorkLogBatchResponse.ItemResult> ingestChunk(List<WorkLogBatchItem> chunk, User currentUser) {
+        WorkLogBatchResponse.ItemResult[] results = new WorkLogBatchResponse.ItemResult[chunk.size()];
+        ingestChunk(chunk, 0, chunk.size(), currentUser, results);
+        for (WorkLogBatchResponse.ItemResult result : results) {
+            itemCounters.get(result.getStatus()).increment();
+        }
+        return Arrays.asList(results);
+    }
+
+    int getChunkSize() {
+        return chunkSize;
+    }
+
+    private void ingestChunk(List<WorkLogBatchItem> items, int from, int to, User currentUser,
+                             WorkLogBatchResponse.ItemResult[] results) {
+        boolean admin = currentUser.getRole() == Role.ROLE_ADMIN;
+        LocalDate archivedBefore = workLogArchiveRepository.getArchivedBefore();
+        List<Integer> candidates = new ArrayList<>(to - from);
+        Set<Long> userIds = new HashSet<>();
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+
+        for (int i = from; i < to; i++) {
+            WorkLogBatchItem item = items.get(i);
+            if (item == null || item.getWorkLog() == null) {
+                results[i] = result(i, WorkLogBatchResponse.ItemStatus.INVALID, "Work log is required");
+                continue;
+            }
+            if (item.getUserId() == null) {
+                item.setUserId(currentUser.getId());
+            }
+            String violations = violations(item);
+            if (violations != null) {
+                results[i] = result(i, WorkLogBatchResponse.ItemStatus.INVALID, violations);
+            } else if (archivedBefore != null && date(item).isBefore(archivedBefore)) {
+                results[i] = result(i, WorkLogBatchResponse.ItemStatus.INVALID,
+                        "Work logs before " + archivedBefore + " are archived");
+            } else if (!admin && !item.getUserId().equals(currentUser.getId())) {
+                results[i] = result(i, WorkLogBatchResponse.ItemStatus.INVALID,
+                        "Not allowed to log hours for another user");
+            } else {
+                candidates.add(i);
+                userIds.add(item.getUserId());
+                startDate = startDate == null || date(item).isBefore(startDate) ? date(item) : startDate;
+                endDate = endDate == null || date(item).isAfter(endDate) ? date(item) : endDate;
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<Long> knownUsers = workLogBatchRepository.findExistingUserIds(userIds);
+        Map<Long, Set<LocalDate>> taken = knownUsers.isEmpty()
+                ? Collections.emptyMap()
+                : workLogBatchRepository.findExistingDates(knownUsers, startDate, endDate);
+
+        Map<Long, Set<LocalDate>> claimed = new HashMap<>();
+        List<Integer> inserts = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            WorkLogBatchItem item = items.get(i);
+            if (!knownUsers.contains(item.getUserId())) {
+                results[i] = result(i, WorkLogBatchResponse.ItemStatus.INVALID,
+                        "User not found with id: " + item.getUserId());
+            } else if (taken.getOrDefault(item.getUserId(), Collections.emptySet()).contains(date(item))
+                    || !claimed.computeIfAbsent(item.getUserId(), id -> new HashSet<>()).add(date(item))) {
+                results[i] = result(i, WorkLogBatchResponse.ItemStatus.DUPLICATE,
+                        "Work log already exists for " + date(item));
+            } else {
+                inserts.add(i);
+            }
+        }
+        insert(items, inserts, results);
+    }
+
+    /**
+     * Inserts the chunk with one batched statement and publishes its
+     * user-months in the same transaction. If the batch
+     * violates a constraint, typically because a concurrent writer took one
+     * of the dates or deleted one of the users in the meantime, the chunk is
+     * rolled back and its rows are inserted one by one so each failing row
+     * is reported with its own cause.
+     */
+    private void insert(List<WorkLogBatchItem> items, List<Integer> indexes, WorkLogBatchResponse.ItemResult[] results) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        List<WorkLogBatchItem> rows = indexes.stream().map(items::get).toList();
+        try {
+            Set<WorkLogBatchItem> skipped = Collections.newSetFromMap(new IdentityHashMap<>());
+            transactionTemplate.executeWithoutResult(status -> {
+                skipped.addAll(workLogBatchRepository.insertBatch(rows));
+                publishInserted(rows.stream().filter(row -> !skipped.contains(row)).toList());
+            });
+            for (int i : indexes) {
+                results[i] = skipped.contains(items.get(i))
+                        ? archived(i, items.get(i))
+                        : result(i, WorkLogBatchResponse.ItemStatus.CREATED, null);
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch insert violated a constraint, falling back to row inserts", e);
+            for (int i : indexes) {
+                WorkLogBatchItem item = items.get(i);
+                try {
+                    Integer written = transactionTemplate.execute(status -> {
+                        int count = workLogBatchRepository.insert(item);
+                        if (count > 0) {
+                            publishInserted(List.of(item));
+                        }
+                        return count;
+                    });
+                    results[i] = written != null && written == 0
+                            ? archived(i, item)
+                            : result(i, WorkLogBatchResponse.ItemStatus.CREATED, null);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    results[i] = rejected(i, item, rowFailure);
+                }
+            }
+        }
+    }
+
+    private void publishInserted(List<WorkLogBatchItem> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(WorkLogsStatusChangedEvent.builder()
+                .status(WorkLog.WorkLogStatus.PENDING)
+                .approvedHoursChanged(false)
+                .updatedCount(inserted.size())
+                .userMonths(userMonths(inserted))
+                .build());
+    }
+
+    private static WorkLogBatchResponse.ItemResult archived(int index, WorkLogBatchItem item) {
+        return result(index, WorkLogBatchResponse.ItemStatus.INVALID, "Work log for " + date(item) + " is archived");
+    }
+
+    /**
+     * Classifies a failed row insert by SQL state: only a unique violation
+     * means the date is taken; a foreign key violation means the user is gone.
+     */
+    private static WorkLogBatchResponse.ItemResult rejected(int index, WorkLogBatchItem item,
+                                                            DataIntegrityViolationException e) {
+        String sqlState = sqlState(e);
+        if (e instanceof DuplicateKeyException || UNIQUE_VIOLATION.equals(sqlState)) {
+            return result(index, WorkLogBatchResponse.ItemStatus.DUPLICATE,
+                    "Work log already exists for " + date(item));
+        }
+        if (FOREIGN_KEY_VIOLATION.equals(sqlState)) {
+            return result(index, WorkLogBatchResponse.ItemStatus.INVALID,
+                    "User not found with id: " + item.getUserId());
+        }
+        log.warn("Work log for user {} on {} was rejected by the database", item.getUserId(), date(item), e);
+        return result(index, WorkLogBatchResponse.ItemStatus.INVALID, "Work log was rejected by the database");
+    }
+
+    private static String sqlState(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate date(WorkLogBatchItem item) {
+        return item.getWorkLog().getDate();
+    }
+
+    private static Map<Long, Set<YearMonth>> userMonths(List<WorkLogBatchItem> rows) {
+        Map<Long, Set<YearMonth>> userMonths = new HashMap<>();
+        for (WorkLogBatchItem row : rows) {
+            userMonths.computeIfAbsent(row.getUserId(), id -> new HashSet<>()).add(YearMonth.from(date(row)));
+        }
+        return userMonths;
+    }
+
+    private String violations(WorkLogBatchItem item) {
+        Set<ConstraintViolation<WorkLogBatchItem>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static WorkLogBatchResponse.ItemResult result(int index, WorkLogBatchResponse.ItemStatus status,
+                                                          String message) {
+        return new WorkLogBatchResponse.ItemResult(index, status, message);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogBulkStatusRequest;
+import com.ems.dto.worklog.WorkLogBulkStatusResponse;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogStatusRepository;
+import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Approves or rejects many work logs in one transaction with set-based
+ * UPDATEs, e.g. a whole department's month at once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkLogBulkStatusService {
+
+    static final int MAX_IDS_PER_STATEMENT = 1_000;
+
+    private final WorkLogStatusRepository workLogStatusRepository;
+    private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public WorkLogBulkStatusResponse updateStatuses(WorkLogBulkStatusRequest request) {
+        User currentUser = authService.getCurrentUser();
+        if (currentUser.getRole() != Role.ROLE_ADMIN) {
+            throw new UnauthorizedAccessException("Only administrators can change work log status");
+        }
+
+        WorkLog.WorkLogStatus status = request.getStatus();
+        List<WorkLogStatusRepository.LockedRow> locked = new ArrayList<>();
+        int requested;
+        int updated = 0;
+
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            requested = ids.size();
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+                List<Long> slice = ids.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, ids.size()));
+                locked.addAll(workLogStatusRepository.lockByIds(slice, status));
+                updated += workLogStatusRepository.updateByIds(slice, status);
+            }
+        } else if (request.getStartDate() != null && request.getEndDate() != null) {
+            if (request.getEndDate().isBefore(request.getStartDate())) {
+                throw new ConstraintViolationException("End date must not be before start date", Collections.emptySet());
+            }
+            WorkLog.WorkLogStatus currentStatus = request.getCurrentStatus() != null
+                    ? request.getCurrentStatus()
+                    : WorkLog.WorkLogStatus.PENDING;
+            locked.addAll(workLogStatusRepository.lockByFilter(request.getDepartment(),
+                    request.getStartDate(), request.getEndDate(), currentStatus, status));
+            requested = locked.size();
+            updated = workLogStatusRepository.updateByFilter(request.getDepartment(),
+                    request.getStartDate(), request.getEndDate(), currentStatus, status);
+        } else {
+            throw new ConstraintViolationException(
+                    "Either ids or a start and end date are required", Collections.emptySet());
+        }
+
+        Map<Long, Set<YearMonth>> userMonths = new HashMap<>();
+        boolean approvedHoursChanged = status == WorkLog.WorkLogStatus.APPROVED;
+        for (WorkLogStatusRepository.LockedRow row : locked) {
+            userMonths.computeIfAbsent(row.getUserId(), id -> new TreeSet<>()).add(YearMonth.from(row.getDate()));
+            approvedHoursChanged |= row.getStatus() == WorkLog.WorkLogStatus.APPROVED;
+        }
+
+        if (updated > 0) {
+            eventPublisher.publishEvent(WorkLogsStatusChangedEvent.builder()
+                    .status(status)
+                    .approvedHoursChanged(approvedHoursChanged)
+                    .updatedCount(updated)
+                    .userMonths(userMonths)
+                    .build());
+        }
+        log.info("Admin {} set {} work logs of {} users to {}", currentUser.getId(), updated, userMonths.size(), status);
+
+        return WorkLogBulkStatusResponse.builder()
+                .status(status)
+                .requested(requested)
+                .updated(updated)
+                .skipped(requested - updated)
+                .affectedUsers(userMonths.size())
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ems.service;
+
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.repository.WorkLogMonthlyAggRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps {@code work_log_monthly_agg} in step with the work logs. The
+ * listeners are synchronous, so the affected user-months are rebuilt inside
+ * the transaction that changed the logs and commit or roll back with it;
+ * bulk writers without events call {@link #refresh(Map)} themselves. Rows of
+ * deleted users go with them through the foreign key cascade.
+ * <p>
+ * A nightly reconciliation compares the stored rows of recent months with
+ * totals computed from the logs and rebuilds the user-months that drifted.
+ * A periodic backfill fills in every month that has not been built yet,
+ * oldest first, one month per transaction; readers group the logs of a
+ * month until it is built.
+ */
+@Slf4j
+@Service
+public class WorkLogMonthlyAggService {
+
+    private final WorkLogMonthlyAggRepository workLogMonthlyAggRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileMonths;
+    private final Counter repairs;
+    private volatile YearMonth firstLogMonth;
+
+    public WorkLogMonthlyAggService(WorkLogMonthlyAggRepository workLogMonthlyAggRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${work-logs.monthly-agg.reconcile-months:3}") int reconcileMonths) {
+        this.workLogMonthlyAggRepository = workLogMonthlyAggRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileMonths = Math.max(1, reconcileMonths);
+        this.repairs = Counter.builder("worklogs.monthly_agg.repairs")
+                .description("User-months of work_log_monthly_agg rebuilt by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onWorkLogChanged(WorkLogChangedEvent event) {
+        Set<YearMonth> months = new TreeSet<>();
+        if (event.getYearMonth() != null) {
+            months.add(event.getYearMonth());
+        }
+        if (event.getPreviousYearMonth() != null) {
+            months.add(event.getPreviousYearMonth());
+        }
+        if (!months.isEmpty()) {
+            refresh(Map.of(event.getUserId(), months));
+        }
+    }
+
+    @EventListener
+    public void onWorkLogsStatusChanged(WorkLogsStatusChangedEvent event) {
+        refresh(event.getUserMonths());
+    }
+
+    /**
+     * Rebuilds the given user-months. Must run in the transaction that wrote
+     * the logs.
+     */
+    public void refresh(Map<Long, Set<YearMonth>> userMonths) {
+        if (userMonths.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<YearMonth>> ordered = new TreeMap<>(userMonths);
+        workLogMonthlyAggRepository.lockUsers(ordered.keySet());
+        workLogMonthlyAggRepository.refresh(ordered);
+    }
+
+    @Scheduled(cron = "${work-logs.monthly-agg.reconcile-cron:0 0 3 * * *}")
+    public void reconcileRecentMonths() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i < reconcileMonths; i++, month = month.minusMonths(1)) {
+            reconcile(month);
+        }
+    }
+
+    /**
+     * Builds every month from the oldest work log up to the current month
+     * that is not built yet and returns how many months were built. Once
+     * the history is done, each run only builds the month that just began.
+     */
+    @Scheduled(cron = "${work-logs.monthly-agg.backfill-cron:0 */15 * * * *}")
+    public int backfill() {
+        if (firstLogMonth == null) {
+            firstLogMonth = workLogMonthlyAggRepository.findFirstLogMonth();
+            if (firstLogMonth == null) {
+                return 0;
+            }
+        }
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = firstLogMonth; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        Set<YearMonth> built = workLogMonthlyAggRepository.findBuiltPeriods(months);
+        int count = 0;
+        for (YearMonth month : months) {
+            if (!built.contains(month)) {
+                Integer rows = transactionTemplate.execute(status -> workLogMonthlyAggRepository.backfill(month));
+                log.info("Backfilled work_log_monthly_agg for {}: {} rows", month, rows);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rebuilds every user-month of {@code period} whose stored rows differ
+     * from the logs and returns how many were repaired.
+     */
+    public int reconcile(YearMonth period) {
+        Map<Long, List<WorkLogMonthlyAggRepository.MonthlyTotal>> computed =
+                workLogMonthlyAggRepository.computeTotals(period);
+        Map<Long, List<WorkLogMonthlyAggRepository.MonthlyTotal>> stored =
+                workLogMonthlyAggRepository.findStoredTotals(period);
+
+        Set<Long> userIds = new HashSet<>(computed.keySet());
+        userIds.addAll(stored.keySet());
+        Map<Long, Set<YearMonth>> drifted = new TreeMap<>();
+        for (Long userId : userIds) {
+            if (!Objects.equals(asSet(computed.get(userId)), asSet(stored.get(userId)))) {
+                drifted.put(userId, Set.of(period));
+            }
+        }
+        if (drifted.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> refresh(drifted));
+        repairs.increment(drifted.size());
+        log.warn("Repaired work_log_monthly_agg for {} users in {}", drifted.size(), period);
+        return drifted.size();
+    }
+
+    private static Set<WorkLogMonthlyAggRepository.MonthlyTotal> asSet(
+            List<WorkLogMonthlyAggRepository.MonthlyTotal> totals) {
+        return totals != null ? new HashSet<>(totals) : Collections.emptySet();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.model.User;
+import com.ems.repository.WorkLogProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Projection-based read path for the current user's work log listings,
+ * returning the same {@link WorkLogResponse}s as the entity-based
+ * {@code WorkLogService} listings.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkLogQueryService {
+
+    private final WorkLogProjectionRepository workLogProjectionRepository;
+    private final AuthService authService;
+
+    public Page<WorkLogResponse> getUserWorkLogs(Pageable pageable) {
+        User currentUser = authService.getCurrentUser();
+        return workLogProjectionRepository.findByUser(currentUser.getId(), pageable);
+    }
+
+    public List<WorkLogResponse> getUserWorkLogsByDateRange(LocalDate startDate, LocalDate endDate) {
+        User currentUser = authService.getCurrentUser();
+        return workLogProjectionRepository.findByUserAndDateRange(currentUser.getId(), startDate, endDate);
+    }
+}
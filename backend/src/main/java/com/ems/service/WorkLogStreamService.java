@@ -0,0 +1,323 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.repository.WorkLogProjectionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes work log changes to open dashboards as server-sent events, so the
+ * approval page no longer has to re-fetch its list after every change.
+ * Employees subscribe to their own channel; administrators may subscribe to
+ * the channel of all users.
+ * <p>
+ * Each change is looked up and serialized once, after commit, and only if
+ * someone is listening on an affected channel. Every connection has a
+ * bounded queue drained on the dedicated {@code workLogStreamExecutor}; a
+ * client whose queue overflows, or whose drain the saturated executor
+ * rejects, is disconnected and is expected to reload its list when it
+ * reconnects.
+ */
+@Slf4j
+@Service
+public class WorkLogStreamService {
+
+    static final String HEARTBEAT = "heartbeat";
+    static final String BULK_STATUS_CHANGED = "bulk_status_changed";
+
+    private final WorkLogProjectionRepository workLogProjectionRepository;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor taskExecutor;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+
+    private final Map<Long, Set<Subscriber>> userChannels = new ConcurrentHashMap<>();
+    private final Set<Subscriber> adminChannel = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final Counter evictions;
+    private final Counter published;
+
+    public WorkLogStreamService(WorkLogProjectionRepository workLogProjectionRepository,
+                                AuthService authService,
+                                ObjectMapper objectMapper,
+                                @Qualifier("workLogStreamExecutor") TaskExecutor taskExecutor,
+                                MeterRegistry meterRegistry,
+                                @Value("${work-logs.stream.buffer-size:64}") int bufferSize,
+                                @Value("${work-logs.stream.max-subscribers:2000}") int maxSubscribers,
+                                @Value("${work-logs.stream.timeout:PT30M}") Duration timeout) {
+        this.workLogProjectionRepository = workLogProjectionRepository;
+        this.authService = authService;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+
+        Gauge.builder("worklogs.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open work log event streams")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("worklogs.stream.evictions")
+                .description("Work log event streams closed because the client fell behind")
+                .register(meterRegistry);
+        this.published = Counter.builder("worklogs.stream.events")
+                .description("Work log changes published to at least one stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the current user's work log changes, or of every
+     * user's changes when {@code allUsers} is set, which requires the admin
+     * role.
+     */
+    public SseEmitter subscribe(boolean allUsers) {
+        User currentUser = authService.getCurrentUser();
+        if (allUsers && currentUser.getRole() != Role.ROLE_ADMIN) {
+            throw new UnauthorizedAccessException("Only administrators can follow all work logs");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open work log streams");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, currentUser.getId(), allUsers);
+        if (allUsers) {
+            adminChannel.add(subscriber);
+        } else {
+            userChannels.compute(currentUser.getId(), (id, channel) -> {
+                Set<Subscriber> subscribers = channel != null ? channel : ConcurrentHashMap.newKeySet();
+                subscribers.add(subscriber);
+                return subscribers;
+            });
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkLogChanged(WorkLogChangedEvent event) {
+        Set<Subscriber> userChannel = userChannels.getOrDefault(event.getUserId(), Set.of());
+        if (userChannel.isEmpty() && adminChannel.isEmpty()) {
+            return;
+        }
+        WorkLogResponse delta;
+        if (event.getType() == WorkLogChangedEvent.ChangeType.DELETED) {
+            delta = WorkLogResponse.builder()
+                    .id(event.getWorkLogId())
+                    .userId(event.getUserId())
+                    .date(event.getDate() != null ? event.getDate() : event.getPreviousDate())
+                    .hoursWorked(event.getHoursWorked() != null ? event.getHoursWorked() : event.getPreviousHoursWorked())
+                    .status(event.getStatus() != null ? event.getStatus() : event.getPreviousStatus())
+                    .build();
+        } else {
+            delta = workLogProjectionRepository.findById(event.getWorkLogId()).orElse(null);
+            if (delta == null) {
+                return;
+            }
+        }
+        StreamEvent streamEvent = streamEvent(event.getType().name().toLowerCase(), delta);
+        if (streamEvent != null) {
+            publish(userChannel, streamEvent);
+            publish(adminChannel, streamEvent);
+            published.increment();
+        }
+    }
+
+    /**
+     * Bulk status changes are announced per user with the affected months
+     * rather than one delta per log; clients reload those months.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkLogsStatusChanged(WorkLogsStatusChangedEvent event) {
+        boolean delivered = false;
+        for (Map.Entry<Long, Set<YearMonth>> entry : event.getUserMonths().entrySet()) {
+            Set<Subscriber> userChannel = userChannels.getOrDefault(entry.getKey(), Set.of());
+            if (!userChannel.isEmpty()) {
+                publish(userChannel, streamEvent(BULK_STATUS_CHANGED, bulkPayload(event.getStatus().name(),
+                        Map.of(entry.getKey(), entry.getValue()))));
+                delivered = true;
+            }
+        }
+        if (!adminChannel.isEmpty()) {
+            publish(adminChannel, streamEvent(BULK_STATUS_CHANGED,
+                    bulkPayload(event.getStatus().name(), event.getUserMonths())));
+            delivered = true;
+        }
+        if (delivered) {
+            published.increment();
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds clients that
+     * went away without closing the stream.
+     */
+    @Scheduled(fixedDelayString = "${work-logs.stream.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        StreamEvent heartbeat = new StreamEvent(null, null, null);
+        userChannels.values().forEach(channel -> publish(channel, heartbeat));
+        publish(adminChannel, heartbeat);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private static Map<String, Object> bulkPayload(String status, Map<Long, ? extends Set<?>> userMonths) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("status", status);
+        payload.put("userMonths", userMonths);
+        return payload;
+    }
+
+    private StreamEvent streamEvent(String name, Object payload) {
+        try {
+            return new StreamEvent(name, String.valueOf(eventIds.incrementAndGet()),
+                    objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize work log stream event {}", name, e);
+            return null;
+        }
+    }
+
+    private void publish(Set<Subscriber> channel, StreamEvent event) {
+        if (event == null) {
+            return;
+        }
+        for (Subscriber subscriber : channel) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * A serialized event shared by every subscriber; a {@code null} name is
+     * a heartbeat comment.
+     */
+    record StreamEvent(String name, String id, String json) {
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment(HEARTBEAT);
+            }
+            return SseEmitter.event().name(name).id(id).data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * One open stream: a bounded queue of pending events and at most one
+     * drain task at a time on the stream executor.
+     */
+    final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final boolean allUsers;
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Long userId, boolean allUsers) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.allUsers = allUsers;
+        }
+
+        void offer(StreamEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.info("Closing work log stream of user {}: {} events behind", userId, queue.size());
+                evict();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    taskExecutor.execute(this::drain);
+                } catch (TaskRejectedException e) {
+                    log.info("Closing work log stream of user {}: stream executor is saturated", userId);
+                    draining.set(false);
+                    evict();
+                }
+            }
+        }
+
+        private void evict() {
+            evictions.increment();
+            close();
+            emitter.complete();
+        }
+
+        private void drain() {
+            while (true) {
+                StreamEvent event = queue.poll();
+                if (event == null) {
+                    draining.set(false);
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    emitter.send(event.toSse());
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    draining.set(false);
+                    return;
+                }
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                if (allUsers) {
+                    adminChannel.remove(this);
+                } else {
+                    userChannels.computeIfPresent(userId, (id, channel) -> {
+                        channel.remove(this);
+                        return channel.isEmpty() ? null : channel;
+                    });
+                }
+                queue.clear();
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogRequest;
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.dto.worklog.WorkLogUpsertResponse;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.exception.WorkLogProcessingException;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogArchiveRepository;
+import com.ems.repository.WorkLogUpsertRepository;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+/**
+ * Upsert mode of work log creation: the caller's log for the day is inserted
+ * or updated by one MERGE on {@code unique_user_date} instead of
+ * {@code existsByUserAndDate} followed by {@code save}. Approved logs are
+ * never overwritten.
+ */
+@Slf4j
+@Service
+public class WorkLogUpsertService {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final WorkLogUpsertRepository workLogUpsertRepository;
+    private final WorkLogArchiveRepository workLogArchiveRepository;
+    private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public WorkLogUpsertService(WorkLogUpsertRepository workLogUpsertRepository,
+                                WorkLogArchiveRepository workLogArchiveRepository,
+                                AuthService authService,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager) {
+        this.workLogUpsertRepository = workLogUpsertRepository;
+        this.workLogArchiveRepository = workLogArchiveRepository;
+        this.authService = authService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Some databases can still raise a unique violation when two MERGEs for
+     * the same key race; the losing attempt is rolled back and retried, and
+     * the retry takes the update branch.
+     */
+    public WorkLogUpsertResponse upsertWorkLog(WorkLogRequest request) {
+        User currentUser = authService.getCurrentUser();
+        LocalDate archivedBefore = workLogArchiveRepository.getArchivedBefore();
+        if (archivedBefore != null && request.getDate().isBefore(archivedBefore)) {
+            throw new ConstraintViolationException("Work logs before " + archivedBefore + " are archived",
+                    Collections.emptySet());
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> upsert(currentUser, request));
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new WorkLogProcessingException("Could not save work log for " + request.getDate(), e);
+                }
+                log.debug("Concurrent upsert of work log for user {} on {}, retrying",
+                        currentUser.getId(), request.getDate());
+            }
+        }
+    }
+
+    private WorkLogUpsertResponse upsert(User user, WorkLogRequest request) {
+        WorkLogUpsertRepository.UpsertedRow row = workLogUpsertRepository.upsert(user.getId(), request.getDate(),
+                        request.getHoursWorked(), request.getRemarks())
+                .orElseThrow(() -> new ConstraintViolationException("Work log for " + request.getDate() + " is archived",
+                        Collections.emptySet()));
+
+        WorkLogUpsertResponse.Outcome outcome;
+        if (row.isApproved()) {
+            outcome = WorkLogUpsertResponse.Outcome.UNCHANGED;
+        } else if (row.isCreated()) {
+            outcome = WorkLogUpsertResponse.Outcome.CREATED;
+        } else {
+            outcome = WorkLogUpsertResponse.Outcome.UPDATED;
+        }
+
+        WorkLog.WorkLogStatus status = WorkLog.WorkLogStatus.valueOf(row.getStatus());
+        if (outcome != WorkLogUpsertResponse.Outcome.UNCHANGED) {
+            eventPublisher.publishEvent(WorkLogChangedEvent.builder()
+                    .type(outcome == WorkLogUpsertResponse.Outcome.CREATED
+                            ? WorkLogChangedEvent.ChangeType.CREATED
+                            : WorkLogChangedEvent.ChangeType.UPDATED)
+                    .workLogId(row.getId())
+                    .userId(user.getId())
+                    .date(request.getDate())
+                    .hoursWorked(row.getHoursWorked())
+                    .status(status)
+                    .build());
+        }
+
+        return WorkLogUpsertResponse.builder()
+                .outcome(outcome)
+                .workLog(WorkLogResponse.builder()
+                        .id(row.getId())
+                        .userId(user.getId())
+                        .userName(user.getFullName())
+                        .date(request.getDate())
+                        .hoursWorked(row.getHoursWorked())
+                        .remarks(row.getRemarks())
+                        .status(status)
+                        .calculatedPay(PayrollCalculator.calculatedPay(row.getHoursWorked(), user.getHourlyRate()))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ems.service;
+
+import com.ems.dto.MonthlyWorkTotals;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monthly work summaries of the current user built from at most one
+ * aggregate row per month and status, rather than from every work log of
+ * the range.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkSummaryService {
+
+    private final WorkLogSummaryRepository workLogSummaryRepository;
+    private final AuthService authService;
+
+    @Transactional(readOnly = true)
+    public List<MonthlyWorkTotals> getMonthlyWorkSummary(LocalDate startDate, LocalDate endDate) {
+        User currentUser = authService.getCurrentUser();
+        Map<YearMonth, Totals> byMonth = new LinkedHashMap<>();
+        for (WorkLogSummaryRepository.MonthlyStatusAggregate row :
+                workLogSummaryRepository.findMonthlyStatusAggregates(currentUser.getId(), startDate, endDate)) {
+            byMonth.computeIfAbsent(row.getYearMonth(), month -> new Totals()).add(row);
+        }
+
+        List<MonthlyWorkTotals> summaries = new ArrayList<>(byMonth.size());
+        byMonth.forEach((month, totals) -> summaries.add(totals.toSummary(month)));
+        return summaries;
+    }
+
+    /**
+     * Sums are kept as BigDecimal until the end so the DECIMAL(5,2) hours
+     * add up exactly.
+     */
+    private static final class Totals {
+        private BigDecimal hours = BigDecimal.ZERO;
+        private BigDecimal approvedHours = BigDecimal.ZERO;
+        private BigDecimal pendingHours = BigDecimal.ZERO;
+        private BigDecimal overtimeHours = BigDecimal.ZERO;
+        private int logs;
+        private int approvedLogs;
+        private int pendingLogs;
+
+        void add(WorkLogSummaryRepository.MonthlyStatusAggregate row) {
+            hours = hours.add(row.getHours());
+            overtimeHours = overtimeHours.add(row.getOvertimeHours());
+            logs += row.getLogCount();
+            if (row.getStatus() == WorkLog.WorkLogStatus.APPROVED) {
+                approvedHours = approvedHours.add(row.getHours());
+                approvedLogs += row.getLogCount();
+            } else if (row.getStatus() == WorkLog.WorkLogStatus.PENDING) {
+                pendingHours = pendingHours.add(row.getHours());
+                pendingLogs += row.getLogCount();
+            }
+        }
+
+        /**
+         * A user has at most one log per day (unique_user_date), so the
+         * number of work days is the number of logs.
+         */
+        MonthlyWorkTotals toSummary(YearMonth yearMonth) {
+            double average = logs == 0 ? 0.0 : hours.divide(BigDecimal.valueOf(logs), 2, RoundingMode.HALF_UP).doubleValue();
+            return MonthlyWorkTotals.builder()
+                    .yearMonth(yearMonth)
+                    .totalHoursWorked(hours.doubleValue())
+                    .approvedHours(approvedHours.doubleValue())
+                    .pendingHours(pendingHours.doubleValue())
+                    .overtimeHours(overtimeHours.doubleValue())
+                    .averageHoursPerDay(average)
+                    .workDaysCount(logs)
+                    .totalWorkLogs(logs)
+                    .approvedWorkLogs(approvedLogs)
+                    .pendingWorkLogs(pendingLogs)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ems.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private BoundedCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BoundedCache<>("test", 2, Duration.ofMinutes(1), new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void putIfShouldCacheOnlyWhenConditionHolds() {
+        // Act
+        boolean rejected = cache.putIf("a", "stale", () -> false);
+        boolean accepted = cache.putIf("b", "fresh", () -> true);
+
+        // Assert
+        assertFalse(rejected);
+        assertTrue(accepted);
+        assertEquals(Optional.empty(), cache.getIfPresent("a"));
+        assertEquals(Optional.of("fresh"), cache.getIfPresent("b"));
+    }
+
+    @Test
+    void putIfShouldCheckConditionUnderCacheLock() {
+        // Act
+        cache.putIf("a", "value", () -> {
+            assertTrue(Thread.holdsLock(cacheLock()));
+            return true;
+        });
+
+        // Assert
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void putUntilIfShouldExpireAtGivenTime() {
+        // Arrange
+        cache.putUntilIf("a", "value", Duration.ofSeconds(10).toNanos(), () -> true);
+
+        // Act
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        // Assert
+        assertEquals(Optional.empty(), cache.getIfPresent("a"));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void putShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.getIfPresent("a");
+
+        // Act
+        cache.put("c", "3");
+
+        // Assert
+        assertTrue(cache.getIfPresent("a").isPresent());
+        assertFalse(cache.getIfPresent("b").isPresent());
+    }
+
+    private Object cacheLock() {
+        try {
+            Field field = BoundedCache.class.getDeclaredField("entries");
+            field.setAccessible(true);
+            return field.get(cache);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ems.config;
+
+import com.ems.model.User;
+import com.ems.service.TokenVersionService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtClaimsAuthenticatorTest {
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private Claims claims;
+
+    private JwtClaimsAuthenticator jwtClaimsAuthenticator;
+    private int adminVersion;
+
+    @BeforeEach
+    void setUp() {
+        jwtClaimsAuthenticator = new JwtClaimsAuthenticator(tokenVersionService, true);
+        adminVersion = 3;
+    }
+
+    private void stubClaims(Object version) {
+        lenient().when(claims.getSubject()).thenReturn("admin");
+        lenient().when(claims.get(TokenVersionService.USER_ID_CLAIM)).thenReturn(1);
+        lenient().when(claims.get(TokenVersionService.ROLE_CLAIM)).thenReturn("ROLE_ADMIN");
+        lenient().when(claims.get(TokenVersionService.VERSION_CLAIM)).thenReturn(version);
+    }
+
+    @Test
+    void authenticateWithCurrentVersionShouldBuildPrincipalFromClaims() {
+        // Arrange
+        stubClaims(adminVersion);
+        when(tokenVersionService.isCurrent(1L, adminVersion)).thenReturn(true);
+
+        // Act
+        Optional<UsernamePasswordAuthenticationToken> authentication = jwtClaimsAuthenticator.authenticate(claims);
+
+        // Assert
+        assertTrue(authentication.isPresent());
+        User principal = (User) authentication.get().getPrincipal();
+        assertEquals(1L, principal.getId());
+        assertEquals("admin", principal.getUsername());
+        assertTrue(authentication.get().getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+    }
+
+    @Test
+    void authenticateWithRevokedVersionShouldFail() {
+        // Arrange
+        stubClaims(adminVersion);
+        when(tokenVersionService.isCurrent(1L, adminVersion)).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(jwtClaimsAuthenticator.authenticate(claims).isEmpty());
+    }
+
+    @Test
+    void authenticateWithoutSubjectShouldFailWithoutLookup() {
+        // Arrange
+        stubClaims(adminVersion);
+        when(claims.getSubject()).thenReturn(null);
+
+        // Act & Assert
+        assertTrue(jwtClaimsAuthenticator.authenticate(claims).isEmpty());
+        verify(tokenVersionService, never()).isCurrent(any(), anyInt());
+    }
+
+    @Test
+    void supportsShouldRejectTokensWithoutVersionClaim() {
+        // Arrange
+        stubClaims(null);
+
+        // Act & Assert
+        assertFalse(jwtClaimsAuthenticator.supports(claims));
+    }
+
+    @Test
+    void supportsWhenDisabledShouldBeFalse() {
+        // Arrange
+        stubClaims(adminVersion);
+        JwtClaimsAuthenticator disabled = new JwtClaimsAuthenticator(tokenVersionService, false);
+
+        // Act & Assert
+        assertFalse(disabled.supports(claims));
+    }
+}
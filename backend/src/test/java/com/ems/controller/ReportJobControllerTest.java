@@ -0,0 +1,81 @@
+package com.ems.controller;
+
+import com.ems.dto.payroll.ReportJobResponse;
+import com.ems.model.ReportJob;
+import com.ems.service.ReportJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.YearMonth;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReportJobController.class)
+public class ReportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportJobService reportJobService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void createReportJob() throws Exception {
+        // Arrange
+        ReportJobResponse job = ReportJobResponse.builder()
+                .id(1L)
+                .period("2024-01")
+                .format("CSV")
+                .status(ReportJob.ReportJobStatus.QUEUED)
+                .progress(0)
+                .build();
+        when(reportJobService.createPayrollReportJob(any(YearMonth.class), eq("csv"))).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(post("/payroll/report-jobs")
+                .with(csrf())
+                .param("yearMonth", "2024-01")
+                .param("format", "csv"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getReportJobProgress() throws Exception {
+        // Arrange
+        when(reportJobService.getJob(1L)).thenReturn(ReportJobResponse.builder()
+                .id(1L)
+                .status(ReportJob.ReportJobStatus.RUNNING)
+                .progress(40)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/payroll/report-jobs/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.progress").value(40));
+    }
+
+    @Test
+    @WithMockUser(roles = "EMPLOYEE")
+    void createReportJobUnauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/payroll/report-jobs")
+                .with(csrf())
+                .param("yearMonth", "2024-01"))
+                .andExpect(status().isForbidden());
+    }
+}
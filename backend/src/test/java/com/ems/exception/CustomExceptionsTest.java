@@ -110,6 +110,20 @@ public class CustomExceptionsTest {
         assertEquals(cause, exception.getCause());
     }
 
+    @Test
+    void workLogProcessingExceptionWithMessageAndCause() {
+        // Arrange
+        String message = "Work log processing error";
+        Throwable cause = new RuntimeException("Original cause");
+
+        // Act
+        WorkLogProcessingException exception = new WorkLogProcessingException(message, cause);
+
+        // Assert
+        assertEquals(message, exception.getMessage());
+        assertEquals(cause, exception.getCause());
+    }
+
     @Test
     void exceptionInheritance() {
         // Assert
@@ -117,6 +131,7 @@ public class CustomExceptionsTest {
         assertTrue(new DuplicateResourceException("") instanceof RuntimeException);
         assertTrue(new UnauthorizedAccessException("") instanceof RuntimeException);
         assertTrue(new PayrollProcessingException("") instanceof RuntimeException);
+        assertTrue(new WorkLogProcessingException("") instanceof RuntimeException);
     }
 
     @Test
@@ -0,0 +1,56 @@
+package com.ems.exception;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseStatusExceptionHandlerTest {
+
+    private ResponseStatusExceptionHandler exceptionHandler;
+
+    @BeforeEach
+    void setUp() {
+        exceptionHandler = new ResponseStatusExceptionHandler();
+    }
+
+    @Test
+    void handleServiceBusyShouldAnswer503WithRetryAfter() {
+        // Arrange
+        ServiceBusyException ex = new ServiceBusyException("Too many sign-ins in progress", Duration.ofSeconds(3));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleResponseStatus(ex);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("Service Unavailable", response.getBody().get("error"));
+        assertEquals("Too many sign-ins in progress", response.getBody().get("message"));
+        assertNotNull(response.getBody().get("timestamp"));
+    }
+
+    @Test
+    void handleResponseStatusShouldKeepItsStatus() {
+        // Arrange
+        ResponseStatusException ex = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many open work log streams");
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleResponseStatus(ex);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(503, response.getBody().get("status"));
+        assertEquals("Too many open work log streams", response.getBody().get("message"));
+    }
+}
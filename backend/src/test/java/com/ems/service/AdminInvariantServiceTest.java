@@ -0,0 +1,71 @@
+package com.ems.service;
+
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.User;
+import com.ems.repository.EnabledAdminRepository;
+import com.ems.util.TestUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdminInvariantServiceTest {
+
+    @Mock
+    private EnabledAdminRepository enabledAdminRepository;
+
+    @InjectMocks
+    private AdminInvariantService adminInvariantService;
+
+    @Test
+    void lastEnabledAdminShouldBeRejected() {
+        // Arrange
+        User admin = TestUtil.UserBuilder.aUser().withId(1L).asAdmin().build();
+        when(enabledAdminRepository.lockEnabledAdminIds()).thenReturn(List.of(1L));
+
+        // Act & Assert
+        assertThrows(UnauthorizedAccessException.class, () -> adminInvariantService.ensureNotLastEnabledAdmin(admin));
+    }
+
+    @Test
+    void adminWithAnotherEnabledAdminShouldPass() {
+        // Arrange
+        User admin = TestUtil.UserBuilder.aUser().withId(1L).asAdmin().build();
+        when(enabledAdminRepository.lockEnabledAdminIds()).thenReturn(List.of(1L, 4L));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> adminInvariantService.ensureNotLastEnabledAdmin(admin));
+    }
+
+    @Test
+    void employeeShouldPassWithoutQuery() {
+        // Arrange
+        User employee = TestUtil.UserBuilder.aUser().withId(2L).build();
+
+        // Act
+        adminInvariantService.ensureNotLastEnabledAdmin(employee);
+
+        // Assert
+        verifyNoInteractions(enabledAdminRepository);
+    }
+
+    @Test
+    void disabledAdminShouldPassWithoutQuery() {
+        // Arrange
+        User admin = TestUtil.UserBuilder.aUser().withId(1L).asAdmin().build();
+        admin.setEnabled(false);
+
+        // Act
+        adminInvariantService.ensureNotLastEnabledAdmin(admin);
+
+        // Assert
+        verifyNoInteractions(enabledAdminRepository);
+    }
+}
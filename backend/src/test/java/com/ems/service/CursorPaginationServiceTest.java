@@ -0,0 +1,134 @@
+package com.ems.service;
+
+import com.ems.dto.CursorPage;
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.UserKeysetRepository;
+import com.ems.repository.WorkLogProjectionRepository;
+import com.ems.util.TestUtil;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CursorPaginationServiceTest {
+
+    @Mock
+    private WorkLogProjectionRepository workLogProjectionRepository;
+
+    @Mock
+    private UserKeysetRepository userKeysetRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @InjectMocks
+    private CursorPaginationService cursorPaginationService;
+
+    private User employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = TestUtil.UserBuilder.aUser().withId(1L).build();
+    }
+
+    private WorkLogResponse log(long id, LocalDate date) {
+        return WorkLogResponse.builder()
+                .id(id)
+                .userId(employee.getId())
+                .date(date)
+                .hoursWorked(8.0)
+                .status(WorkLog.WorkLogStatus.PENDING)
+                .calculatedPay(200.0)
+                .build();
+    }
+
+    @Test
+    void firstPageFetchesOneExtraRowAndReturnsCursor() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        when(workLogProjectionRepository.findPage(1L, null, null, 3)).thenReturn(List.of(
+                log(30L, LocalDate.of(2024, 1, 5)),
+                log(20L, LocalDate.of(2024, 1, 4)),
+                log(10L, LocalDate.of(2024, 1, 4))));
+
+        // Act
+        CursorPage<WorkLogResponse> page = cursorPaginationService.getUserWorkLogs(null, 2);
+
+        // Assert
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(200.0, page.getContent().get(0).getCalculatedPay());
+        assertEquals(LocalDate.of(2024, 1, 4), KeysetCursor.decodeDate(page.getNextCursor()));
+        assertEquals(20L, KeysetCursor.decodeId(page.getNextCursor()));
+    }
+
+    @Test
+    void nextPageSeeksPastCursor() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        String cursor = KeysetCursor.encode(LocalDate.of(2024, 1, 4), 20L);
+        when(workLogProjectionRepository.findPage(1L, LocalDate.of(2024, 1, 4), 20L, 3))
+                .thenReturn(List.of(log(10L, LocalDate.of(2024, 1, 4))));
+
+        // Act
+        CursorPage<WorkLogResponse> page = cursorPaginationService.getUserWorkLogs(cursor, 2);
+
+        // Assert
+        assertEquals(1, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void usersArePagedById() {
+        // Arrange
+        User second = TestUtil.UserBuilder.aUser().withId(42L).build();
+        when(userKeysetRepository.findByIdGreaterThanOrderByIdAsc(7L, PageRequest.of(0, 21)))
+                .thenReturn(List.of(second));
+
+        // Act
+        CursorPage<User> page = cursorPaginationService.getAllUsers(KeysetCursor.encode(7L), null);
+
+        // Assert
+        assertEquals(List.of(second), page.getContent());
+        assertEquals(CursorPaginationService.DEFAULT_PAGE_SIZE, page.getSize());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        // Arrange
+        when(userKeysetRepository.findByIdGreaterThanOrderByIdAsc(0L,
+                PageRequest.of(0, CursorPaginationService.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+
+        // Act
+        CursorPage<User> page = cursorPaginationService.getAllUsers(null, 10_000);
+
+        // Assert
+        assertEquals(CursorPaginationService.MAX_PAGE_SIZE, page.getSize());
+        assertTrue(page.getContent().isEmpty());
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class,
+                () -> cursorPaginationService.getUserWorkLogs("not a cursor!", 2));
+    }
+}
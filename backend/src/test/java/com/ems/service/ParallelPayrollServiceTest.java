@@ -0,0 +1,176 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.exception.PayrollProcessingException;
+import com.ems.repository.PayrollAggregateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ParallelPayrollServiceTest {
+
+    @Mock
+    private PayrollAggregateRepository payrollAggregateRepository;
+
+    private ExecutorService pool;
+    private SimpleMeterRegistry meterRegistry;
+    private YearMonth yearMonth;
+    private EmployeePayrollAggregate engineer;
+    private EmployeePayrollAggregate marketer;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+        yearMonth = YearMonth.now();
+
+        engineer = EmployeePayrollAggregate.builder()
+                .userId(2L)
+                .firstName("John")
+                .lastName("Doe")
+                .department("Engineering")
+                .hourlyRate(25.0)
+                .totalHours(10.0)
+                .regularHours(8.0)
+                .overtimeHours(2.0)
+                .build();
+
+        marketer = EmployeePayrollAggregate.builder()
+                .userId(1L)
+                .firstName("Jane")
+                .lastName("Smith")
+                .department("Marketing")
+                .hourlyRate(30.0)
+                .totalHours(8.0)
+                .regularHours(8.0)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private ParallelPayrollService service(ParallelPayrollService.Partitioning partitioning) {
+        PayrollPricingService payrollPricingService = new PayrollPricingService(
+                new PayRuleRegistry(new PayRuleProperties()), payrollAggregateRepository);
+        return new ParallelPayrollService(payrollAggregateRepository, payrollPricingService, pool, meterRegistry,
+                partitioning, 2);
+    }
+
+    @Test
+    void generatePayrollReportMergesDepartmentPartitions() {
+        // Arrange
+        when(payrollAggregateRepository.findDepartments()).thenReturn(Arrays.asList("Engineering", "Marketing"));
+        when(payrollAggregateRepository.findMonthlyAggregatesByDepartment(yearMonth, "Engineering"))
+                .thenReturn(List.of(engineer));
+        when(payrollAggregateRepository.findMonthlyAggregatesByDepartment(yearMonth, "Marketing"))
+                .thenReturn(List.of(marketer));
+
+        // Act
+        List<Map<String, Object>> report = service(ParallelPayrollService.Partitioning.DEPARTMENT)
+                .generatePayrollReport(yearMonth);
+
+        // Assert
+        assertEquals(2, report.size());
+        assertEquals(1L, report.get(0).get("employeeId"));
+        assertEquals(2L, report.get(1).get("employeeId"));
+        assertNotNull(meterRegistry.find("payroll.partition.duration").tag("partition", "Engineering").timer());
+        assertNotNull(meterRegistry.find("payroll.partition.duration").tag("partition", "Marketing").timer());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getPayrollSummaryFillsDepartmentTotals() {
+        // Arrange
+        when(payrollAggregateRepository.findDepartments()).thenReturn(Arrays.asList("Engineering", "Marketing"));
+        when(payrollAggregateRepository.findMonthlyAggregatesByDepartment(yearMonth, "Engineering"))
+                .thenReturn(List.of(engineer));
+        when(payrollAggregateRepository.findMonthlyAggregatesByDepartment(yearMonth, "Marketing"))
+                .thenReturn(List.of(marketer));
+
+        // Act
+        Map<String, Object> summary = service(ParallelPayrollService.Partitioning.DEPARTMENT)
+                .getPayrollSummary(yearMonth, yearMonth);
+
+        // Assert
+        assertEquals(2, summary.get("totalEmployees"));
+        Map<String, Double> departmentTotals = (Map<String, Double>) summary.get("departmentTotals");
+        assertEquals(275.0, departmentTotals.get("Engineering")); // 200 regular + 75 overtime
+        assertEquals(240.0, departmentTotals.get("Marketing"));   // 8 hours * $30
+        assertEquals(515.0, summary.get("totalPayroll"));
+    }
+
+    @Test
+    void employeesWithoutDepartmentAreKeptApartFromUnassignedDepartment() {
+        // Arrange
+        EmployeePayrollAggregate noDepartment = EmployeePayrollAggregate.builder()
+                .userId(3L)
+                .firstName("Sam")
+                .lastName("Lee")
+                .hourlyRate(20.0)
+                .totalHours(8.0)
+                .regularHours(8.0)
+                .build();
+        when(payrollAggregateRepository.findDepartments()).thenReturn(Arrays.asList("Unassigned", null));
+        when(payrollAggregateRepository.findMonthlyAggregatesByDepartment(yearMonth, "Unassigned"))
+                .thenReturn(List.of(engineer));
+        when(payrollAggregateRepository.findMonthlyAggregatesByDepartment(yearMonth, null))
+                .thenReturn(List.of(noDepartment));
+
+        // Act
+        List<Map<String, Object>> report = service(ParallelPayrollService.Partitioning.DEPARTMENT)
+                .generatePayrollReport(yearMonth);
+
+        // Assert
+        assertEquals(2, report.size());
+        assertEquals(2L, report.get(0).get("employeeId"));
+        assertEquals(3L, report.get(1).get("employeeId"));
+    }
+
+    @Test
+    void idBucketPartitioningQueriesEveryBucket() {
+        // Arrange
+        when(payrollAggregateRepository.findMonthlyAggregatesByBucket(eq(yearMonth), anyInt(), eq(2)))
+                .thenReturn(List.of());
+
+        // Act
+        service(ParallelPayrollService.Partitioning.ID_BUCKET).generatePayrollReport(yearMonth);
+
+        // Assert
+        verify(payrollAggregateRepository).findMonthlyAggregatesByBucket(yearMonth, 0, 2);
+        verify(payrollAggregateRepository).findMonthlyAggregatesByBucket(yearMonth, 1, 2);
+        verify(payrollAggregateRepository, never()).findDepartments();
+    }
+
+    @Test
+    void partitionFailureIsReportedAsPayrollProcessingException() {
+        // Arrange
+        when(payrollAggregateRepository.findDepartments()).thenReturn(List.of("Engineering"));
+        when(payrollAggregateRepository.findMonthlyAggregatesByDepartment(any(), any()))
+                .thenThrow(new RuntimeException("connection reset"));
+
+        // Act & Assert
+        assertThrows(PayrollProcessingException.class,
+                () -> service(ParallelPayrollService.Partitioning.DEPARTMENT).generatePayrollReport(yearMonth));
+    }
+}
@@ -0,0 +1,152 @@
+package com.ems.service;
+
+import com.ems.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        passwordHashingService = new PasswordHashingService(executor, meterRegistry, 4, true, 0,
+                Duration.ofSeconds(5), Duration.ofSeconds(3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void encodeAndMatchShouldRunOnPoolAndRecordTimes() {
+        // Act
+        String hash = passwordHashingService.encode("Secret@123");
+        boolean matches = passwordHashingService.matches("Secret@123", hash);
+
+        // Assert
+        assertTrue(matches);
+        assertFalse(passwordHashingService.matches("Wrong@123", hash));
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash").tag("operation", "verify").timer().count());
+    }
+
+    @Test
+    void encodeWhenPoolSaturatedShouldFailFastWithRetryAfter() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class,
+                () -> passwordHashingService.encode("Secret@123"));
+        release.countDown();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+        assertEquals("3", exception.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+    }
+
+    @Test
+    void encodeWhenQueueWaitTimesOutShouldCancelTheQueuedHash() throws InterruptedException {
+        // Arrange
+        ThreadPoolTaskExecutor queued = new ThreadPoolTaskExecutor();
+        queued.setCorePoolSize(1);
+        queued.setMaxPoolSize(1);
+        queued.setQueueCapacity(1);
+        queued.initialize();
+        PasswordHashingService service = new PasswordHashingService(queued, meterRegistry, 4, true, 0,
+                Duration.ofMillis(50), Duration.ofSeconds(3));
+        CountDownLatch release = new CountDownLatch(1);
+        queued.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act
+        assertThrows(ServiceBusyException.class, () -> service.encode("Secret@123"));
+        release.countDown();
+        queued.shutdown();
+        queued.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void needsRehashShouldFlagHashesOfAnyOtherCost() {
+        // Arrange
+        PasswordHashingService service = new PasswordHashingService(executor, meterRegistry, 5, true, 0,
+                Duration.ofSeconds(5), Duration.ofSeconds(3));
+        String weaker = new BCryptPasswordEncoder(4).encode("Secret@123");
+        String stronger = new BCryptPasswordEncoder(6).encode("Secret@123");
+        String current = service.encode("Secret@123");
+
+        // Act & Assert
+        assertTrue(service.needsRehash(weaker));
+        assertFalse(service.needsRehash(current));
+        assertTrue(service.needsRehash(stronger));
+        assertTrue(service.passwordEncoder().upgradeEncoding(weaker));
+        assertFalse(service.needsRehash("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    void needsRehashWithoutHigherCostShouldKeepStrongerHashes() {
+        // Arrange
+        PasswordHashingService service = new PasswordHashingService(executor, meterRegistry, 5, false, 0,
+                Duration.ofSeconds(5), Duration.ofSeconds(3));
+        String weaker = new BCryptPasswordEncoder(4).encode("Secret@123");
+        String stronger = new BCryptPasswordEncoder(6).encode("Secret@123");
+
+        // Act & Assert
+        assertTrue(service.needsRehash(weaker));
+        assertFalse(service.needsRehash(stronger));
+    }
+
+    @Test
+    void recommendedStrengthShouldStayWithinTarget() {
+        // Act & Assert
+        assertEquals(10, PasswordHashingService.recommendedStrength(80, 100));
+        assertEquals(12, PasswordHashingService.recommendedStrength(60, 250));
+        assertEquals(16, PasswordHashingService.recommendedStrength(1, 1_000_000));
+    }
+
+    @Test
+    void costOfShouldReadBcryptCost() {
+        // Act & Assert
+        assertEquals(12, PasswordHashingService.costOf("$2a$12$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, PasswordHashingService.costOf(null));
+        assertEquals(-1, PasswordHashingService.costOf("plain"));
+    }
+}
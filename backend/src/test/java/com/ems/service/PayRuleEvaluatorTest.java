@@ -0,0 +1,224 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.model.WorkLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayRuleEvaluatorTest {
+
+    private static final long RATE_CENTS = 2_500;
+
+    private YearMonth yearMonth;
+    private PayRuleProperties.RuleSet rules;
+
+    @BeforeEach
+    void setUp() {
+        yearMonth = YearMonth.of(2024, 1);
+        rules = new PayRuleProperties.RuleSet();
+    }
+
+    private WorkLog log(LocalDate date, double hours) {
+        return WorkLog.builder()
+                .date(date)
+                .hoursWorked(hours)
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .build();
+    }
+
+    private PayrollResult evaluate(PayRuleEvaluator evaluator, WorkLog... logs) {
+        return evaluator.evaluate(1L, "John Doe", yearMonth, Arrays.asList(logs), RATE_CENTS);
+    }
+
+    @Test
+    void standardRules_MatchHardCodedOvertime() {
+        // Arrange - 2024-01-02 is a Tuesday
+        List<WorkLog> logs = new ArrayList<>();
+        long regular = 0;
+        long overtime = 0;
+        for (int day = 1; day <= 31; day++) {
+            double hours = 6.25 + (day % 7) * 0.75;
+            logs.add(log(LocalDate.of(2024, 1, day), hours));
+            long hundredths = PayrollCalculator.toHundredths(hours);
+            regular += Math.min(hundredths, 800);
+            overtime += Math.max(hundredths - 800, 0);
+        }
+
+        // Act
+        PayrollResult result = PayRuleEvaluator.STANDARD.evaluate(1L, "John Doe", yearMonth, logs, RATE_CENTS);
+
+        // Assert
+        assertEquals(PayrollCalculator.calculate(1L, "John Doe", yearMonth, regular, overtime, RATE_CENTS), result);
+    }
+
+    @Test
+    void doubleTime_PaysHoursAboveThresholdAtDoubleRate() {
+        // Arrange
+        rules.setDoubleTimeThresholdHours(12.0);
+
+        // Act
+        PayrollResult result = evaluate(PayRuleEvaluator.compile(rules), log(LocalDate.of(2024, 1, 2), 14.0));
+
+        // Assert
+        assertEquals(800, result.getRegularHundredths());
+        assertEquals(600, result.getOvertimeHundredths());
+        assertEquals(20_000, result.getRegularPayCents());   // 8 hours * $25
+        assertEquals(25_000, result.getOvertimePayCents());  // 4 * $25 * 1.5 + 2 * $25 * 2
+    }
+
+    @Test
+    void weeklyThreshold_ShiftsRegularHoursToOvertime() {
+        // Arrange - Monday 2024-01-08 to Friday 2024-01-12, listed newest first
+        rules.setWeeklyThresholdHours(36.0);
+        WorkLog[] week = new WorkLog[5];
+        for (int i = 0; i < 5; i++) {
+            week[i] = log(LocalDate.of(2024, 1, 12 - i), 8.0);
+        }
+
+        // Act
+        PayrollResult result = evaluate(PayRuleEvaluator.compile(rules), week);
+
+        // Assert
+        assertEquals(3_600, result.getRegularHundredths());
+        assertEquals(400, result.getOvertimeHundredths());
+        assertEquals(15_000, result.getOvertimePayCents());  // 4 * $25 * 1.5
+    }
+
+    @Test
+    void weekendMultiplier_AppliesToEveryWeekendHour() {
+        // Arrange - 2024-01-06 is a Saturday
+        rules.setWeekendMultiplier(1.75);
+
+        // Act
+        PayrollResult result = evaluate(PayRuleEvaluator.compile(rules),
+                log(LocalDate.of(2024, 1, 6), 10.0),
+                log(LocalDate.of(2024, 1, 5), 8.0));
+
+        // Assert
+        assertEquals(800, result.getRegularHundredths());
+        assertEquals(0, result.getOvertimeHundredths());
+        assertEquals(1_000, result.getWeekendHundredths());
+        assertEquals(1_800, result.getTotalHundredths());
+        assertEquals(20_000, result.getRegularPayCents());
+        assertEquals(0, result.getOvertimePayCents());
+        assertEquals(43_750, result.getWeekendPayCents());   // 10 * $25 * 1.75
+        assertEquals(63_750, result.getGrossPayCents());
+    }
+
+    @Test
+    void weeklyThreshold_CountsWeekStartedInPreviousMonth() {
+        // Arrange - 2024-02-01 is a Thursday; its ISO week starts on Monday 2024-01-29
+        rules.setWeeklyThresholdHours(36.0);
+        PayRuleEvaluator evaluator = PayRuleEvaluator.compile(rules);
+        YearMonth february = YearMonth.of(2024, 2);
+        List<WorkLog> logs = new ArrayList<>();
+        for (LocalDate date = LocalDate.of(2024, 1, 29); date.isBefore(LocalDate.of(2024, 2, 3)); date = date.plusDays(1)) {
+            logs.add(log(date, 8.0));
+        }
+
+        // Act
+        PayrollResult result = evaluator.evaluate(1L, "John Doe", february, logs, RATE_CENTS);
+
+        // Assert - 24 hours in January leave 12 regular hours for February
+        assertEquals(LocalDate.of(2024, 1, 29), evaluator.firstDayFor(february));
+        assertEquals(1_200, result.getRegularHundredths());
+        assertEquals(400, result.getOvertimeHundredths());
+        assertEquals(1_600, result.getTotalHundredths());
+    }
+
+    @Test
+    void isStandard_OnlyForTheAggregateQueryRules() {
+        // Arrange
+        PayRuleProperties.RuleSet weekend = new PayRuleProperties.RuleSet();
+        weekend.setWeekendMultiplier(1.5);
+
+        // Act & Assert
+        assertTrue(PayRuleEvaluator.STANDARD.isStandard());
+        assertFalse(PayRuleEvaluator.compile(weekend).isStandard());
+        assertEquals(yearMonth.atDay(1), PayRuleEvaluator.STANDARD.firstDayFor(yearMonth));
+    }
+
+    @Test
+    void nullOvertimeMultiplier_PaysHoursAboveDailyThresholdAsRegular() {
+        // Arrange
+        rules.setOvertimeMultiplier(null);
+        rules.setWeeklyThresholdHours(8.0);
+
+        // Act
+        PayrollResult result = evaluate(PayRuleEvaluator.compile(rules),
+                log(LocalDate.of(2024, 1, 2), 10.0),
+                log(LocalDate.of(2024, 1, 3), 10.0));
+
+        // Assert
+        assertEquals(2_000, result.getRegularHundredths());
+        assertEquals(0, result.getOvertimeHundredths());
+        assertEquals(50_000, result.getRegularPayCents());   // 20 hours * $25
+    }
+
+    @Test
+    void nullDoubleTimeMultiplier_TurnsDoubleTimeOff() {
+        // Arrange
+        rules.setDoubleTimeThresholdHours(12.0);
+        rules.setDoubleTimeMultiplier(null);
+
+        // Act
+        PayrollResult result = evaluate(PayRuleEvaluator.compile(rules), log(LocalDate.of(2024, 1, 2), 14.0));
+
+        // Assert
+        assertEquals(800, result.getRegularHundredths());
+        assertEquals(600, result.getOvertimeHundredths());
+        assertEquals(22_500, result.getOvertimePayCents());  // 6 * $25 * 1.5
+    }
+
+    @Test
+    void nullOvertimeMultiplier_KeepsDoubleTime() {
+        // Arrange
+        rules.setOvertimeMultiplier(null);
+        rules.setDoubleTimeThresholdHours(12.0);
+
+        // Act
+        PayrollResult result = evaluate(PayRuleEvaluator.compile(rules), log(LocalDate.of(2024, 1, 2), 14.0));
+
+        // Assert
+        assertEquals(1_200, result.getRegularHundredths());
+        assertEquals(200, result.getOvertimeHundredths());
+        assertEquals(10_000, result.getOvertimePayCents());  // 2 * $25 * 2
+    }
+
+    @Test
+    void compile_DoubleTimeBelowDailyThreshold_ShouldThrow() {
+        // Arrange
+        rules.setDoubleTimeThresholdHours(6.0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> PayRuleEvaluator.compile(rules));
+    }
+
+    @Test
+    void registry_FallsBackToDefaultsForUnknownDepartment() {
+        // Arrange
+        PayRuleProperties properties = new PayRuleProperties();
+        PayRuleProperties.RuleSet operations = new PayRuleProperties.RuleSet();
+        operations.setWeekendMultiplier(2.0);
+        properties.setDepartments(Map.of("Operations", operations));
+
+        // Act
+        PayRuleRegistry registry = new PayRuleRegistry(properties);
+
+        // Assert
+        assertTrue(registry.hasCustomRules("Operations"));
+        assertFalse(registry.hasCustomRules("Engineering"));
+        assertSame(registry.forDepartment("Engineering"), registry.forDepartment(null));
+        assertNotSame(registry.forDepartment("Engineering"), registry.forDepartment("Operations"));
+    }
+}
@@ -0,0 +1,294 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollRunResponse;
+import com.ems.exception.PayrollProcessingException;
+import com.ems.model.PayrollRun;
+import com.ems.model.PayrollSnapshot;
+import com.ems.model.User;
+import com.ems.repository.PayrollAggregateRepository;
+import com.ems.repository.PayrollRunRepository;
+import com.ems.repository.PayrollSnapshotUpsertRepository;
+import com.ems.util.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PayrollBatchServiceTest {
+
+    @Mock
+    private PayrollRunRepository payrollRunRepository;
+
+    @Mock
+    private PayrollAggregateRepository payrollAggregateRepository;
+
+    @Mock
+    private PayrollSnapshotUpsertRepository payrollSnapshotUpsertRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private TaskExecutor taskExecutor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PayrollBatchService payrollBatchService;
+    private YearMonth yearMonth;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        PayrollPricingService payrollPricingService = new PayrollPricingService(
+                new PayRuleRegistry(new PayRuleProperties()), payrollAggregateRepository);
+        payrollBatchService = new PayrollBatchService(payrollRunRepository, payrollAggregateRepository,
+                payrollSnapshotUpsertRepository, payrollPricingService, authService, taskExecutor, transactionManager,
+                meterRegistry, 2, 1, Duration.ofMinutes(2));
+        yearMonth = YearMonth.of(2024, 1);
+    }
+
+    private List<EmployeePayrollAggregate> aggregates(long... userIds) {
+        List<EmployeePayrollAggregate> aggregates = new ArrayList<>();
+        for (long userId : userIds) {
+            aggregates.add(EmployeePayrollAggregate.builder()
+                    .userId(userId)
+                    .firstName("Employee")
+                    .lastName(String.valueOf(userId))
+                    .hourlyRate(25.0)
+                    .totalHours(8.0)
+                    .regularHours(8.0)
+                    .build());
+        }
+        return aggregates;
+    }
+
+    private PayrollRun run(long lastUserId, long processed) {
+        return PayrollRun.builder()
+                .id(5L)
+                .period(yearMonth.toString())
+                .status(PayrollRun.PayrollRunStatus.RUNNING)
+                .chunkSize(2)
+                .commitInterval(1)
+                .lastUserId(lastUserId)
+                .processedCount(processed)
+                .build();
+    }
+
+    @Test
+    void runWalksUsersInChunksAndCheckpointsEach() {
+        // Arrange
+        PayrollRun run = run(0L, 0L);
+        when(payrollRunRepository.claim(5L)).thenReturn(true);
+        when(payrollRunRepository.findById(5L)).thenReturn(Optional.of(run));
+        when(payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, 0L, 2)).thenReturn(aggregates(1, 2));
+        when(payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, 2L, 2)).thenReturn(aggregates(7));
+
+        // Act
+        payrollBatchService.run(5L);
+
+        // Assert
+        InOrder inOrder = inOrder(payrollRunRepository);
+        inOrder.verify(payrollRunRepository).checkpoint(5L, 2L, 2L);
+        inOrder.verify(payrollRunRepository).checkpoint(5L, 7L, 3L);
+        verify(transactionManager, times(2)).commit(any());
+        verify(payrollSnapshotUpsertRepository, times(2)).upsertAll(anyList());
+        assertEquals(PayrollRun.PayrollRunStatus.COMPLETED, run.getStatus());
+        assertEquals(3L, run.getProcessedCount());
+        assertNotNull(run.getEmployeesPerSecond());
+        assertEquals(3.0, meterRegistry.get("payroll.batch.employees").counter().count());
+    }
+
+    @Test
+    void runResumesAfterCheckpoint() {
+        // Arrange
+        PayrollRun run = run(2L, 2L);
+        when(payrollRunRepository.claim(5L)).thenReturn(true);
+        when(payrollRunRepository.findById(5L)).thenReturn(Optional.of(run));
+        when(payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, 2L, 2)).thenReturn(aggregates(7));
+
+        // Act
+        payrollBatchService.run(5L);
+
+        // Assert
+        verify(payrollAggregateRepository, never()).findMonthlyAggregatesAfter(yearMonth, 0L, 2);
+        verify(payrollRunRepository).checkpoint(5L, 7L, 3L);
+        assertEquals(PayrollRun.PayrollRunStatus.COMPLETED, run.getStatus());
+    }
+
+    @Test
+    void failedChunkKeepsLastCommittedCheckpoint() {
+        // Arrange
+        PayrollRun run = run(0L, 0L);
+        when(payrollRunRepository.claim(5L)).thenReturn(true);
+        when(payrollRunRepository.findById(5L)).thenReturn(Optional.of(run));
+        when(payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, 0L, 2)).thenReturn(aggregates(1, 2));
+        when(payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, 2L, 2))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        // Act
+        payrollBatchService.run(5L);
+
+        // Assert
+        verify(transactionManager).rollback(any());
+        assertEquals(PayrollRun.PayrollRunStatus.FAILED, run.getStatus());
+        assertEquals(2L, run.getLastUserId());
+        assertEquals(2L, run.getProcessedCount());
+        assertEquals("connection reset", run.getErrorMessage());
+    }
+
+    @Test
+    void failureMessageIsTruncatedToColumnLength() {
+        // Arrange
+        PayrollRun run = run(0L, 0L);
+        when(payrollRunRepository.claim(5L)).thenReturn(true);
+        when(payrollRunRepository.findById(5L)).thenReturn(Optional.of(run));
+        when(payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, 0L, 2))
+                .thenThrow(new IllegalStateException("x".repeat(2000)));
+
+        // Act
+        payrollBatchService.run(5L);
+
+        // Assert
+        assertEquals(PayrollRun.PayrollRunStatus.FAILED, run.getStatus());
+        assertEquals(JobDispatcher.MAX_ERROR_MESSAGE_LENGTH, run.getErrorMessage().length());
+    }
+
+    @Test
+    void recoverInterruptedRunsRequeuesOnlyRunsWithExpiredHeartbeat() {
+        // Arrange
+        PayrollRun queued = run(0L, 0L);
+        queued.setStatus(PayrollRun.PayrollRunStatus.QUEUED);
+        when(payrollRunRepository.requeueStale(any(LocalDateTime.class))).thenReturn(1);
+        when(payrollRunRepository.findByStatusOrderByCreatedAtAsc(PayrollRun.PayrollRunStatus.QUEUED))
+                .thenReturn(List.of(queued));
+
+        // Act
+        payrollBatchService.recoverInterruptedRuns();
+
+        // Assert
+        verify(payrollRunRepository).requeueStale(argThat(cutoff -> !cutoff.isAfter(LocalDateTime.now().minusMinutes(2))));
+        verify(taskExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void heartbeatRefreshesRunsDispatchedHere() {
+        // Arrange - executor accepts the run but has not started it yet
+        payrollBatchService.dispatch(5L);
+
+        // Act
+        payrollBatchService.heartbeat();
+
+        // Assert
+        verify(payrollRunRepository).heartbeat(eq(Set.of(5L)), eq(PayrollRun.PayrollRunStatus.RUNNING),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotsAreUpsertedByUserAndPeriod() {
+        // Arrange
+        PayrollRun run = run(0L, 0L);
+        when(payrollRunRepository.claim(5L)).thenReturn(true);
+        when(payrollRunRepository.findById(5L)).thenReturn(Optional.of(run));
+        when(payrollAggregateRepository.findMonthlyAggregatesAfter(yearMonth, 0L, 2)).thenReturn(aggregates(1));
+
+        // Act
+        payrollBatchService.run(5L);
+
+        // Assert
+        ArgumentCaptor<List<PayrollSnapshot>> written = ArgumentCaptor.forClass(List.class);
+        verify(payrollSnapshotUpsertRepository).upsertAll(written.capture());
+        assertEquals(1, written.getValue().size());
+        assertEquals(1L, written.getValue().get(0).getUserId());
+        assertEquals("2024-01", written.getValue().get(0).getPeriod());
+        assertEquals(200.0, written.getValue().get(0).getGrossPay());
+    }
+
+    @Test
+    void startRunReturnsUnfinishedRunForSamePeriod() {
+        // Arrange
+        User admin = TestUtil.UserBuilder.aUser().withId(1L).asAdmin().build();
+        when(authService.getCurrentUser()).thenReturn(admin);
+        when(payrollRunRepository.findFirstByPeriodAndStatusInOrderByCreatedAtDesc(eq("2024-01"), anyCollection()))
+                .thenReturn(Optional.of(run(4L, 4L)));
+
+        // Act
+        PayrollRunResponse response = payrollBatchService.startRun(yearMonth);
+
+        // Assert
+        assertEquals(5L, response.getId());
+        verify(payrollRunRepository, never()).save(any());
+        verifyNoInteractions(taskExecutor);
+    }
+
+    @Test
+    void concurrentStartReturnsTheRunThatWon() {
+        // Arrange
+        User admin = TestUtil.UserBuilder.aUser().withId(1L).asAdmin().build();
+        when(authService.getCurrentUser()).thenReturn(admin);
+        when(payrollRunRepository.findFirstByPeriodAndStatusInOrderByCreatedAtDesc(eq("2024-01"), anyCollection()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(run(0L, 0L)));
+        when(payrollRunRepository.save(any(PayrollRun.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_payroll_runs_active_period"));
+
+        // Act
+        PayrollRunResponse response = payrollBatchService.startRun(yearMonth);
+
+        // Assert
+        assertEquals(5L, response.getId());
+        verifyNoInteractions(taskExecutor);
+    }
+
+    @Test
+    void resumeRunIsRejectedWhileAnotherRunForThePeriodIsActive() {
+        // Arrange
+        User admin = TestUtil.UserBuilder.aUser().withId(1L).asAdmin().build();
+        PayrollRun failed = run(2L, 2L);
+        failed.setId(4L);
+        failed.setStatus(PayrollRun.PayrollRunStatus.FAILED);
+        when(authService.getCurrentUser()).thenReturn(admin);
+        when(payrollRunRepository.findById(4L)).thenReturn(Optional.of(failed));
+        when(payrollRunRepository.findFirstByPeriodAndStatusInOrderByCreatedAtDesc(eq("2024-01"), anyCollection()))
+                .thenReturn(Optional.of(run(0L, 0L)));
+
+        // Act & Assert
+        assertThrows(PayrollProcessingException.class, () -> payrollBatchService.resumeRun(4L));
+        verify(payrollRunRepository, never()).save(any());
+    }
+
+    @Test
+    void startRunRequiresAdmin() {
+        // Arrange
+        User employee = TestUtil.UserBuilder.aUser().withId(2L).build();
+        when(authService.getCurrentUser()).thenReturn(employee);
+
+        // Act & Assert
+        assertThrows(PayrollProcessingException.class, () -> payrollBatchService.startRun(yearMonth));
+        verifyNoInteractions(payrollRunRepository);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayrollCalculatorTest {
+
+    private User employee;
+    private YearMonth yearMonth;
+
+    @BeforeEach
+    void setUp() {
+        yearMonth = YearMonth.of(2024, 1);
+        employee = User.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .role(Role.ROLE_EMPLOYEE)
+                .hourlyRate(25.0)
+                .build();
+    }
+
+    private WorkLog log(double hours, WorkLog.WorkLogStatus status) {
+        return WorkLog.builder()
+                .user(employee)
+                .date(LocalDate.of(2024, 1, 2))
+                .hoursWorked(hours)
+                .status(status)
+                .build();
+    }
+
+    @Test
+    void calculateRegularAndOvertimePay() {
+        // Act
+        PayrollResult result = PayrollCalculator.calculate(employee,
+                Arrays.asList(log(10.0, WorkLog.WorkLogStatus.APPROVED)), yearMonth);
+
+        // Assert
+        assertEquals(1000, result.getTotalHundredths());
+        assertEquals(20_000, result.getRegularPayCents());  // 8 hours * $25
+        assertEquals(7_500, result.getOvertimePayCents());  // 2 hours * $25 * 1.5
+        assertEquals(27_500, result.getGrossPayCents());
+        assertEquals(5_500, result.getTaxCents());
+        assertEquals(1_375, result.getInsuranceCents());
+        assertEquals(1_375, result.getPensionCents());
+        assertEquals(19_250, result.getNetPayCents());
+    }
+
+    @Test
+    void onlyApprovedLogsArePaid() {
+        // Act
+        PayrollResult result = PayrollCalculator.calculate(employee, Arrays.asList(
+                log(8.0, WorkLog.WorkLogStatus.APPROVED),
+                log(8.0, WorkLog.WorkLogStatus.PENDING),
+                log(8.0, WorkLog.WorkLogStatus.REJECTED)), yearMonth);
+
+        // Assert
+        assertEquals(800, result.getTotalHundredths());
+        assertEquals(20_000, result.getGrossPayCents());
+    }
+
+    @Test
+    void sumsWithoutFloatingPointDrift() {
+        // Arrange - 31 logs of 7.1 hours drift when summed and multiplied as doubles
+        employee.setHourlyRate(33.33);
+        List<WorkLog> logs = new ArrayList<>();
+        for (int i = 0; i < 31; i++) {
+            logs.add(log(7.1, WorkLog.WorkLogStatus.APPROVED));
+        }
+
+        // Act
+        PayrollResult result = PayrollCalculator.calculate(employee, logs, yearMonth);
+
+        // Assert - 220.10 hours * $33.33 = $7,335.933 -> $7,335.93
+        assertEquals(22_010, result.getRegularHundredths());
+        assertEquals(733_593, result.getRegularPayCents());
+        assertEquals(result.getGrossPayCents(), result.getNetPayCents() + result.getTotalDeductionsCents());
+    }
+
+    @Test
+    void roundsHalfUpToTheCent() {
+        assertEquals(3, PayrollCalculator.divideHalfUp(5, 2));
+        assertEquals(2, PayrollCalculator.divideHalfUp(9, 4));
+        assertEquals(-3, PayrollCalculator.divideHalfUp(-5, 2));
+        // 1 hour overtime at $0.01: 1.5 cents rounds up to 2
+        assertEquals(2, PayrollCalculator.calculate(1L, "x", yearMonth, 0, 100, 1).getOvertimePayCents());
+    }
+
+    @Test
+    void missingHourlyRatePaysNothing() {
+        // Arrange
+        employee.setHourlyRate(null);
+
+        // Act
+        PayrollResult result = PayrollCalculator.calculate(employee,
+                Arrays.asList(log(8.0, WorkLog.WorkLogStatus.APPROVED)), yearMonth);
+
+        // Assert
+        assertEquals(800, result.getTotalHundredths());
+        assertEquals(0, result.getNetPayCents());
+    }
+
+    @Test
+    void serializesToPayrollMapShape() throws Exception {
+        // Arrange
+        PayrollResult result = PayrollCalculator.calculate(1L, "Test User", yearMonth, 16_000, 0, 2_500);
+
+        // Act
+        JsonNode json = new ObjectMapper().valueToTree(result);
+
+        // Assert
+        assertEquals(1L, json.get("employeeId").asLong());
+        assertEquals("Test User", json.get("employeeName").asText());
+        assertEquals("2024-01", json.get("period").asText());
+        assertEquals(160.0, json.get("totalHours").asDouble());
+        assertEquals(4000.0, json.get("earnings").get("regularPay").asDouble());
+        assertEquals(1200.0, json.get("deductions").get("total").asDouble());
+        assertEquals(2800.0, json.get("netPay").asDouble());
+        assertFalse(json.has("grossPayCents"));
+        assertFalse(json.has("totalHundredths"));
+    }
+
+    @Test
+    void serializesWithoutWeekendKeysWhenNoWeekendHours() {
+        // Arrange
+        PayrollResult result = PayrollCalculator.calculate(1L, "Test User", yearMonth, 16_000, 0, 2_500);
+
+        // Act
+        JsonNode json = new ObjectMapper().valueToTree(result);
+        Map<String, Object> payroll = result.toMap();
+
+        // Assert
+        assertFalse(json.has("weekendHours"));
+        assertFalse(json.get("earnings").has("weekendPay"));
+        assertFalse(payroll.containsKey("weekendHours"));
+        assertFalse(((Map<?, ?>) payroll.get("earnings")).containsKey("weekendPay"));
+    }
+
+    @Test
+    void serializesWeekendKeysUnderWeekendHours() {
+        // Arrange - 8 weekday and 8 weekend hours at $25, weekend at double time
+        PayrollResult result = PayrollCalculator.fromPay(1L, "Test User", yearMonth, 800, 0, 800,
+                20_000, 0, 40_000);
+
+        // Act
+        JsonNode json = new ObjectMapper().valueToTree(result);
+        Map<String, Object> payroll = result.toMap();
+
+        // Assert
+        assertEquals(8.0, json.get("weekendHours").asDouble());
+        assertEquals(400.0, json.get("earnings").get("weekendPay").asDouble());
+        assertEquals(8.0, payroll.get("weekendHours"));
+        assertEquals(400.0, ((Map<?, ?>) payroll.get("earnings")).get("weekendPay"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void toMapMatchesJsonShape() {
+        // Act
+        Map<String, Object> payroll = PayrollCalculator.calculate(1L, "Test User", yearMonth, 16_000, 0, 2_500).toMap();
+
+        // Assert
+        assertEquals(160.0, payroll.get("totalHours"));
+        assertEquals(4000.0, ((Map<String, Double>) payroll.get("earnings")).get("grossPay"));
+        assertEquals(2800.0, payroll.get("netPay"));
+    }
+}
@@ -0,0 +1,172 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.repository.PayrollAggregateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class PayrollExportServiceTest {
+
+    @Mock
+    private PayrollAggregateRepository payrollAggregateRepository;
+
+    private PayrollExportService payrollExportService;
+
+    private YearMonth yearMonth;
+
+    @BeforeEach
+    void setUp() {
+        yearMonth = YearMonth.of(2024, 1);
+        payrollExportService = new PayrollExportService(payrollAggregateRepository, new PayrollPricingService(
+                new PayRuleRegistry(new PayRuleProperties()), payrollAggregateRepository));
+    }
+
+    private void streamRows(int count) {
+        doAnswer(invocation -> {
+            Consumer<EmployeePayrollAggregate> consumer = invocation.getArgument(2);
+            for (long id = 1; id <= count; id++) {
+                consumer.accept(EmployeePayrollAggregate.builder()
+                        .userId(id)
+                        .firstName("Doe,")
+                        .lastName("John \"JD\"")
+                        .department("Engineering")
+                        .hourlyRate(25.0)
+                        .totalHours(10.0)
+                        .regularHours(8.0)
+                        .overtimeHours(2.0)
+                        .build());
+            }
+            return null;
+        }).when(payrollAggregateRepository).streamMonthlyAggregates(eq(yearMonth), anyInt(), any());
+    }
+
+    @Test
+    void exportCsvWritesHeaderAndEscapedRows() {
+        // Arrange
+        streamRows(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        payrollExportService.export(yearMonth, PayrollExportService.ExportFormat.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("employeeId,employeeName,department,period"));
+        assertTrue(lines[1].startsWith("1,\"Doe, John \"\"JD\"\"\",Engineering,2024-01,10.0,8.0,2.0,0.0,200.0,75.0,0.0,275.0"));
+    }
+
+    @Test
+    void exportXlsxWritesWorkbookWithSheet() throws Exception {
+        // Arrange
+        streamRows(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        payrollExportService.export(yearMonth, PayrollExportService.ExportFormat.XLSX, out);
+
+        // Assert
+        Set<String> entries = new HashSet<>();
+        String sheet = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    sheet = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        assertTrue(entries.contains("[Content_Types].xml"));
+        assertTrue(entries.contains("xl/workbook.xml"));
+        assertNotNull(sheet);
+        assertEquals(4, sheet.split("<row>", -1).length - 1); // header + 3 rows
+        assertTrue(sheet.contains("John &quot;JD&quot;"));
+    }
+
+    @Test
+    void exportLargeReportWritesRowsWhileStreaming() {
+        // Arrange
+        int employees = 200_000;
+        CountingOutputStream out = new CountingOutputStream();
+        long[] bytesBeforeLastRow = new long[1];
+        doAnswer(invocation -> {
+            Consumer<EmployeePayrollAggregate> consumer = invocation.getArgument(2);
+            for (long id = 1; id <= employees; id++) {
+                if (id == employees) {
+                    bytesBeforeLastRow[0] = out.bytes;
+                }
+                consumer.accept(EmployeePayrollAggregate.builder()
+                        .userId(id)
+                        .firstName("Employee")
+                        .lastName(String.valueOf(id))
+                        .hourlyRate(25.0)
+                        .totalHours(10.0)
+                        .regularHours(8.0)
+                        .overtimeHours(2.0)
+                        .build());
+            }
+            return null;
+        }).when(payrollAggregateRepository).streamMonthlyAggregates(eq(yearMonth), anyInt(), any());
+
+        // Act
+        payrollExportService.export(yearMonth, PayrollExportService.ExportFormat.CSV, out);
+
+        // Assert
+        assertEquals(employees + 1, out.lines);
+        // Rows reach the output while the cursor is still open, bar one write buffer
+        assertTrue(out.bytes - bytesBeforeLastRow[0] < 16 * 1024);
+    }
+
+    @Test
+    void csvEscapeNeutralizesFormulaCells() {
+        // Act & Assert
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\"", PayrollExportService.CsvRowWriter.escape("=HYPERLINK(\"x\")"));
+        assertEquals("'+1", PayrollExportService.CsvRowWriter.escape("+1"));
+        assertEquals("'-2", PayrollExportService.CsvRowWriter.escape("-2"));
+        assertEquals("'@SUM(A1)", PayrollExportService.CsvRowWriter.escape("@SUM(A1)"));
+        assertEquals("-2.5", PayrollExportService.CsvRowWriter.escape(-2.5));
+        assertEquals("Engineering", PayrollExportService.CsvRowWriter.escape("Engineering"));
+    }
+
+    @Test
+    void exportFormatLookupIsCaseInsensitive() {
+        assertEquals(PayrollExportService.ExportFormat.CSV, PayrollExportService.ExportFormat.from("csv").orElseThrow());
+        assertEquals(PayrollExportService.ExportFormat.XLSX, PayrollExportService.ExportFormat.from("XLSX").orElseThrow());
+        assertTrue(PayrollExportService.ExportFormat.from("pdf").isEmpty());
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.ApprovedDay;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.repository.PayrollAggregateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PayrollPricingServiceTest {
+
+    @Mock
+    private PayrollAggregateRepository payrollAggregateRepository;
+
+    private PayrollPricingService payrollPricingService;
+    private YearMonth yearMonth;
+
+    @BeforeEach
+    void setUp() {
+        PayRuleProperties properties = new PayRuleProperties();
+        PayRuleProperties.RuleSet operations = new PayRuleProperties.RuleSet();
+        operations.setWeekendMultiplier(2.0);
+        operations.setWeeklyThresholdHours(40.0);
+        properties.setDepartments(Map.of("Operations", operations));
+        payrollPricingService = new PayrollPricingService(new PayRuleRegistry(properties), payrollAggregateRepository);
+        yearMonth = YearMonth.of(2024, 2);
+    }
+
+    private EmployeePayrollAggregate aggregate(Long userId, String department) {
+        return EmployeePayrollAggregate.builder()
+                .userId(userId)
+                .firstName("Employee")
+                .lastName(String.valueOf(userId))
+                .department(department)
+                .hourlyRate(25.0)
+                .totalHours(10.0)
+                .regularHours(8.0)
+                .overtimeHours(2.0)
+                .build();
+    }
+
+    @Test
+    void standardDepartmentsArePricedFromTheAggregate() {
+        // Act
+        PayrollResult result = payrollPricingService.price(aggregate(1L, "Engineering"), yearMonth);
+
+        // Assert
+        assertEquals(27_500, result.getGrossPayCents());
+        verifyNoInteractions(payrollAggregateRepository);
+    }
+
+    @Test
+    void ruledDepartmentIsPricedFromApprovedDaysInOneQuery() {
+        // Arrange - 2024-02-03 is a Saturday; the ISO week of Feb 1st starts on Monday 2024-01-29
+        when(payrollAggregateRepository.findApprovedDays(List.of(2L, 3L), LocalDate.of(2024, 1, 29),
+                LocalDate.of(2024, 2, 29)))
+                .thenReturn(Map.of(2L, List.of(new ApprovedDay(LocalDate.of(2024, 2, 3), 10.0))));
+
+        // Act
+        List<PayrollResult> results = payrollPricingService.price(
+                List.of(aggregate(1L, "Engineering"), aggregate(2L, "Operations"), aggregate(3L, "Operations")),
+                yearMonth);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), results.stream().map(PayrollResult::getEmployeeId).toList());
+        assertEquals(27_500, results.get(0).getGrossPayCents());
+        assertEquals(1_000, results.get(1).getWeekendHundredths());
+        assertEquals(0, results.get(1).getOvertimeHundredths());
+        assertEquals(50_000, results.get(1).getWeekendPayCents());   // 10 * $25 * 2
+        assertEquals(0, results.get(2).getGrossPayCents());
+        verify(payrollAggregateRepository, times(1)).findApprovedDays(any(), any(), any());
+    }
+}
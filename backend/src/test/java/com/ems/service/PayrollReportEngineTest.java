@@ -0,0 +1,135 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.repository.PayrollAggregateRepository;
+import com.ems.repository.WorkLogArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PayrollReportEngineTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private WorkLogArchiveRepository workLogArchiveRepository;
+
+    private PayrollReportEngine payrollReportEngine;
+    private YearMonth yearMonth;
+
+    @BeforeEach
+    void setUp() {
+        PayrollAggregateRepository payrollAggregateRepository =
+                new PayrollAggregateRepository(jdbcTemplate, workLogArchiveRepository);
+        payrollReportEngine = new PayrollReportEngine(payrollAggregateRepository, new PayrollPricingService(
+                new PayRuleRegistry(new PayRuleProperties()), payrollAggregateRepository));
+        yearMonth = YearMonth.now();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateReportMatchesPerEmployeePayroll() {
+        // Arrange
+        EmployeePayrollAggregate overtime = EmployeePayrollAggregate.builder()
+                .userId(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .department("Engineering")
+                .hourlyRate(25.0)
+                .totalHours(10.0)
+                .regularHours(8.0)
+                .overtimeHours(2.0)
+                .build();
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(Arrays.asList(overtime));
+
+        // Act
+        List<Map<String, Object>> report = payrollReportEngine.generateReport(yearMonth);
+
+        // Assert
+        assertEquals(1, report.size());
+        Map<String, Object> payroll = report.get(0);
+        assertEquals(1L, payroll.get("employeeId"));
+        assertEquals("John Doe", payroll.get("employeeName"));
+        assertEquals(yearMonth.toString(), payroll.get("period"));
+        assertEquals(10.0, payroll.get("totalHours"));
+
+        Map<String, Double> earnings = (Map<String, Double>) payroll.get("earnings");
+        assertEquals(200.0, earnings.get("regularPay")); // 8 hours * $25
+        assertEquals(75.0, earnings.get("overtimePay")); // 2 hours * $25 * 1.5
+        assertEquals(275.0, earnings.get("grossPay"));
+
+        Map<String, Double> deductions = (Map<String, Double>) payroll.get("deductions");
+        assertEquals(82.5, deductions.get("total"), 0.001);
+        assertEquals(192.5, (Double) payroll.get("netPay"), 0.001);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateReportForEmployeeWithoutLogs() {
+        // Arrange
+        EmployeePayrollAggregate idle = EmployeePayrollAggregate.builder()
+                .userId(2L)
+                .firstName("Jane")
+                .lastName("Smith")
+                .build();
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(Arrays.asList(idle));
+
+        // Act
+        List<Map<String, Object>> report = payrollReportEngine.generateReport(yearMonth);
+
+        // Assert
+        assertEquals(0.0, report.get(0).get("totalHours"));
+        assertEquals(0.0, report.get(0).get("netPay"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void queryCountIsConstantAsEmployeeCountGrows() {
+        for (int employees : new int[]{10, 1_000, 20_000}) {
+            // Arrange
+            reset(jdbcTemplate);
+            List<EmployeePayrollAggregate> aggregates = new ArrayList<>(employees);
+            for (long id = 1; id <= employees; id++) {
+                aggregates.add(EmployeePayrollAggregate.builder()
+                        .userId(id)
+                        .firstName("Employee")
+                        .lastName(String.valueOf(id))
+                        .hourlyRate(25.0)
+                        .totalHours(160.0)
+                        .regularHours(160.0)
+                        .build());
+            }
+            when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                    .thenReturn(aggregates);
+
+            // Act
+            List<Map<String, Object>> report = payrollReportEngine.generateReport(yearMonth);
+
+            // Assert
+            assertEquals(employees, report.size());
+            verify(jdbcTemplate, times(1))
+                    .query(anyString(), any(SqlParameterSource.class), any(RowMapper.class));
+        }
+    }
+}
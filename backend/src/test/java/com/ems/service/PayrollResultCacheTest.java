@@ -0,0 +1,184 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.PayrollResult;
+import com.ems.event.UserChangedEvent;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.model.WorkLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayrollResultCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PayrollResultCache payrollResultCache;
+    private YearMonth month;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        payrollResultCache = new PayrollResultCache(meterRegistry, 2, Duration.ofMinutes(1));
+        month = YearMonth.of(2024, 1);
+        loads = new AtomicInteger();
+    }
+
+    private Supplier<PayrollResult> loader(Long userId, YearMonth period) {
+        return () -> {
+            loads.incrementAndGet();
+            return PayrollCalculator.calculate(userId, "John Doe", period, 800, 0, 2500);
+        };
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tags("cache", "payroll", tag, value).functionCounter().count();
+    }
+
+    @Test
+    void get_SecondCall_ShouldHitCache() {
+        // Act
+        PayrollResult first = payrollResultCache.get(1L, month, loader(1L, month));
+        PayrollResult second = payrollResultCache.get(1L, month, loader(1L, month));
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("cache.gets", "result", "hit"));
+        assertEquals(1.0, count("cache.gets", "result", "miss"));
+    }
+
+    @Test
+    void get_OverMaxSize_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        payrollResultCache.get(1L, month, loader(1L, month));
+        payrollResultCache.get(2L, month, loader(2L, month));
+        payrollResultCache.get(1L, month, loader(1L, month));
+
+        // Act
+        payrollResultCache.get(3L, month, loader(3L, month));
+        payrollResultCache.get(1L, month, loader(1L, month));
+
+        // Assert
+        assertEquals(3, loads.get());
+        assertEquals(2, payrollResultCache.size());
+        assertEquals(1.0, count("cache.evictions", "cause", "size"));
+    }
+
+    @Test
+    void onWorkLogChanged_ApprovedHoursMoved_ShouldEvictBothMonths() {
+        // Arrange
+        YearMonth previousMonth = month.minusMonths(1);
+        payrollResultCache.get(1L, month, loader(1L, month));
+        payrollResultCache.get(1L, previousMonth, loader(1L, previousMonth));
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .date(LocalDate.of(2024, 1, 2))
+                .previousDate(LocalDate.of(2023, 12, 29))
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .previousStatus(WorkLog.WorkLogStatus.APPROVED)
+                .build();
+
+        // Act
+        payrollResultCache.onWorkLogChanged(event);
+
+        // Assert
+        assertEquals(0, payrollResultCache.size());
+        assertEquals(2.0, count("cache.evictions", "cause", "explicit"));
+    }
+
+    @Test
+    void onWorkLogChanged_PendingLog_ShouldKeepEntry() {
+        // Arrange
+        payrollResultCache.get(1L, month, loader(1L, month));
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.CREATED)
+                .userId(1L)
+                .date(LocalDate.of(2024, 1, 2))
+                .status(WorkLog.WorkLogStatus.PENDING)
+                .build();
+
+        // Act
+        payrollResultCache.onWorkLogChanged(event);
+
+        // Assert
+        assertEquals(1, payrollResultCache.size());
+    }
+
+    @Test
+    void onUserChanged_HourlyRateChanged_ShouldEvictOnlyThatUser() {
+        // Arrange
+        payrollResultCache.get(1L, month, loader(1L, month));
+        payrollResultCache.get(2L, month, loader(2L, month));
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .fullName("John Doe")
+                .previousFullName("John Doe")
+                .hourlyRate(30.0)
+                .previousHourlyRate(25.0)
+                .build();
+
+        // Act
+        payrollResultCache.onUserChanged(event);
+        payrollResultCache.get(2L, month, loader(2L, month));
+
+        // Assert
+        assertEquals(1, payrollResultCache.size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onUserChanged_DepartmentChanged_ShouldEvictUser() {
+        // Arrange
+        payrollResultCache.get(1L, month, loader(1L, month));
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .fullName("John Doe")
+                .previousFullName("John Doe")
+                .hourlyRate(25.0)
+                .previousHourlyRate(25.0)
+                .department("Finance")
+                .previousDepartment("Engineering")
+                .build();
+
+        // Act
+        payrollResultCache.onUserChanged(event);
+
+        // Assert
+        assertEquals(0, payrollResultCache.size());
+    }
+
+    @Test
+    void get_EvictionDuringLoad_ShouldNotCacheStaleResult() {
+        // Arrange - the change commits and is evicted while the loader still reads the old data
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .hourlyRate(30.0)
+                .previousHourlyRate(25.0)
+                .build();
+        Supplier<PayrollResult> racingLoader = () -> {
+            PayrollResult stale = loader(1L, month).get();
+            payrollResultCache.onUserChanged(event);
+            return stale;
+        };
+
+        // Act
+        payrollResultCache.get(1L, month, racingLoader);
+        payrollResultCache.get(1L, month, loader(1L, month));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1, payrollResultCache.size());
+    }
+}
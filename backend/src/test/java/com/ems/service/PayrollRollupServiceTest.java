@@ -0,0 +1,301 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.event.UserChangedEvent;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.model.PayrollMonthlyRollup;
+import com.ems.model.WorkLog;
+import com.ems.repository.PayrollAggregateRepository;
+import com.ems.repository.PayrollMonthlyRollupRepository;
+import com.ems.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PayrollRollupServiceTest {
+
+    @Mock
+    private PayrollMonthlyRollupRepository payrollMonthlyRollupRepository;
+
+    @Mock
+    private PayrollAggregateRepository payrollAggregateRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PayrollRollupService payrollRollupService;
+
+    private YearMonth currentMonth;
+    private EmployeePayrollAggregate engineer;
+
+    @BeforeEach
+    void setUp() {
+        currentMonth = YearMonth.now();
+        payrollRollupService = new PayrollRollupService(payrollMonthlyRollupRepository, payrollAggregateRepository,
+                new PayrollPricingService(new PayRuleRegistry(new PayRuleProperties()), payrollAggregateRepository),
+                userRepository, transactionManager);
+        engineer = EmployeePayrollAggregate.builder()
+                .userId(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .department("Engineering")
+                .hourlyRate(25.0)
+                .totalHours(8.0)
+                .regularHours(8.0)
+                .build();
+    }
+
+    private PayrollMonthlyRollup rollup(YearMonth month, String department, double grossPay) {
+        return PayrollMonthlyRollup.builder()
+                .period(month.toString())
+                .department(department)
+                .employeeCount(1)
+                .totalHours(160.0)
+                .grossPay(grossPay)
+                .netPay(grossPay * 0.7)
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pastMonthsAreServedFromRollupsAndOpenMonthLive() {
+        // Arrange
+        YearMonth start = currentMonth.minusMonths(23);
+        List<PayrollMonthlyRollup> stored = new ArrayList<>();
+        List<String> built = new ArrayList<>();
+        for (YearMonth month = start; month.isBefore(currentMonth); month = month.plusMonths(1)) {
+            stored.add(rollup(month, "Engineering", 4000.0));
+            built.add(month.toString());
+        }
+        when(payrollMonthlyRollupRepository.findBuiltPeriods(anyCollection())).thenReturn(built);
+        when(payrollMonthlyRollupRepository.findByPeriodIn(anyCollection())).thenReturn(stored);
+        when(payrollAggregateRepository.findMonthlyAggregates(currentMonth)).thenReturn(List.of(engineer));
+        when(userRepository.count()).thenReturn(1L);
+
+        // Act
+        Map<String, Object> summary = payrollRollupService.getPayrollSummary(start, currentMonth);
+
+        // Assert
+        assertEquals(23 * 4000.0 + 200.0, summary.get("totalPayroll"));
+        assertEquals(1, summary.get("totalEmployees"));
+        Map<String, Double> departmentTotals = (Map<String, Double>) summary.get("departmentTotals");
+        assertEquals(23 * 4000.0 + 200.0, departmentTotals.get("Engineering"));
+        verify(payrollAggregateRepository, times(1)).findMonthlyAggregates(any());
+        verify(payrollMonthlyRollupRepository, never()).upsert(any(), any(), anyInt(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void missingClosedMonthIsBuiltOnce() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        when(payrollMonthlyRollupRepository.findBuiltPeriods(anyCollection())).thenReturn(List.of());
+        when(payrollAggregateRepository.findMonthlyAggregates(lastMonth)).thenReturn(List.of(engineer));
+
+        // Act
+        Map<String, Object> summary = payrollRollupService.getPayrollSummary(lastMonth, lastMonth);
+
+        // Assert
+        assertEquals(200.0, summary.get("totalPayroll"));
+        verify(payrollMonthlyRollupRepository).upsert(lastMonth.toString(), "Engineering", 1, 8.0, 200.0,
+                PayrollCalculator.calculate(engineer, lastMonth).getNetPay());
+        verify(payrollMonthlyRollupRepository).markBuilt(lastMonth.toString(), 0);
+        verify(payrollMonthlyRollupRepository, never()).findByPeriodIn(anyCollection());
+    }
+
+    @Test
+    void closedMonthWithoutPayrollIsMarkedBuilt() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        when(payrollMonthlyRollupRepository.findBuiltPeriods(anyCollection())).thenReturn(List.of());
+        when(payrollAggregateRepository.findMonthlyAggregates(lastMonth)).thenReturn(List.of());
+
+        // Act
+        Map<String, Object> summary = payrollRollupService.getPayrollSummary(lastMonth, lastMonth);
+
+        // Assert
+        assertEquals(0.0, summary.get("totalPayroll"));
+        verify(payrollMonthlyRollupRepository).markBuilt(lastMonth.toString(), 0);
+    }
+
+    @Test
+    void builtClosedMonthWithoutRowsIsNotRebuilt() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        when(payrollMonthlyRollupRepository.findBuiltPeriods(anyCollection())).thenReturn(List.of(lastMonth.toString()));
+        when(payrollMonthlyRollupRepository.findByPeriodIn(anyCollection())).thenReturn(List.of());
+
+        // Act
+        Map<String, Object> summary = payrollRollupService.getPayrollSummary(lastMonth, lastMonth);
+
+        // Assert
+        assertEquals(0.0, summary.get("totalPayroll"));
+        verifyNoInteractions(payrollAggregateRepository);
+        verify(payrollMonthlyRollupRepository, never()).markBuilt(any(), anyInt());
+    }
+
+    @Test
+    void rateChangeDropsOnlyMonthsWithTheUsersApprovedHours() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        YearMonth lastYear = currentMonth.minusMonths(12);
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .hourlyRate(30.0)
+                .previousHourlyRate(25.0)
+                .department("Engineering")
+                .previousDepartment("Engineering")
+                .build();
+        when(payrollAggregateRepository.findApprovedMonths(1L, currentMonth)).thenReturn(List.of(lastYear, lastMonth));
+
+        // Act
+        payrollRollupService.onUserChanged(event);
+
+        // Assert
+        verify(payrollMonthlyRollupRepository).invalidatePeriod(lastYear.toString());
+        verify(payrollMonthlyRollupRepository).invalidatePeriod(lastMonth.toString());
+        verify(payrollMonthlyRollupRepository, times(2)).invalidatePeriod(any());
+    }
+
+    @Test
+    void deletedUserDropsMonthsOfItsDepartment() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.DELETED)
+                .userId(1L)
+                .department("Engineering")
+                .build();
+        when(payrollMonthlyRollupRepository.findPeriodsByDepartment("Engineering"))
+                .thenReturn(List.of(lastMonth.toString()));
+
+        // Act
+        payrollRollupService.onUserChanged(event);
+
+        // Assert
+        verify(payrollMonthlyRollupRepository).invalidatePeriod(lastMonth.toString());
+        verify(payrollMonthlyRollupRepository, times(1)).invalidatePeriod(any());
+        verifyNoInteractions(payrollAggregateRepository);
+    }
+
+    @Test
+    void nameChangeKeepsRollups() {
+        // Arrange
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .hourlyRate(25.0)
+                .previousHourlyRate(25.0)
+                .fullName("John Smith")
+                .previousFullName("John Doe")
+                .department("Engineering")
+                .previousDepartment("Engineering")
+                .build();
+
+        // Act
+        payrollRollupService.onUserChanged(event);
+
+        // Assert
+        verifyNoInteractions(payrollMonthlyRollupRepository);
+    }
+
+    @Test
+    void approvedChangeInClosedMonthDropsItsRollup() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.STATUS_CHANGED)
+                .userId(1L)
+                .date(lastMonth.atDay(10))
+                .previousDate(lastMonth.atDay(10))
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .previousStatus(WorkLog.WorkLogStatus.PENDING)
+                .build();
+
+        // Act
+        payrollRollupService.onWorkLogChanged(event);
+
+        // Assert
+        verify(payrollMonthlyRollupRepository, times(1)).invalidatePeriod(lastMonth.toString());
+    }
+
+    @Test
+    void changeInOpenMonthKeepsRollups() {
+        // Arrange
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.CREATED)
+                .userId(1L)
+                .date(currentMonth.atDay(1))
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .build();
+
+        // Act
+        payrollRollupService.onWorkLogChanged(event);
+
+        // Assert
+        verify(payrollMonthlyRollupRepository, never()).invalidatePeriod(any());
+    }
+
+    @Test
+    void buildUsesGenerationReadBeforeAggregating() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        when(payrollMonthlyRollupRepository.findBuiltPeriods(anyCollection())).thenReturn(List.of());
+        when(payrollMonthlyRollupRepository.findGeneration(lastMonth.toString())).thenReturn(Optional.of(3));
+        when(payrollAggregateRepository.findMonthlyAggregates(lastMonth)).thenReturn(List.of(engineer));
+        when(payrollMonthlyRollupRepository.markBuilt(lastMonth.toString(), 3)).thenReturn(0);
+
+        // Act
+        Map<String, Object> summary = payrollRollupService.getPayrollSummary(lastMonth, lastMonth);
+
+        // Assert
+        assertEquals(200.0, summary.get("totalPayroll"));
+        InOrder order = inOrder(payrollMonthlyRollupRepository, payrollAggregateRepository);
+        order.verify(payrollMonthlyRollupRepository).findGeneration(lastMonth.toString());
+        order.verify(payrollAggregateRepository).findMonthlyAggregates(lastMonth);
+        order.verify(payrollMonthlyRollupRepository).deleteByPeriod(lastMonth.toString());
+        order.verify(payrollMonthlyRollupRepository).markBuilt(lastMonth.toString(), 3);
+    }
+
+    @Test
+    void buildCollidingWithConcurrentBuildIsRetried() {
+        // Arrange
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        when(payrollMonthlyRollupRepository.findBuiltPeriods(anyCollection())).thenReturn(List.of());
+        when(payrollAggregateRepository.findMonthlyAggregates(lastMonth)).thenReturn(List.of(engineer));
+        when(payrollMonthlyRollupRepository.markBuilt(lastMonth.toString(), 0))
+                .thenThrow(new DuplicateKeyException("unique_period_department"))
+                .thenReturn(1);
+
+        // Act
+        Map<String, Object> summary = payrollRollupService.getPayrollSummary(lastMonth, lastMonth);
+
+        // Assert
+        assertEquals(200.0, summary.get("totalPayroll"));
+        verify(payrollMonthlyRollupRepository, times(2)).markBuilt(lastMonth.toString(), 0);
+        verify(transactionManager).rollback(any());
+    }
+}
@@ -0,0 +1,285 @@
+package com.ems.service;
+
+import com.ems.config.PayRuleProperties;
+import com.ems.dto.payroll.EmployeePayrollAggregate;
+import com.ems.event.UserChangedEvent;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.model.PayrollSnapshot;
+import com.ems.model.WorkLog;
+import com.ems.repository.PayrollAggregateRepository;
+import com.ems.repository.PayrollSnapshotRepository;
+import com.ems.repository.PayrollSnapshotUpsertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PayrollSnapshotServiceTest {
+
+    @Mock
+    private PayrollSnapshotRepository payrollSnapshotRepository;
+
+    @Mock
+    private PayrollSnapshotUpsertRepository payrollSnapshotUpsertRepository;
+
+    @Mock
+    private PayrollAggregateRepository payrollAggregateRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PayrollSnapshotService payrollSnapshotService;
+
+    private YearMonth closedMonth;
+    private EmployeePayrollAggregate aggregate;
+
+    @BeforeEach
+    void setUp() {
+        closedMonth = YearMonth.now().minusMonths(1);
+        payrollSnapshotService = new PayrollSnapshotService(payrollSnapshotRepository, payrollSnapshotUpsertRepository,
+                payrollAggregateRepository,
+                new PayrollPricingService(new PayRuleRegistry(new PayRuleProperties()), payrollAggregateRepository),
+                transactionManager);
+        aggregate = EmployeePayrollAggregate.builder()
+                .userId(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .department("Engineering")
+                .hourlyRate(25.0)
+                .totalHours(10.0)
+                .regularHours(8.0)
+                .overtimeHours(2.0)
+                .build();
+    }
+
+    @Test
+    void approvedLogChangeRecomputesAffectedUserMonth() {
+        // Arrange
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.STATUS_CHANGED)
+                .userId(1L)
+                .date(closedMonth.atDay(3))
+                .previousDate(closedMonth.atDay(3))
+                .previousStatus(WorkLog.WorkLogStatus.PENDING)
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .build();
+        when(payrollAggregateRepository.findMonthlyAggregate(closedMonth, 1L)).thenReturn(Optional.of(aggregate));
+
+        // Act
+        payrollSnapshotService.onWorkLogChanged(event);
+
+        // Assert
+        ArgumentCaptor<PayrollSnapshot> captor = ArgumentCaptor.forClass(PayrollSnapshot.class);
+        verify(payrollSnapshotUpsertRepository).upsert(captor.capture());
+        verify(transactionManager).commit(any());
+        PayrollSnapshot snapshot = captor.getValue();
+        assertEquals(closedMonth.toString(), snapshot.getPeriod());
+        assertEquals(200.0, snapshot.getRegularPay());
+        assertEquals(75.0, snapshot.getOvertimePay());
+        assertEquals(275.0, snapshot.getGrossPay());
+    }
+
+    @Test
+    void pendingOnlyChangeDoesNotRecompute() {
+        // Arrange
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.CREATED)
+                .userId(1L)
+                .date(LocalDate.now())
+                .status(WorkLog.WorkLogStatus.PENDING)
+                .build();
+
+        // Act
+        payrollSnapshotService.onWorkLogChanged(event);
+
+        // Assert
+        verifyNoInteractions(payrollAggregateRepository);
+        verifyNoInteractions(payrollSnapshotUpsertRepository);
+    }
+
+    @Test
+    void dateMovedAcrossMonthsRecomputesBothMonths() {
+        // Arrange
+        YearMonth earlier = closedMonth.minusMonths(1);
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .date(closedMonth.atDay(1))
+                .previousDate(earlier.atEndOfMonth())
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .previousStatus(WorkLog.WorkLogStatus.APPROVED)
+                .build();
+        when(payrollAggregateRepository.findMonthlyAggregate(any(), any())).thenReturn(Optional.of(aggregate));
+
+        // Act
+        payrollSnapshotService.onWorkLogChanged(event);
+
+        // Assert
+        verify(payrollAggregateRepository).findMonthlyAggregate(closedMonth, 1L);
+        verify(payrollAggregateRepository).findMonthlyAggregate(earlier, 1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void closedMonthPayrollIsServedFromSnapshot() {
+        // Arrange
+        PayrollSnapshot snapshot = PayrollSnapshot.builder()
+                .userId(1L)
+                .period(closedMonth.toString())
+                .employeeName("John Doe")
+                .totalHours(160.0)
+                .regularHours(160.0)
+                .overtimeHours(0.0)
+                .regularPay(4000.0)
+                .overtimePay(0.0)
+                .grossPay(4000.0)
+                .tax(800.0)
+                .insurance(200.0)
+                .pension(200.0)
+                .totalDeductions(1200.0)
+                .netPay(2800.0)
+                .build();
+        when(payrollSnapshotRepository.findByUserIdAndPeriod(1L, closedMonth.toString()))
+                .thenReturn(Optional.of(snapshot));
+
+        // Act
+        Optional<Map<String, Object>> payroll = payrollSnapshotService.findClosedMonthPayroll(1L, closedMonth);
+
+        // Assert
+        assertTrue(payroll.isPresent());
+        assertEquals(2800.0, payroll.get().get("netPay"));
+        assertEquals(4000.0, ((Map<String, Double>) payroll.get().get("earnings")).get("regularPay"));
+        verifyNoInteractions(payrollAggregateRepository);
+    }
+
+    @Test
+    void openMonthIsNotServedFromSnapshot() {
+        // Act
+        Optional<Map<String, Object>> payroll = payrollSnapshotService.findClosedMonthPayroll(1L, YearMonth.now());
+
+        // Assert
+        assertTrue(payroll.isEmpty());
+        verifyNoInteractions(payrollSnapshotRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void closedMonthReportBuildsSnapshotsMissingNextToExistingOnes() {
+        // Arrange
+        PayrollSnapshot existing = PayrollSnapshot.builder()
+                .userId(1L)
+                .period(closedMonth.toString())
+                .build();
+        PayrollSnapshotService.apply(existing, aggregate, PayrollCalculator.calculate(aggregate, closedMonth));
+        EmployeePayrollAggregate newcomer = EmployeePayrollAggregate.builder()
+                .userId(2L)
+                .firstName("Jane")
+                .lastName("Smith")
+                .hourlyRate(30.0)
+                .totalHours(8.0)
+                .regularHours(8.0)
+                .build();
+        when(payrollAggregateRepository.findMonthlyAggregatesWithoutSnapshot(closedMonth))
+                .thenReturn(List.of(newcomer));
+        when(payrollSnapshotRepository.findByPeriodOrderByUserId(closedMonth.toString()))
+                .thenAnswer(invocation -> {
+                    PayrollSnapshot built = PayrollSnapshot.builder()
+                            .userId(2L)
+                            .period(closedMonth.toString())
+                            .build();
+                    PayrollSnapshotService.apply(built, newcomer, PayrollCalculator.calculate(newcomer, closedMonth));
+                    return List.of(existing, built);
+                });
+
+        // Act
+        Optional<List<Map<String, Object>>> report = payrollSnapshotService.findClosedMonthReport(closedMonth);
+
+        // Assert
+        assertTrue(report.isPresent());
+        assertEquals(2, report.get().size());
+        ArgumentCaptor<List<PayrollSnapshot>> saved = ArgumentCaptor.forClass(List.class);
+        verify(payrollSnapshotUpsertRepository).upsertAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(2L, saved.getValue().get(0).getUserId());
+        verify(payrollAggregateRepository, never()).findMonthlyAggregates(any());
+    }
+
+    @Test
+    void recomputeWithoutApprovedHoursDeletesSnapshot() {
+        // Arrange
+        when(payrollAggregateRepository.findMonthlyAggregate(closedMonth, 1L)).thenReturn(Optional.empty());
+
+        // Act
+        payrollSnapshotService.recompute(1L, closedMonth);
+
+        // Assert
+        verify(payrollSnapshotRepository).deleteByUserIdAndPeriod(1L, closedMonth.toString());
+        verifyNoInteractions(payrollSnapshotUpsertRepository);
+    }
+
+    @Test
+    void recomputeCollidingWithConcurrentInsertIsRetried() {
+        // Arrange
+        when(payrollAggregateRepository.findMonthlyAggregate(closedMonth, 1L)).thenReturn(Optional.of(aggregate));
+        when(payrollSnapshotUpsertRepository.upsert(any()))
+                .thenThrow(new DuplicateKeyException("unique_user_period"))
+                .thenReturn(1);
+
+        // Act
+        payrollSnapshotService.recompute(1L, closedMonth);
+
+        // Assert
+        verify(payrollSnapshotUpsertRepository, times(2)).upsert(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void rateChangeDropsUserSnapshots() {
+        // Arrange
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .hourlyRate(30.0)
+                .previousHourlyRate(25.0)
+                .build();
+
+        // Act
+        payrollSnapshotService.onUserChanged(event);
+
+        // Assert
+        verify(payrollSnapshotRepository).deleteByUserId(1L);
+    }
+
+    @Test
+    void statusChangeKeepsUserSnapshots() {
+        // Arrange
+        UserChangedEvent event = UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.STATUS_CHANGED)
+                .userId(1L)
+                .hourlyRate(25.0)
+                .previousHourlyRate(25.0)
+                .build();
+
+        // Act
+        payrollSnapshotService.onUserChanged(event);
+
+        // Assert
+        verifyNoInteractions(payrollSnapshotRepository);
+    }
+}
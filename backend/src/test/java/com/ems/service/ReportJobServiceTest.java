@@ -0,0 +1,314 @@
+package com.ems.service;
+
+import com.ems.dto.payroll.ReportJobResponse;
+import com.ems.exception.PayrollProcessingException;
+import com.ems.exception.ResourceNotFoundException;
+import com.ems.model.ReportJob;
+import com.ems.model.Role;
+import com.ems.model.User;
+import com.ems.repository.ReportJobRepository;
+import com.ems.repository.ReportJobResultRepository;
+import com.ems.repository.UserRepository;
+import com.ems.util.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportJobServiceTest {
+
+    @Mock
+    private ReportJobRepository reportJobRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PayrollExportService payrollExportService;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private ReportJobResultRepository reportJobResultRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskExecutor taskExecutor;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReportJobService reportJobService;
+    private User admin;
+    private YearMonth yearMonth;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reportJobService = new ReportJobService(reportJobRepository, userRepository, payrollExportService,
+                authService, reportJobResultRepository, transactionManager, taskExecutor, meterRegistry,
+                Duration.ofMinutes(2), Duration.ofDays(7));
+        admin = TestUtil.UserBuilder.aUser().withId(1L).asAdmin().build();
+        yearMonth = YearMonth.of(2024, 1);
+    }
+
+    @Test
+    void createJobPersistsAndDispatches() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+        when(reportJobRepository.save(any(ReportJob.class))).thenAnswer(invocation -> {
+            ReportJob job = invocation.getArgument(0);
+            job.setId(10L);
+            return job;
+        });
+
+        // Act
+        ReportJobResponse response = reportJobService.createPayrollReportJob(yearMonth, "csv");
+
+        // Assert
+        assertEquals(10L, response.getId());
+        assertEquals(ReportJob.ReportJobStatus.QUEUED, response.getStatus());
+        assertEquals("CSV", response.getFormat());
+        verify(taskExecutor).execute(any(Runnable.class));
+        assertEquals(1.0, meterRegistry.get("report.jobs.queue.depth").gauge().value());
+    }
+
+    @Test
+    void createJobAsEmployeeIsRejected() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(TestUtil.UserBuilder.aUser().withRole(Role.ROLE_EMPLOYEE).build());
+
+        // Act & Assert
+        assertThrows(PayrollProcessingException.class,
+                () -> reportJobService.createPayrollReportJob(yearMonth, "csv"));
+        verify(reportJobRepository, never()).save(any());
+    }
+
+    @Test
+    void createJobWithUnsupportedFormatIsRejected() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+
+        // Act & Assert
+        assertThrows(PayrollProcessingException.class,
+                () -> reportJobService.createPayrollReportJob(yearMonth, "pdf"));
+    }
+
+    @Test
+    void saturatedExecutorLeavesJobQueued() {
+        // Arrange
+        doThrow(new TaskRejectedException("queue full")).when(taskExecutor).execute(any(Runnable.class));
+
+        // Act
+        reportJobService.dispatch(10L);
+        reportJobService.dispatch(10L);
+
+        // Assert - not remembered as dispatched, so the retry reaches the executor again
+        verify(taskExecutor, times(2)).execute(any(Runnable.class));
+    }
+
+    @Test
+    void runStoresResultAndCompletesJob() throws Exception {
+        // Arrange
+        stubRunningJob();
+        when(userRepository.count()).thenReturn(1L);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("employeeId\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(payrollExportService).export(eq(yearMonth), eq(PayrollExportService.ExportFormat.CSV), any(), any());
+        when(reportJobRepository.complete(eq(10L), anyString(), eq(15L))).thenReturn(true);
+
+        // Act
+        reportJobService.run(10L);
+
+        // Assert
+        verify(reportJobResultRepository).store(eq(10L), any());
+        verify(transactionManager).commit(any());
+        assertEquals(1, meterRegistry.get("report.jobs.duration").timer().count());
+    }
+
+    @Test
+    void runWithLostLeaseDiscardsResult() {
+        // Arrange - the lease expired and another node claimed the job meanwhile
+        stubRunningJob();
+        when(userRepository.count()).thenReturn(1L);
+        when(reportJobRepository.complete(eq(10L), anyString(), anyLong())).thenReturn(false);
+
+        // Act
+        reportJobService.run(10L);
+
+        // Assert
+        verify(reportJobResultRepository, never()).store(any(), any());
+        assertEquals(0, meterRegistry.get("report.jobs.duration").timer().count());
+    }
+
+    @Test
+    void runUsesOneLeaseOwnerForClaimAndCompletion() {
+        // Arrange
+        stubRunningJob();
+        when(reportJobRepository.complete(eq(10L), anyString(), anyLong())).thenReturn(true);
+
+        // Act
+        reportJobService.run(10L);
+
+        // Assert
+        ArgumentCaptor<String> claimedBy = ArgumentCaptor.forClass(String.class);
+        verify(reportJobRepository).claim(eq(10L), claimedBy.capture());
+        verify(reportJobRepository).complete(eq(10L), eq(claimedBy.getValue()), anyLong());
+    }
+
+    @Test
+    void runSkipsJobClaimedElsewhere() {
+        // Arrange
+        when(reportJobRepository.claim(eq(10L), anyString())).thenReturn(false);
+
+        // Act
+        reportJobService.run(10L);
+
+        // Assert
+        verify(reportJobRepository, never()).findById(any());
+        verifyNoInteractions(payrollExportService);
+    }
+
+    @Test
+    void runFailureStoresTruncatedMessageAndNoResult() throws Exception {
+        // Arrange
+        stubRunningJob();
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("employeeId\r\n".getBytes(StandardCharsets.UTF_8));
+            throw new PayrollProcessingException("x".repeat(2_000));
+        }).when(payrollExportService).export(eq(yearMonth), eq(PayrollExportService.ExportFormat.CSV), any(), any());
+
+        // Act
+        reportJobService.run(10L);
+
+        // Assert
+        verify(reportJobRepository).fail(eq(10L), anyString(),
+                argThat(message -> message.length() == JobDispatcher.MAX_ERROR_MESSAGE_LENGTH));
+        verify(reportJobRepository, never()).complete(any(), any(), anyLong());
+        verifyNoInteractions(reportJobResultRepository);
+    }
+
+    @Test
+    void recoverInterruptedJobsRequeuesOnlyJobsWithExpiredHeartbeat() {
+        // Arrange
+        when(reportJobRepository.requeueStale(any(LocalDateTime.class))).thenReturn(1);
+        when(reportJobRepository.findByStatusOrderByCreatedAtAsc(ReportJob.ReportJobStatus.QUEUED))
+                .thenReturn(List.of(ReportJob.builder().id(7L).build()));
+
+        // Act
+        reportJobService.recoverInterruptedJobs();
+
+        // Assert
+        verify(reportJobRepository).requeueStale(argThat(cutoff -> !cutoff.isAfter(LocalDateTime.now().minusMinutes(2))));
+        verify(taskExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void heartbeatRefreshesJobsDispatchedHere() {
+        // Arrange - executor accepts the job but has not run it yet
+        reportJobService.dispatch(10L);
+
+        // Act
+        reportJobService.heartbeat();
+
+        // Assert
+        verify(reportJobRepository).heartbeat(eq(Set.of(10L)), eq(ReportJob.ReportJobStatus.RUNNING),
+                anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void heartbeatWithoutJobsSkipsUpdate() {
+        // Act
+        reportJobService.heartbeat();
+
+        // Assert
+        verifyNoInteractions(reportJobRepository);
+    }
+
+    @Test
+    void deleteExpiredResultsRemovesResultsAndKeepsJobs() {
+        // Arrange
+        when(reportJobResultRepository.deleteFinishedBefore(any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        reportJobService.deleteExpiredResults();
+
+        // Assert
+        LocalDateTime latestCutoff = LocalDateTime.now().minusDays(7);
+        verify(reportJobRepository).clearExpiredResults(argThat(cutoff -> !cutoff.isAfter(latestCutoff)));
+        verify(reportJobResultRepository).deleteFinishedBefore(argThat(cutoff -> !cutoff.isAfter(latestCutoff)));
+        verify(reportJobRepository, never()).delete(any());
+    }
+
+    @Test
+    void getResultServesStoredContent() throws Exception {
+        // Arrange
+        ReportJob job = ReportJob.builder()
+                .id(3L)
+                .format("CSV")
+                .status(ReportJob.ReportJobStatus.COMPLETED)
+                .resultSize(12L)
+                .build();
+        when(reportJobRepository.findById(3L)).thenReturn(Optional.of(job));
+        when(reportJobResultRepository.find(3L))
+                .thenReturn(Optional.of("employeeId\r\n".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        Resource result = reportJobService.getResult(3L);
+
+        // Assert
+        assertEquals("payroll-report-3.csv", result.getFilename());
+        assertEquals(12, result.contentLength());
+    }
+
+    @Test
+    void getResultOfExpiredJobIsNotFound() {
+        // Arrange
+        ReportJob job = ReportJob.builder().id(3L).status(ReportJob.ReportJobStatus.COMPLETED).build();
+        when(reportJobRepository.findById(3L)).thenReturn(Optional.of(job));
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> reportJobService.getResult(3L));
+        verifyNoInteractions(reportJobResultRepository);
+    }
+
+    private void stubRunningJob() {
+        ReportJob job = ReportJob.builder()
+                .id(10L)
+                .period(yearMonth.toString())
+                .format("CSV")
+                .status(ReportJob.ReportJobStatus.RUNNING)
+                .build();
+        when(reportJobRepository.claim(eq(10L), anyString())).thenReturn(true);
+        when(reportJobRepository.findById(10L)).thenReturn(Optional.of(job));
+    }
+}
@@ -0,0 +1,195 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.TimesheetImportResponse;
+import com.ems.dto.worklog.WorkLogBatchItem;
+import com.ems.dto.worklog.WorkLogBatchResponse;
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.User;
+import com.ems.repository.WorkLogArchiveRepository;
+import com.ems.repository.WorkLogBatchRepository;
+import com.ems.util.TestUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimesheetImportServiceTest {
+
+    @Mock
+    private WorkLogBatchRepository workLogBatchRepository;
+
+    @Mock
+    private WorkLogArchiveRepository workLogArchiveRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TimesheetImportService timesheetImportService;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        WorkLogBatchService workLogBatchService = new WorkLogBatchService(workLogBatchRepository,
+                workLogArchiveRepository, eventPublisher, authService,
+                Validation.buildDefaultValidatorFactory().getValidator(), transactionManager,
+                new SimpleMeterRegistry(), 2, 10);
+        timesheetImportService = new TimesheetImportService(workLogBatchService, workLogBatchRepository,
+                authService, new ObjectMapper(), 100, 100);
+        admin = TestUtil.UserBuilder.aUser().withId(9L).asAdmin().build();
+    }
+
+    private static InputStream lines(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void stubKnownUsers(Map<Long, Set<LocalDate>> existingDates) {
+        when(workLogBatchRepository.findUserIdsByUsername(anyCollection()))
+                .thenReturn(Map.of("john", 1L, "jane", 2L));
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L, 2L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(existingDates);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsvWritesResolvedLinesInChunks() throws Exception {
+        // Arrange
+        stubKnownUsers(Map.of());
+        InputStream csv = lines(
+                "username,date,hours_worked,remarks",
+                "john,2024-01-02,8,\"Client visit, on site\"",
+                "jane,2024-01-02,7.5,",
+                "john,2024-01-03,6,\"Said \"\"hi\"\"\"");
+
+        // Act
+        TimesheetImportResponse response =
+                timesheetImportService.importTimesheet(csv, TimesheetImportService.Format.CSV, admin);
+
+        // Assert
+        assertEquals(3, response.getLines());
+        assertEquals(3, response.getCreated());
+        assertTrue(response.getErrors().isEmpty());
+        ArgumentCaptor<List<WorkLogBatchItem>> batches = ArgumentCaptor.forClass(List.class);
+        verify(workLogBatchRepository, times(2)).insertBatch(batches.capture());
+        WorkLogBatchItem first = batches.getAllValues().get(0).get(0);
+        assertEquals(1L, first.getUserId());
+        assertEquals(LocalDate.of(2024, 1, 2), first.getWorkLog().getDate());
+        assertEquals("Client visit, on site", first.getWorkLog().getRemarks());
+        assertEquals("Said \"hi\"", batches.getAllValues().get(1).get(0).getWorkLog().getRemarks());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importLooksUpEachUsernameOnce() throws Exception {
+        // Arrange
+        stubKnownUsers(Map.of());
+        InputStream ndjson = lines(
+                "{\"username\":\"john\",\"date\":\"2024-01-02\",\"hoursWorked\":8}",
+                "{\"username\":\"jane\",\"date\":\"2024-01-02\",\"hoursWorked\":8}",
+                "{\"username\":\"john\",\"date\":\"2024-01-03\",\"hoursWorked\":8}",
+                "{\"username\":\"jane\",\"date\":\"2024-01-03\",\"hoursWorked\":8}");
+
+        // Act
+        TimesheetImportResponse response =
+                timesheetImportService.importTimesheet(ndjson, TimesheetImportService.Format.NDJSON, admin);
+
+        // Assert
+        assertEquals(4, response.getCreated());
+        ArgumentCaptor<Collection<String>> lookups = ArgumentCaptor.forClass(Collection.class);
+        verify(workLogBatchRepository, times(1)).findUserIdsByUsername(lookups.capture());
+        assertEquals(Set.of("john", "jane"), Set.copyOf(lookups.getValue()));
+    }
+
+    @Test
+    void importReportsErrorsPerLine() throws Exception {
+        // Arrange
+        stubKnownUsers(Map.of(1L, Set.of(LocalDate.of(2024, 1, 5))));
+        InputStream ndjson = lines(
+                "{\"username\":\"john\",\"date\":\"2024-01-02\",\"hoursWorked\":8}",
+                "{\"username\":\"ghost\",\"date\":\"2024-01-02\",\"hoursWorked\":8}",
+                "",
+                "not json",
+                "{\"username\":\"jane\",\"date\":\"02/01/2024\",\"hoursWorked\":8}",
+                "{\"username\":\"jane\",\"date\":\"2024-01-04\",\"hoursWorked\":30}",
+                "{\"username\":\"john\",\"date\":\"2024-01-05\",\"hoursWorked\":8}");
+
+        // Act
+        TimesheetImportResponse response =
+                timesheetImportService.importTimesheet(ndjson, TimesheetImportService.Format.NDJSON, admin);
+
+        // Assert
+        assertEquals(6, response.getLines());
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(4, response.getInvalid());
+        assertFalse(response.isErrorsTruncated());
+        Map<Long, TimesheetImportResponse.LineError> byLine = response.getErrors().stream()
+                .collect(Collectors.toMap(TimesheetImportResponse.LineError::getLine, e -> e));
+        assertEquals(Set.of(2L, 4L, 5L, 6L, 7L), byLine.keySet());
+        assertEquals("User not found with username: ghost", byLine.get(2L).getMessage());
+        assertEquals("Date must be formatted as YYYY-MM-DD", byLine.get(5L).getMessage());
+        assertEquals("Hours worked cannot exceed 24", byLine.get(6L).getMessage());
+        assertEquals(WorkLogBatchResponse.ItemStatus.DUPLICATE, byLine.get(7L).getStatus());
+    }
+
+    @Test
+    void importRejectsCsvWithoutRequiredColumns() {
+        // Arrange
+        InputStream csv = lines("username,hours", "john,8");
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class,
+                () -> timesheetImportService.importTimesheet(csv, TimesheetImportService.Format.CSV, admin));
+        verifyNoInteractions(workLogBatchRepository);
+    }
+
+    @Test
+    void importRequiresAdministrator() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(TestUtil.UserBuilder.aUser().withId(1L).build());
+        MockMultipartFile file = new MockMultipartFile("file", "timesheet.csv", "text/csv",
+                "username,date,hoursWorked\njohn,2024-01-02,8".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(UnauthorizedAccessException.class, () -> timesheetImportService.importTimesheet(file));
+        verifyNoInteractions(workLogBatchRepository);
+    }
+
+    @Test
+    void formatIsDetectedFromFileNameOrContentType() {
+        assertEquals(TimesheetImportService.Format.CSV, TimesheetImportService.formatOf("Hours.CSV", null));
+        assertEquals(TimesheetImportService.Format.NDJSON,
+                TimesheetImportService.formatOf("upload", "application/x-ndjson"));
+        assertThrows(ConstraintViolationException.class,
+                () -> TimesheetImportService.formatOf("hours.xlsx", "application/octet-stream"));
+    }
+}
@@ -0,0 +1,181 @@
+package com.ems.service;
+
+import com.ems.event.UserChangedEvent;
+import com.ems.model.User;
+import com.ems.repository.UserTokenStateRepository;
+import com.ems.repository.UserTokenStateRepository.UserTokenState;
+import com.ems.util.TestUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenVersionServiceTest {
+
+    private static final Duration ENTRY_TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private UserTokenStateRepository userTokenStateRepository;
+
+    private final AtomicLong now = new AtomicLong();
+    private TokenVersionService tokenVersionService;
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = new TokenVersionService(userTokenStateRepository, ENTRY_TTL, now::get);
+    }
+
+    @Test
+    void claimsForShouldCarryUserIdRoleAndStoredVersion() {
+        // Arrange
+        User user = TestUtil.UserBuilder.aUser().withId(1L).build();
+        when(userTokenStateRepository.findById(1L)).thenReturn(Optional.of(new UserTokenState(1L, true, 4)));
+
+        // Act
+        Map<String, Object> claims = tokenVersionService.claimsFor(user);
+
+        // Assert
+        assertEquals(1L, claims.get(TokenVersionService.USER_ID_CLAIM));
+        assertEquals("ROLE_EMPLOYEE", claims.get(TokenVersionService.ROLE_CLAIM));
+        assertEquals(4, claims.get(TokenVersionService.VERSION_CLAIM));
+    }
+
+    @Test
+    void isCurrentForUnknownUserShouldLoadOnce() {
+        // Arrange
+        when(userTokenStateRepository.findById(1L)).thenReturn(Optional.of(new UserTokenState(1L, true, 0)));
+
+        // Act
+        tokenVersionService.isCurrent(1L, 0);
+        boolean current = tokenVersionService.isCurrent(1L, 0);
+
+        // Assert
+        assertTrue(current);
+        verify(userTokenStateRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void isCurrentAfterEntryTtlShouldLoadAgain() {
+        // Arrange
+        when(userTokenStateRepository.findById(1L)).thenReturn(
+                Optional.of(new UserTokenState(1L, true, 0)),
+                Optional.empty());
+        tokenVersionService.isCurrent(1L, 0);
+        now.addAndGet(ENTRY_TTL.plusSeconds(1).toNanos());
+
+        // Act
+        boolean current = tokenVersionService.isCurrent(1L, 0);
+
+        // Assert
+        assertFalse(current);
+        verify(userTokenStateRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void userChangeShouldIncrementVersionBeforeCommit() {
+        // Act
+        tokenVersionService.onUserChanging(UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .build());
+
+        // Assert
+        verify(userTokenStateRepository).incrementTokenVersion(1L);
+    }
+
+    @Test
+    void deleteShouldNotIncrementVersion() {
+        // Act
+        tokenVersionService.onUserChanging(UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.DELETED)
+                .userId(1L)
+                .build());
+
+        // Assert
+        verifyNoInteractions(userTokenStateRepository);
+    }
+
+    @Test
+    void userChangeShouldRevokeOldVersionAfterCommit() {
+        // Arrange
+        when(userTokenStateRepository.findById(1L)).thenReturn(
+                Optional.of(new UserTokenState(1L, true, 0)),
+                Optional.of(new UserTokenState(1L, true, 1)));
+        tokenVersionService.isCurrent(1L, 0);
+
+        // Act
+        tokenVersionService.onUserChanged(UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .build());
+
+        // Assert
+        assertFalse(tokenVersionService.isCurrent(1L, 0));
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+    }
+
+    @Test
+    void disabledUserShouldHaveNoCurrentVersion() {
+        // Arrange
+        when(userTokenStateRepository.findById(1L)).thenReturn(Optional.of(new UserTokenState(1L, false, 1)));
+
+        // Act
+        tokenVersionService.onUserChanged(UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.STATUS_CHANGED)
+                .userId(1L)
+                .build());
+
+        // Assert
+        assertFalse(tokenVersionService.isCurrent(1L, 1));
+    }
+
+    @Test
+    void deletedUserShouldBeRevokedWithoutLookup() {
+        // Act
+        tokenVersionService.onUserChanged(UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.DELETED)
+                .userId(1L)
+                .build());
+
+        // Assert
+        assertFalse(tokenVersionService.isCurrent(1L, 0));
+        verifyNoInteractions(userTokenStateRepository);
+    }
+
+    @Test
+    void reloadShouldApplyOnlyChangesSinceLastReload() {
+        // Arrange
+        LocalDateTime first = LocalDateTime.of(2024, 1, 15, 10, 0);
+        LocalDateTime second = first.plusMinutes(1);
+        when(userTokenStateRepository.currentTimestamp()).thenReturn(first, second);
+        when(userTokenStateRepository.findById(1L)).thenReturn(Optional.of(new UserTokenState(1L, true, 0)));
+        tokenVersionService.reload();
+        tokenVersionService.isCurrent(1L, 0);
+        when(userTokenStateRepository.findChangedSince(any())).thenReturn(List.of(
+                new UserTokenState(1L, true, 1),
+                new UserTokenState(2L, true, 7)));
+
+        // Act
+        tokenVersionService.reload();
+
+        // Assert
+        verify(userTokenStateRepository).findChangedSince(argThat(since -> !since.isAfter(first)));
+        assertFalse(tokenVersionService.isCurrent(1L, 0));
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+        assertEquals(1, tokenVersionService.size());
+        verify(userTokenStateRepository, times(1)).findById(1L);
+    }
+}
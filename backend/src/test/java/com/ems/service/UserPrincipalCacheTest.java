@@ -0,0 +1,163 @@
+package com.ems.service;
+
+import com.ems.event.UserChangedEvent;
+import com.ems.model.User;
+import com.ems.repository.UserRepository;
+import com.ems.repository.UserTokenStateRepository;
+import com.ems.repository.UserTokenStateRepository.UserTokenState;
+import com.ems.util.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserTokenStateRepository userTokenStateRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserPrincipalCache userPrincipalCache;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userPrincipalCache = new UserPrincipalCache(userRepository, userTokenStateRepository, meterRegistry, 10,
+                Duration.ofMinutes(10), Duration.ofMinutes(1));
+        testUser = TestUtil.UserBuilder.aUser()
+                .withId(1L)
+                .withUsername("test.user")
+                .build();
+    }
+
+    @Test
+    void findByUsernameShouldQueryOnceAndServeIdLookups() {
+        // Arrange
+        when(userRepository.findByUsername("test.user")).thenReturn(Optional.of(testUser));
+
+        // Act
+        userPrincipalCache.findByUsername("test.user");
+        Optional<User> byUsername = userPrincipalCache.findByUsername("test.user");
+        Optional<User> byId = userPrincipalCache.findById(1L);
+
+        // Assert
+        assertSame(testUser, byUsername.orElseThrow());
+        assertSame(testUser, byId.orElseThrow());
+        verify(userRepository, times(1)).findByUsername("test.user");
+        verify(userRepository, never()).findById(any());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "users-by-username", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void unknownUsernameShouldBeCachedNegatively() {
+        // Arrange
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(UsernameNotFoundException.class, () -> userPrincipalCache.loadUserByUsername("nobody"));
+        assertThrows(UsernameNotFoundException.class, () -> userPrincipalCache.loadUserByUsername("nobody"));
+
+        // Assert
+        verify(userRepository, times(1)).findByUsername("nobody");
+    }
+
+    @Test
+    void invalidateUsernameShouldDropNegativeEntry() {
+        // Arrange
+        when(userRepository.findByUsername("test.user"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(testUser));
+        userPrincipalCache.findByUsername("test.user");
+
+        // Act
+        userPrincipalCache.invalidateUsername("test.user");
+        Optional<User> result = userPrincipalCache.findByUsername("test.user");
+
+        // Assert
+        assertTrue(result.isPresent());
+    }
+
+    @Test
+    void userChangedShouldEvictOldAndNewUsernameAndId() {
+        // Arrange
+        User renamed = TestUtil.UserBuilder.aUser()
+                .withId(1L)
+                .withUsername("renamed.user")
+                .build();
+        when(userRepository.findByUsername("test.user")).thenReturn(Optional.of(testUser), Optional.empty());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        userPrincipalCache.findByUsername("test.user");
+
+        // Act
+        userPrincipalCache.onUserChanged(UserChangedEvent.builder()
+                .type(UserChangedEvent.ChangeType.UPDATED)
+                .userId(1L)
+                .username("renamed.user")
+                .previousUsername("test.user")
+                .build());
+
+        // Assert
+        assertTrue(userPrincipalCache.findByUsername("test.user").isEmpty());
+        assertSame(renamed, userPrincipalCache.findById(1L).orElseThrow());
+        assertSame(renamed, userPrincipalCache.findByUsername("renamed.user").orElseThrow());
+        verify(userRepository, never()).findByUsername("renamed.user");
+    }
+
+    @Test
+    void invalidateShouldDropIdAndUsernameEntries() {
+        // Arrange
+        when(userRepository.findByUsername("test.user")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        userPrincipalCache.findByUsername("test.user");
+
+        // Act
+        userPrincipalCache.invalidate(1L, "test.user");
+        userPrincipalCache.findById(1L);
+
+        // Assert
+        verify(userRepository).findById(1L);
+    }
+
+    @Test
+    void syncShouldEvictUsersChangedOnOtherInstancesOnce() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2024, 1, 15, 10, 0);
+        when(userTokenStateRepository.currentTimestamp())
+                .thenReturn(start, start.plusSeconds(10), start.plusSeconds(20));
+        when(userTokenStateRepository.findChangedSince(any()))
+                .thenReturn(List.of(new UserTokenState(1L, true, 2)));
+        when(userRepository.findByUsername("test.user")).thenReturn(Optional.of(testUser));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        userPrincipalCache.sync();
+        userPrincipalCache.findByUsername("test.user");
+
+        // Act
+        userPrincipalCache.sync();
+        userPrincipalCache.findById(1L);
+        userPrincipalCache.sync();
+        userPrincipalCache.findById(1L);
+        userPrincipalCache.findByUsername("test.user");
+
+        // Assert
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(1)).findByUsername("test.user");
+    }
+}
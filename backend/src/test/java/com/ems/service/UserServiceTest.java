@@ -37,6 +37,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AdminInvariantService adminInvariantService;
+
     @InjectMocks
     private UserService userService;
 
@@ -154,13 +157,14 @@ public class UserServiceTest {
         // Arrange
         when(authService.getCurrentUser()).thenReturn(adminUser);
         when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
-        when(userRepository.findAll()).thenReturn(Arrays.asList(adminUser, employeeUser, testUser));
 
         // Act
         userService.deleteUser(testUser.getId());
 
         // Assert
+        verify(adminInvariantService).ensureNotLastEnabledAdmin(testUser);
         verify(userRepository).delete(testUser);
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -168,7 +172,8 @@ public class UserServiceTest {
         // Arrange
         when(authService.getCurrentUser()).thenReturn(adminUser);
         when(userRepository.findById(adminUser.getId())).thenReturn(Optional.of(adminUser));
-        when(userRepository.findAll()).thenReturn(Arrays.asList(adminUser, employeeUser));
+        doThrow(new UnauthorizedAccessException("Cannot remove or disable the last active administrator"))
+                .when(adminInvariantService).ensureNotLastEnabledAdmin(adminUser);
 
         // Act & Assert
         assertThrows(UnauthorizedAccessException.class,
@@ -197,7 +202,8 @@ public class UserServiceTest {
         // Arrange
         when(authService.getCurrentUser()).thenReturn(adminUser);
         when(userRepository.findById(adminUser.getId())).thenReturn(Optional.of(adminUser));
-        when(userRepository.findAll()).thenReturn(Arrays.asList(adminUser, employeeUser));
+        doThrow(new UnauthorizedAccessException("Cannot remove or disable the last active administrator"))
+                .when(adminInvariantService).ensureNotLastEnabledAdmin(adminUser);
 
         // Act & Assert
         assertThrows(UnauthorizedAccessException.class,
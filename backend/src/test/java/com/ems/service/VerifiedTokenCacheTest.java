@@ -0,0 +1,100 @@
+package com.ems.service;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VerifiedTokenCacheTest {
+
+    @Mock
+    private Claims claims;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong now;
+    private AtomicInteger parses;
+    private Function<String, Claims> parser;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicLong(1_000_000L);
+        parses = new AtomicInteger();
+        parser = token -> {
+            parses.incrementAndGet();
+            return claims;
+        };
+        verifiedTokenCache = new VerifiedTokenCache(meterRegistry, 10, Duration.ofMinutes(15), now::get);
+    }
+
+    @Test
+    void getShouldParseEachTokenOnce() {
+        // Arrange
+        when(claims.getExpiration()).thenReturn(new Date(now.get() + 60_000));
+
+        // Act
+        Claims first = verifiedTokenCache.get("header.payload.signature", parser);
+        Claims second = verifiedTokenCache.get("header.payload.signature", parser);
+
+        // Assert
+        assertSame(claims, first);
+        assertSame(claims, second);
+        assertEquals(1, parses.get());
+        assertEquals(1, meterRegistry.get("jwt.parse").timer().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "jwt-claims", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getAfterTokenExpiredShouldParseAgain() {
+        // Arrange
+        when(claims.getExpiration()).thenReturn(new Date(now.get() + 60_000));
+        verifiedTokenCache.get("header.payload.signature", parser);
+        now.addAndGet(60_000);
+
+        // Act
+        verifiedTokenCache.get("header.payload.signature", parser);
+
+        // Assert
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void getWhenParserFailsShouldNotCache() {
+        // Arrange
+        Function<String, Claims> failing = token -> {
+            throw new IllegalArgumentException("Invalid signature");
+        };
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> verifiedTokenCache.get("forged.token.value", failing));
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void invalidateShouldDropToken() {
+        // Arrange
+        when(claims.getExpiration()).thenReturn(new Date(now.get() + 60_000));
+        verifiedTokenCache.get("header.payload.signature", parser);
+
+        // Act
+        verifiedTokenCache.invalidate("header.payload.signature");
+
+        // Assert
+        assertEquals(0, verifiedTokenCache.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.ems.service;
+
+import com.ems.repository.WorkLogArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkLogArchiveServiceTest {
+
+    @Mock
+    private WorkLogArchiveRepository workLogArchiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkLogArchiveService workLogArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workLogArchiveService = new WorkLogArchiveService(workLogArchiveRepository, transactionManager,
+                meterRegistry, 2, 1);
+    }
+
+    @Test
+    void archiveClosedYearsMovesBatchesInOwnTransactions() {
+        // Arrange
+        LocalDate cutoff = LocalDate.of(2025, 1, 1);
+        when(workLogArchiveRepository.lockArchivableIds(cutoff, 0L, 2)).thenReturn(List.of(3L, 7L));
+        when(workLogArchiveRepository.lockArchivableIds(cutoff, 7L, 2)).thenReturn(List.of(9L));
+        when(workLogArchiveRepository.lockArchivableIds(cutoff, 9L, 2)).thenReturn(List.of());
+
+        // Act
+        long moved = workLogArchiveService.archiveClosedYears(LocalDate.of(2026, 10, 16));
+
+        // Assert
+        assertEquals(3, moved);
+        InOrder inOrder = inOrder(workLogArchiveRepository);
+        inOrder.verify(workLogArchiveRepository).copyToArchive(List.of(3L, 7L));
+        inOrder.verify(workLogArchiveRepository).deleteFromHot(List.of(3L, 7L));
+        inOrder.verify(workLogArchiveRepository).copyToArchive(List.of(9L));
+        inOrder.verify(workLogArchiveRepository).deleteFromHot(List.of(9L));
+        inOrder.verify(workLogArchiveRepository).refreshArchivedBefore();
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(3.0, meterRegistry.get("worklogs.archive.rows").counter().count());
+    }
+
+    @Test
+    void archiveClosedYearsWithNothingToMoveOnlyRefreshesBoundary() {
+        // Arrange
+        when(workLogArchiveRepository.lockArchivableIds(any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        // Act
+        long moved = workLogArchiveService.archiveClosedYears(LocalDate.of(2026, 1, 1));
+
+        // Assert
+        assertEquals(0, moved);
+        verify(workLogArchiveRepository).lockArchivableIds(LocalDate.of(2025, 1, 1), 0L, 2);
+        verify(workLogArchiveRepository, never()).copyToArchive(any());
+        verify(workLogArchiveRepository).refreshArchivedBefore();
+    }
+}
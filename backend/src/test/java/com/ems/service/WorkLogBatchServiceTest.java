@@ -0,0 +1,276 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogBatchItem;
+import com.ems.dto.worklog.WorkLogBatchResponse;
+import com.ems.dto.worklog.WorkLogRequest;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.model.User;
+import com.ems.repository.WorkLogArchiveRepository;
+import com.ems.repository.WorkLogBatchRepository;
+import com.ems.util.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkLogBatchServiceTest {
+
+    @Mock
+    private WorkLogBatchRepository workLogBatchRepository;
+
+    @Mock
+    private WorkLogArchiveRepository workLogArchiveRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WorkLogBatchService workLogBatchService;
+    private User employee;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        workLogBatchService = new WorkLogBatchService(workLogBatchRepository, workLogArchiveRepository,
+                eventPublisher, authService, validator, transactionManager, new SimpleMeterRegistry(),
+                2, 10);
+        employee = TestUtil.UserBuilder.aUser().withId(1L).build();
+        admin = TestUtil.UserBuilder.aUser().withId(9L).asAdmin().build();
+    }
+
+    private WorkLogBatchItem item(Long userId, int day, double hours) {
+        return WorkLogBatchItem.builder()
+                .userId(userId)
+                .workLog(WorkLogRequest.builder()
+                        .date(LocalDate.of(2024, 1, day))
+                        .hoursWorked(hours)
+                        .build())
+                .build();
+    }
+
+    private WorkLogBatchResponse.ItemStatus status(WorkLogBatchResponse response, int index) {
+        return response.getResults().get(index).getStatus();
+    }
+
+    @Test
+    void ingestInsertsValidItemsInBatchesPerChunk() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(Map.of());
+        List<WorkLogBatchItem> items = List.of(item(null, 2, 8.0), item(null, 3, 8.0), item(null, 4, 7.5));
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(items);
+
+        // Assert
+        assertEquals(3, response.getReceived());
+        assertEquals(3, response.getCreated());
+        verify(workLogBatchRepository, times(2)).insertBatch(anyList());
+        verify(workLogBatchRepository, times(2)).findExistingDates(anyCollection(), any(), any());
+        ArgumentCaptor<WorkLogsStatusChangedEvent> events = ArgumentCaptor.forClass(WorkLogsStatusChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(2, 1), events.getAllValues().stream()
+                .map(WorkLogsStatusChangedEvent::getUpdatedCount).toList());
+        assertTrue(events.getAllValues().stream().allMatch(event ->
+                event.getUserMonths().equals(Map.of(1L, Set.of(YearMonth.of(2024, 1))))
+                        && !event.affectsApprovedHours()));
+        assertTrue(items.stream().allMatch(item -> item.getUserId().equals(1L)));
+    }
+
+    @Test
+    void ingestReportsInvalidAndDuplicateItems() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any()))
+                .thenReturn(Map.of(1L, Set.of(LocalDate.of(2024, 1, 2))));
+        List<WorkLogBatchItem> items = List.of(
+                item(null, 2, 8.0),
+                item(null, 3, 25.0),
+                item(2L, 3, 8.0),
+                item(null, 5, 8.0));
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(items);
+
+        // Assert
+        assertEquals(WorkLogBatchResponse.ItemStatus.DUPLICATE, status(response, 0));
+        assertEquals(WorkLogBatchResponse.ItemStatus.INVALID, status(response, 1));
+        assertEquals("Hours worked cannot exceed 24", response.getResults().get(1).getMessage());
+        assertEquals(WorkLogBatchResponse.ItemStatus.INVALID, status(response, 2));
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 3));
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getDuplicates());
+        assertEquals(2, response.getInvalid());
+    }
+
+    @Test
+    void ingestDetectsDuplicatesWithinBatch() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L, 3L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(Map.of());
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(List.of(item(1L, 2, 8.0), item(1L, 2, 6.0),
+                item(3L, 2, 8.0), item(4L, 2, 8.0)));
+
+        // Assert
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 0));
+        assertEquals(WorkLogBatchResponse.ItemStatus.DUPLICATE, status(response, 1));
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 2));
+        assertEquals(WorkLogBatchResponse.ItemStatus.INVALID, status(response, 3));
+        assertEquals("User not found with id: 4", response.getResults().get(3).getMessage());
+    }
+
+    @Test
+    void ingestFallsBackToRowInsertsOnConcurrentConflict() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(Map.of());
+        when(workLogBatchRepository.insertBatch(anyList())).thenThrow(new DuplicateKeyException("unique_user_date"));
+        WorkLogBatchItem first = item(null, 2, 8.0);
+        WorkLogBatchItem second = item(null, 3, 8.0);
+        when(workLogBatchRepository.insert(first)).thenReturn(1);
+        when(workLogBatchRepository.insert(second)).thenThrow(new DuplicateKeyException("unique_user_date"));
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(List.of(first, second));
+
+        // Assert
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 0));
+        assertEquals(WorkLogBatchResponse.ItemStatus.DUPLICATE, status(response, 1));
+        ArgumentCaptor<WorkLogsStatusChangedEvent> event = ArgumentCaptor.forClass(WorkLogsStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1, event.getValue().getUpdatedCount());
+    }
+
+    @Test
+    void ingestReportsForeignKeyFailureAsInvalidNotDuplicate() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L, 3L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(Map.of());
+        DataIntegrityViolationException userDeleted = new DataIntegrityViolationException("fk_work_logs_user",
+                new SQLException("Referential integrity constraint violation", "23503"));
+        when(workLogBatchRepository.insertBatch(anyList())).thenThrow(userDeleted);
+        WorkLogBatchItem first = item(1L, 2, 8.0);
+        WorkLogBatchItem second = item(3L, 2, 8.0);
+        when(workLogBatchRepository.insert(first)).thenReturn(1);
+        when(workLogBatchRepository.insert(second)).thenThrow(userDeleted);
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(List.of(first, second));
+
+        // Assert
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 0));
+        assertEquals(WorkLogBatchResponse.ItemStatus.INVALID, status(response, 1));
+        assertEquals("User not found with id: 3", response.getResults().get(1).getMessage());
+        assertEquals(0, response.getDuplicates());
+    }
+
+    @Test
+    void ingestReportsMissingWorkLogAsInvalid() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(Map.of());
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(
+                List.of(WorkLogBatchItem.builder().build(), item(null, 2, 8.0)));
+
+        // Assert
+        assertEquals(WorkLogBatchResponse.ItemStatus.INVALID, status(response, 0));
+        assertEquals("Work log is required", response.getResults().get(0).getMessage());
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 1));
+    }
+
+    @Test
+    void ingestRejectsItemsInArchivedYears() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        when(workLogArchiveRepository.getArchivedBefore()).thenReturn(LocalDate.of(2024, 1, 1));
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(Map.of());
+        WorkLogBatchItem archived = WorkLogBatchItem.builder()
+                .workLog(WorkLogRequest.builder()
+                        .date(LocalDate.of(2023, 12, 29))
+                        .hoursWorked(8.0)
+                        .build())
+                .build();
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(List.of(archived, item(null, 2, 8.0)));
+
+        // Assert
+        assertEquals(WorkLogBatchResponse.ItemStatus.INVALID, status(response, 0));
+        assertEquals("Work logs before 2024-01-01 are archived", response.getResults().get(0).getMessage());
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 1));
+    }
+
+    @Test
+    void ingestReportsDaysAlreadyInArchiveAsInvalid() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        when(workLogBatchRepository.findExistingUserIds(anyCollection())).thenReturn(Set.of(1L));
+        when(workLogBatchRepository.findExistingDates(anyCollection(), any(), any())).thenReturn(Map.of());
+        WorkLogBatchItem archived = item(null, 2, 8.0);
+        when(workLogBatchRepository.insertBatch(anyList())).thenReturn(List.of(archived));
+
+        // Act
+        WorkLogBatchResponse response = workLogBatchService.ingest(List.of(archived, item(null, 3, 8.0)));
+
+        // Assert
+        assertEquals(WorkLogBatchResponse.ItemStatus.INVALID, status(response, 0));
+        assertEquals("Work log for 2024-01-02 is archived", response.getResults().get(0).getMessage());
+        assertEquals(WorkLogBatchResponse.ItemStatus.CREATED, status(response, 1));
+        ArgumentCaptor<WorkLogsStatusChangedEvent> event = ArgumentCaptor.forClass(WorkLogsStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1, event.getValue().getUpdatedCount());
+    }
+
+    @Test
+    void ingestRejectsOversizedBatch() {
+        // Arrange
+        List<WorkLogBatchItem> items = new ArrayList<>();
+        for (int day = 1; day <= 11; day++) {
+            items.add(item(null, day, 8.0));
+        }
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class, () -> workLogBatchService.ingest(items));
+        verifyNoInteractions(workLogBatchRepository);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogBulkStatusRequest;
+import com.ems.dto.worklog.WorkLogBulkStatusResponse;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogStatusRepository;
+import com.ems.util.TestUtil;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkLogBulkStatusServiceTest {
+
+    @Mock
+    private WorkLogStatusRepository workLogStatusRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private WorkLogBulkStatusService workLogBulkStatusService;
+
+    private User admin;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @BeforeEach
+    void setUp() {
+        admin = TestUtil.UserBuilder.aUser().withId(9L).asAdmin().build();
+        startDate = LocalDate.of(2024, 1, 1);
+        endDate = LocalDate.of(2024, 1, 31);
+    }
+
+    private WorkLogStatusRepository.LockedRow row(long id, long userId, LocalDate date, WorkLog.WorkLogStatus status) {
+        return new WorkLogStatusRepository.LockedRow(id, userId, date, status);
+    }
+
+    @Test
+    void approveDepartmentMonthUsesOneSetBasedUpdate() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+        when(workLogStatusRepository.lockByFilter("IT", startDate, endDate,
+                WorkLog.WorkLogStatus.PENDING, WorkLog.WorkLogStatus.APPROVED)).thenReturn(List.of(
+                row(1L, 1L, LocalDate.of(2024, 1, 2), WorkLog.WorkLogStatus.PENDING),
+                row(2L, 1L, LocalDate.of(2024, 1, 3), WorkLog.WorkLogStatus.PENDING),
+                row(3L, 2L, LocalDate.of(2024, 1, 2), WorkLog.WorkLogStatus.PENDING)));
+        when(workLogStatusRepository.updateByFilter("IT", startDate, endDate,
+                WorkLog.WorkLogStatus.PENDING, WorkLog.WorkLogStatus.APPROVED)).thenReturn(3);
+        WorkLogBulkStatusRequest request = WorkLogBulkStatusRequest.builder()
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .department("IT")
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+
+        // Act
+        WorkLogBulkStatusResponse response = workLogBulkStatusService.updateStatuses(request);
+
+        // Assert
+        assertEquals(3, response.getRequested());
+        assertEquals(3, response.getUpdated());
+        assertEquals(0, response.getSkipped());
+        assertEquals(2, response.getAffectedUsers());
+        ArgumentCaptor<WorkLogsStatusChangedEvent> event = ArgumentCaptor.forClass(WorkLogsStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue().affectsApprovedHours());
+        assertEquals(Set.of(YearMonth.of(2024, 1)), event.getValue().getMonths());
+        verify(workLogStatusRepository, never()).updateByIds(anyCollection(), any());
+    }
+
+    @Test
+    void updateByIdsSplitsLargeIdListsAndCountsSkipped() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+        List<Long> ids = LongStream.rangeClosed(1, WorkLogBulkStatusService.MAX_IDS_PER_STATEMENT + 5).boxed().toList();
+        when(workLogStatusRepository.lockByIds(anyCollection(), eq(WorkLog.WorkLogStatus.REJECTED)))
+                .thenReturn(List.of(row(1L, 1L, LocalDate.of(2024, 1, 2), WorkLog.WorkLogStatus.APPROVED)))
+                .thenReturn(List.of());
+        when(workLogStatusRepository.updateByIds(anyCollection(), eq(WorkLog.WorkLogStatus.REJECTED)))
+                .thenReturn(1)
+                .thenReturn(0);
+        WorkLogBulkStatusRequest request = WorkLogBulkStatusRequest.builder()
+                .status(WorkLog.WorkLogStatus.REJECTED)
+                .ids(ids)
+                .build();
+
+        // Act
+        WorkLogBulkStatusResponse response = workLogBulkStatusService.updateStatuses(request);
+
+        // Assert
+        assertEquals(ids.size(), response.getRequested());
+        assertEquals(1, response.getUpdated());
+        assertEquals(ids.size() - 1, response.getSkipped());
+        verify(workLogStatusRepository, times(2)).updateByIds(anyCollection(), eq(WorkLog.WorkLogStatus.REJECTED));
+        ArgumentCaptor<WorkLogsStatusChangedEvent> event = ArgumentCaptor.forClass(WorkLogsStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertTrue(event.getValue().affectsApprovedHours());
+    }
+
+    @Test
+    void noEventWhenNothingChanged() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+        WorkLogBulkStatusRequest request = WorkLogBulkStatusRequest.builder()
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .ids(List.of(5L))
+                .build();
+
+        // Act
+        WorkLogBulkStatusResponse response = workLogBulkStatusService.updateStatuses(request);
+
+        // Assert
+        assertEquals(1, response.getSkipped());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void requestWithoutIdsOrDateRangeIsRejected() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(admin);
+        WorkLogBulkStatusRequest request = WorkLogBulkStatusRequest.builder()
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .department("IT")
+                .build();
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class, () -> workLogBulkStatusService.updateStatuses(request));
+        verifyNoInteractions(workLogStatusRepository);
+    }
+
+    @Test
+    void employeesCannotChangeStatuses() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(TestUtil.UserBuilder.aUser().withId(1L).build());
+        WorkLogBulkStatusRequest request = WorkLogBulkStatusRequest.builder()
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .ids(List.of(1L))
+                .build();
+
+        // Act & Assert
+        assertThrows(UnauthorizedAccessException.class, () -> workLogBulkStatusService.updateStatuses(request));
+        verifyNoInteractions(workLogStatusRepository);
+    }
+}
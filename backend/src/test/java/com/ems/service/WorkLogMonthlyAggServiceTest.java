@@ -0,0 +1,165 @@
+package com.ems.service;
+
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogMonthlyAggRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkLogMonthlyAggServiceTest {
+
+    @Mock
+    private WorkLogMonthlyAggRepository workLogMonthlyAggRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkLogMonthlyAggService workLogMonthlyAggService;
+    private YearMonth january;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        workLogMonthlyAggService = new WorkLogMonthlyAggService(workLogMonthlyAggRepository, transactionManager,
+                meterRegistry, 2);
+        january = YearMonth.of(2024, 1);
+    }
+
+    private WorkLogMonthlyAggRepository.MonthlyTotal total(long userId, WorkLog.WorkLogStatus status, int logs,
+                                                           String hours) {
+        return new WorkLogMonthlyAggRepository.MonthlyTotal(userId, status, logs, new BigDecimal(hours),
+                BigDecimal.ZERO);
+    }
+
+    @Test
+    void onWorkLogChanged_MovedToAnotherMonth_ShouldRefreshBothMonths() {
+        // Arrange
+        WorkLogChangedEvent event = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.UPDATED)
+                .workLogId(5L)
+                .userId(1L)
+                .date(LocalDate.of(2024, 2, 1))
+                .previousDate(LocalDate.of(2024, 1, 31))
+                .hoursWorked(8.0)
+                .status(WorkLog.WorkLogStatus.PENDING)
+                .build();
+
+        // Act
+        workLogMonthlyAggService.onWorkLogChanged(event);
+
+        // Assert
+        InOrder inOrder = inOrder(workLogMonthlyAggRepository);
+        inOrder.verify(workLogMonthlyAggRepository).lockUsers(Set.of(1L));
+        inOrder.verify(workLogMonthlyAggRepository).refresh(Map.of(1L, Set.of(january, YearMonth.of(2024, 2))));
+    }
+
+    @Test
+    void onWorkLogsStatusChanged_ShouldRefreshEveryAffectedUserMonth() {
+        // Arrange
+        Map<Long, Set<YearMonth>> userMonths = Map.of(1L, Set.of(january), 2L, Set.of(january));
+        WorkLogsStatusChangedEvent event = WorkLogsStatusChangedEvent.builder()
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .approvedHoursChanged(true)
+                .updatedCount(2)
+                .userMonths(userMonths)
+                .build();
+
+        // Act
+        workLogMonthlyAggService.onWorkLogsStatusChanged(event);
+
+        // Assert
+        verify(workLogMonthlyAggRepository).lockUsers(Set.of(1L, 2L));
+        verify(workLogMonthlyAggRepository).refresh(userMonths);
+    }
+
+    @Test
+    void reconcile_ShouldRebuildOnlyDriftedUsers() {
+        // Arrange
+        when(workLogMonthlyAggRepository.computeTotals(january)).thenReturn(Map.of(
+                1L, List.of(total(1L, WorkLog.WorkLogStatus.APPROVED, 2, "16")),
+                2L, List.of(total(2L, WorkLog.WorkLogStatus.PENDING, 1, "8"))));
+        when(workLogMonthlyAggRepository.findStoredTotals(january)).thenReturn(Map.of(
+                1L, List.of(total(1L, WorkLog.WorkLogStatus.APPROVED, 2, "16")),
+                2L, List.of(total(2L, WorkLog.WorkLogStatus.PENDING, 1, "7.5")),
+                3L, List.of(total(3L, WorkLog.WorkLogStatus.PENDING, 1, "8"))));
+
+        // Act
+        int repaired = workLogMonthlyAggService.reconcile(january);
+
+        // Assert
+        assertEquals(2, repaired);
+        verify(workLogMonthlyAggRepository).refresh(Map.of(2L, Set.of(january), 3L, Set.of(january)));
+        verify(transactionManager).commit(any());
+        assertEquals(2.0, meterRegistry.get("worklogs.monthly_agg.repairs").counter().count());
+    }
+
+    @Test
+    void reconcile_WithoutDrift_ShouldNotWrite() {
+        // Arrange
+        when(workLogMonthlyAggRepository.computeTotals(january)).thenReturn(Map.of(
+                1L, List.of(total(1L, WorkLog.WorkLogStatus.APPROVED, 2, "16"))));
+        when(workLogMonthlyAggRepository.findStoredTotals(january)).thenReturn(Map.of(
+                1L, List.of(total(1L, WorkLog.WorkLogStatus.APPROVED, 2, "16"))));
+
+        // Act
+        int repaired = workLogMonthlyAggService.reconcile(january);
+
+        // Assert
+        assertEquals(0, repaired);
+        verify(workLogMonthlyAggRepository, never()).refresh(any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void backfill_ShouldBuildOnlyMissingMonthsOldestFirst() {
+        // Arrange
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(2);
+        when(workLogMonthlyAggRepository.findFirstLogMonth()).thenReturn(first);
+        when(workLogMonthlyAggRepository.findBuiltPeriods(List.of(first, first.plusMonths(1), current)))
+                .thenReturn(Set.of(first.plusMonths(1)));
+
+        // Act
+        int built = workLogMonthlyAggService.backfill();
+
+        // Assert
+        assertEquals(2, built);
+        InOrder inOrder = inOrder(workLogMonthlyAggRepository);
+        inOrder.verify(workLogMonthlyAggRepository).backfill(first);
+        inOrder.verify(workLogMonthlyAggRepository).backfill(current);
+        verify(workLogMonthlyAggRepository, never()).backfill(first.plusMonths(1));
+    }
+
+    @Test
+    void backfill_WithoutLogs_ShouldNotWrite() {
+        // Arrange
+        when(workLogMonthlyAggRepository.findFirstLogMonth()).thenReturn(null);
+
+        // Act
+        int built = workLogMonthlyAggService.backfill();
+
+        // Assert
+        assertEquals(0, built);
+        verify(workLogMonthlyAggRepository, never()).backfill(any());
+    }
+}
@@ -0,0 +1,217 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogResponse;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.event.WorkLogsStatusChangedEvent;
+import com.ems.exception.UnauthorizedAccessException;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogProjectionRepository;
+import com.ems.util.TestUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkLogStreamServiceTest {
+
+    @Mock
+    private WorkLogProjectionRepository workLogProjectionRepository;
+
+    @Mock
+    private AuthService authService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<Runnable> drainTasks;
+    private WorkLogStreamService workLogStreamService;
+    private User employee;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        drainTasks = new ArrayList<>();
+        workLogStreamService = new WorkLogStreamService(workLogProjectionRepository, authService,
+                new ObjectMapper().registerModule(new JavaTimeModule()), drainTasks::add, meterRegistry,
+                2, 3, Duration.ofMinutes(5));
+        employee = TestUtil.UserBuilder.aUser().withId(1L).build();
+        admin = TestUtil.UserBuilder.aUser().withId(9L).asAdmin().build();
+    }
+
+    private WorkLogChangedEvent statusChanged(Long workLogId, Long userId) {
+        return WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.STATUS_CHANGED)
+                .workLogId(workLogId)
+                .userId(userId)
+                .date(LocalDate.of(2024, 1, 2))
+                .hoursWorked(8.0)
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .previousStatus(WorkLog.WorkLogStatus.PENDING)
+                .build();
+    }
+
+    private WorkLogResponse response(Long workLogId, Long userId) {
+        return WorkLogResponse.builder()
+                .id(workLogId)
+                .userId(userId)
+                .date(LocalDate.of(2024, 1, 2))
+                .hoursWorked(8.0)
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .build();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    void onWorkLogChanged_WithoutSubscribers_ShouldNotLoadWorkLog() {
+        // Act
+        workLogStreamService.onWorkLogChanged(statusChanged(5L, 1L));
+
+        // Assert
+        verifyNoInteractions(workLogProjectionRepository);
+        assertEquals(0.0, counter("worklogs.stream.events"));
+    }
+
+    @Test
+    void onWorkLogChanged_ShouldLoadOnceAndQueueForUserAndAdminChannels() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee, TestUtil.UserBuilder.aUser().withId(2L).build(), admin);
+        workLogStreamService.subscribe(false);
+        workLogStreamService.subscribe(false);
+        workLogStreamService.subscribe(true);
+        when(workLogProjectionRepository.findById(5L)).thenReturn(Optional.of(response(5L, 1L)));
+
+        // Act
+        workLogStreamService.onWorkLogChanged(statusChanged(5L, 1L));
+
+        // Assert
+        verify(workLogProjectionRepository, times(1)).findById(5L);
+        assertEquals(2, drainTasks.size());
+        assertEquals(1.0, counter("worklogs.stream.events"));
+    }
+
+    @Test
+    void onWorkLogChanged_DeletedLog_ShouldNotQueryRepository() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        workLogStreamService.subscribe(false);
+        WorkLogChangedEvent deleted = WorkLogChangedEvent.builder()
+                .type(WorkLogChangedEvent.ChangeType.DELETED)
+                .workLogId(5L)
+                .userId(1L)
+                .previousDate(LocalDate.of(2024, 1, 2))
+                .previousStatus(WorkLog.WorkLogStatus.PENDING)
+                .build();
+
+        // Act
+        workLogStreamService.onWorkLogChanged(deleted);
+
+        // Assert
+        verifyNoInteractions(workLogProjectionRepository);
+        assertEquals(1, drainTasks.size());
+    }
+
+    @Test
+    void onWorkLogsStatusChanged_ShouldNotifyOnlyAffectedUsers() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee, TestUtil.UserBuilder.aUser().withId(2L).build());
+        workLogStreamService.subscribe(false);
+        workLogStreamService.subscribe(false);
+        WorkLogsStatusChangedEvent event = WorkLogsStatusChangedEvent.builder()
+                .status(WorkLog.WorkLogStatus.APPROVED)
+                .approvedHoursChanged(true)
+                .updatedCount(3)
+                .userMonths(Map.of(1L, Set.of(YearMonth.of(2024, 1))))
+                .build();
+
+        // Act
+        workLogStreamService.onWorkLogsStatusChanged(event);
+
+        // Assert
+        assertEquals(1, drainTasks.size());
+    }
+
+    @Test
+    void slowConsumer_ShouldBeEvictedWhenBufferIsFull() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        workLogStreamService.subscribe(false);
+        when(workLogProjectionRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(response(invocation.getArgument(0), 1L)));
+
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            workLogStreamService.onWorkLogChanged(statusChanged(id, 1L));
+        }
+
+        // Assert
+        assertEquals(0, workLogStreamService.getSubscriberCount());
+        assertEquals(1.0, counter("worklogs.stream.evictions"));
+        assertEquals(1, drainTasks.size());
+    }
+
+    @Test
+    void saturatedExecutor_ShouldEvictSubscriberInsteadOfBlocking() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WorkLogStreamService saturated = new WorkLogStreamService(workLogProjectionRepository, authService,
+                new ObjectMapper().registerModule(new JavaTimeModule()), task -> {
+                    throw new TaskRejectedException("stream executor is full");
+                }, registry, 2, 3, Duration.ofMinutes(5));
+        saturated.subscribe(false);
+        when(workLogProjectionRepository.findById(1L)).thenReturn(Optional.of(response(1L, 1L)));
+
+        // Act
+        saturated.onWorkLogChanged(statusChanged(1L, 1L));
+
+        // Assert
+        assertEquals(0, saturated.getSubscriberCount());
+        assertEquals(1.0, registry.get("worklogs.stream.evictions").counter().count());
+    }
+
+    @Test
+    void subscribe_AllUsersAsEmployee_ShouldThrowUnauthorized() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+
+        // Act & Assert
+        assertThrows(UnauthorizedAccessException.class, () -> workLogStreamService.subscribe(true));
+        assertEquals(0, workLogStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_OverLimit_ShouldRejectWithServiceUnavailable() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(employee);
+        for (int i = 0; i < 3; i++) {
+            workLogStreamService.subscribe(false);
+        }
+
+        // Act & Assert
+        assertThrows(ResponseStatusException.class, () -> workLogStreamService.subscribe(false));
+        assertEquals(3, workLogStreamService.getSubscriberCount());
+    }
+}
@@ -0,0 +1,169 @@
+package com.ems.service;
+
+import com.ems.dto.worklog.WorkLogRequest;
+import com.ems.dto.worklog.WorkLogUpsertResponse;
+import com.ems.event.WorkLogChangedEvent;
+import com.ems.exception.WorkLogProcessingException;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogArchiveRepository;
+import com.ems.repository.WorkLogUpsertRepository;
+import com.ems.util.TestUtil;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkLogUpsertServiceTest {
+
+    @Mock
+    private WorkLogUpsertRepository workLogUpsertRepository;
+
+    @Mock
+    private WorkLogArchiveRepository workLogArchiveRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WorkLogUpsertService workLogUpsertService;
+    private User employee;
+    private LocalDate date;
+    private WorkLogRequest request;
+
+    @BeforeEach
+    void setUp() {
+        workLogUpsertService = new WorkLogUpsertService(workLogUpsertRepository, workLogArchiveRepository,
+                authService, eventPublisher, transactionManager);
+        employee = TestUtil.UserBuilder.aUser().withId(1L).build();
+        date = LocalDate.of(2024, 1, 2);
+        request = WorkLogRequest.builder()
+                .date(date)
+                .hoursWorked(8.0)
+                .remarks("Regular work day")
+                .build();
+        when(authService.getCurrentUser()).thenReturn(employee);
+    }
+
+    private WorkLogUpsertRepository.UpsertedRow row(String status, int revision) {
+        return WorkLogUpsertRepository.UpsertedRow.builder()
+                .id(7L)
+                .hoursWorked(8.0)
+                .remarks("Regular work day")
+                .status(status)
+                .revision(revision)
+                .build();
+    }
+
+    @Test
+    void upsertReportsCreatedForFirstRevision() {
+        // Arrange
+        when(workLogUpsertRepository.upsert(1L, date, 8.0, "Regular work day"))
+                .thenReturn(Optional.of(row("PENDING", 0)));
+
+        // Act
+        WorkLogUpsertResponse response = workLogUpsertService.upsertWorkLog(request);
+
+        // Assert
+        assertEquals(WorkLogUpsertResponse.Outcome.CREATED, response.getOutcome());
+        assertEquals(7L, response.getWorkLog().getId());
+        assertEquals(200.0, response.getWorkLog().getCalculatedPay());
+        ArgumentCaptor<WorkLogChangedEvent> event = ArgumentCaptor.forClass(WorkLogChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(WorkLogChangedEvent.ChangeType.CREATED, event.getValue().getType());
+    }
+
+    @Test
+    void upsertReportsUpdatedForLaterRevision() {
+        // Arrange
+        when(workLogUpsertRepository.upsert(1L, date, 8.0, "Regular work day"))
+                .thenReturn(Optional.of(row("PENDING", 1)));
+
+        // Act
+        WorkLogUpsertResponse response = workLogUpsertService.upsertWorkLog(request);
+
+        // Assert
+        assertEquals(WorkLogUpsertResponse.Outcome.UPDATED, response.getOutcome());
+        assertEquals(WorkLog.WorkLogStatus.PENDING, response.getWorkLog().getStatus());
+    }
+
+    @Test
+    void upsertLeavesApprovedLogUnchanged() {
+        // Arrange
+        when(workLogUpsertRepository.upsert(1L, date, 8.0, "Regular work day"))
+                .thenReturn(Optional.of(row("APPROVED", 0)));
+
+        // Act
+        WorkLogUpsertResponse response = workLogUpsertService.upsertWorkLog(request);
+
+        // Assert
+        assertEquals(WorkLogUpsertResponse.Outcome.UNCHANGED, response.getOutcome());
+        assertEquals(WorkLog.WorkLogStatus.APPROVED, response.getWorkLog().getStatus());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void upsertRetriesWhenConcurrentInsertWins() {
+        // Arrange
+        when(workLogUpsertRepository.upsert(1L, date, 8.0, "Regular work day"))
+                .thenThrow(new DuplicateKeyException("unique_user_date"))
+                .thenReturn(Optional.of(row("PENDING", 1)));
+
+        // Act
+        WorkLogUpsertResponse response = workLogUpsertService.upsertWorkLog(request);
+
+        // Assert
+        assertEquals(WorkLogUpsertResponse.Outcome.UPDATED, response.getOutcome());
+        verify(transactionManager).rollback(any());
+        verify(workLogUpsertRepository, times(2)).upsert(any(), any(), any(), any());
+    }
+
+    @Test
+    void upsertGivesUpAfterRepeatedConflicts() {
+        // Arrange
+        when(workLogUpsertRepository.upsert(1L, date, 8.0, "Regular work day"))
+                .thenThrow(new DuplicateKeyException("unique_user_date"));
+
+        // Act & Assert
+        assertThrows(WorkLogProcessingException.class, () -> workLogUpsertService.upsertWorkLog(request));
+    }
+
+    @Test
+    void upsertRejectsDayAlreadyInArchive() {
+        // Arrange
+        when(workLogUpsertRepository.upsert(1L, date, 8.0, "Regular work day")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class, () -> workLogUpsertService.upsertWorkLog(request));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void upsertRejectsDatesInArchivedYears() {
+        // Arrange
+        when(workLogArchiveRepository.getArchivedBefore()).thenReturn(LocalDate.of(2025, 1, 1));
+
+        // Act & Assert
+        assertThrows(ConstraintViolationException.class, () -> workLogUpsertService.upsertWorkLog(request));
+        verifyNoInteractions(workLogUpsertRepository, transactionManager);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ems.service;
+
+import com.ems.dto.MonthlyWorkTotals;
+import com.ems.model.User;
+import com.ems.model.WorkLog;
+import com.ems.repository.WorkLogSummaryRepository;
+import com.ems.util.TestUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WorkSummaryServiceTest {
+
+    @Mock
+    private WorkLogSummaryRepository workLogSummaryRepository;
+
+    @Mock
+    private AuthService authService;
+
+    @InjectMocks
+    private WorkSummaryService workSummaryService;
+
+    private User employee;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @BeforeEach
+    void setUp() {
+        employee = TestUtil.UserBuilder.aUser().withId(1L).build();
+        startDate = LocalDate.of(2023, 12, 1);
+        endDate = LocalDate.of(2024, 1, 31);
+        when(authService.getCurrentUser()).thenReturn(employee);
+    }
+
+    private WorkLogSummaryRepository.MonthlyStatusAggregate row(YearMonth month, WorkLog.WorkLogStatus status,
+                                                               int logs, String hours, String overtime) {
+        return new WorkLogSummaryRepository.MonthlyStatusAggregate(month, status, logs,
+                new BigDecimal(hours), new BigDecimal(overtime));
+    }
+
+    @Test
+    void foldsStatusRowsIntoOneSummaryPerMonth() {
+        // Arrange - same figures as MonthlyWorkSummaryTest: 8 + 9 approved, 7.5 pending
+        YearMonth december = YearMonth.of(2023, 12);
+        when(workLogSummaryRepository.findMonthlyStatusAggregates(1L, startDate, endDate)).thenReturn(List.of(
+                row(december, WorkLog.WorkLogStatus.APPROVED, 2, "17.00", "1.00"),
+                row(december, WorkLog.WorkLogStatus.PENDING, 1, "7.50", "0.00")));
+
+        // Act
+        List<MonthlyWorkTotals> summaries = workSummaryService.getMonthlyWorkSummary(startDate, endDate);
+
+        // Assert
+        assertEquals(1, summaries.size());
+        MonthlyWorkTotals summary = summaries.get(0);
+        assertEquals(december, summary.getYearMonth());
+        assertEquals(24.5, summary.getTotalHoursWorked());
+        assertEquals(17.0, summary.getApprovedHours());
+        assertEquals(7.5, summary.getPendingHours());
+        assertEquals(1.0, summary.getOvertimeHours());
+        assertEquals(8.17, summary.getAverageHoursPerDay());
+        assertEquals(3, summary.getWorkDaysCount());
+        assertEquals(2, summary.getApprovedWorkLogs());
+        assertEquals(1, summary.getPendingWorkLogs());
+    }
+
+    @Test
+    void rejectedLogsCountTowardsTotalsOnly() {
+        // Arrange
+        YearMonth january = YearMonth.of(2024, 1);
+        when(workLogSummaryRepository.findMonthlyStatusAggregates(1L, startDate, endDate)).thenReturn(List.of(
+                row(january, WorkLog.WorkLogStatus.REJECTED, 1, "4.00", "0.00")));
+
+        // Act
+        MonthlyWorkTotals summary = workSummaryService.getMonthlyWorkSummary(startDate, endDate).get(0);
+
+        // Assert
+        assertEquals(4.0, summary.getTotalHoursWorked());
+        assertEquals(0.0, summary.getApprovedHours());
+        assertEquals(0.0, summary.getPendingHours());
+        assertEquals(1, summary.getTotalWorkLogs());
+    }
+
+    @Test
+    void emptyRangeHasNoSummaries() {
+        // Arrange
+        when(workLogSummaryRepository.findMonthlyStatusAggregates(1L, startDate, endDate)).thenReturn(List.of());
+
+        // Act & Assert
+        assertTrue(workSummaryService.getMonthlyWorkSummary(startDate, endDate).isEmpty());
+    }
+}
@@ -80,6 +80,12 @@ public class TestCleanup {
     @Transactional
     public void truncateAllTables() {
         List<String> tables = List.of(
+            "payroll_runs",
+            "report_jobs",
+            "payroll_monthly_rollups",
+            "payroll_snapshots",
+            "work_log_monthly_agg",
+            "work_logs_archive",
             "work_logs",
             "users"
         );
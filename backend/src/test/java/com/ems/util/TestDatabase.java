@@ -87,6 +87,12 @@ public final class TestDatabase {
     public static void resetDatabase() {
         if (jdbcTemplate != null) {
             jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            jdbcTemplate.execute("TRUNCATE TABLE payroll_runs");
+            jdbcTemplate.execute("TRUNCATE TABLE report_jobs");
+            jdbcTemplate.execute("TRUNCATE TABLE payroll_monthly_rollups");
+            jdbcTemplate.execute("TRUNCATE TABLE payroll_snapshots");
+            jdbcTemplate.execute("TRUNCATE TABLE work_log_monthly_agg");
+            jdbcTemplate.execute("TRUNCATE TABLE work_logs_archive");
             jdbcTemplate.execute("TRUNCATE TABLE work_logs");
             jdbcTemplate.execute("TRUNCATE TABLE users");
             jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
@@ -1,4 +1,14 @@
 -- Drop tables if they exist
+DROP VIEW IF EXISTS work_logs_all;
+DROP TABLE IF EXISTS payroll_runs;
+DROP TABLE IF EXISTS report_job_results;
+DROP TABLE IF EXISTS report_jobs;
+DROP TABLE IF EXISTS payroll_rollup_periods;
+DROP TABLE IF EXISTS payroll_monthly_rollups;
+DROP TABLE IF EXISTS payroll_snapshots;
+DROP TABLE IF EXISTS work_log_monthly_agg_periods;
+DROP TABLE IF EXISTS work_log_monthly_agg;
+DROP TABLE IF EXISTS work_logs_archive;
 DROP TABLE IF EXISTS work_logs;
 DROP TABLE IF EXISTS users;
 
@@ -18,6 +28,8 @@ CREATE TABLE users (
     account_non_expired BOOLEAN DEFAULT true,
     account_non_locked BOOLEAN DEFAULT true,
     credentials_non_expired BOOLEAN DEFAULT true,
+    token_version INT NOT NULL DEFAULT 0,
+    token_changed_at TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -30,19 +42,158 @@ CREATE TABLE work_logs (
     hours_worked DECIMAL(5,2) NOT NULL,
     remarks TEXT,
     status VARCHAR(20) DEFAULT 'PENDING',
+    revision INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     CONSTRAINT unique_user_date UNIQUE (user_id, date)
 );
 
+-- Create work_logs_archive table
+CREATE TABLE work_logs_archive (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    hours_worked DECIMAL(5,2) NOT NULL,
+    remarks TEXT,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT unique_archive_user_date UNIQUE (user_id, date)
+);
+
+-- Create work_logs_all view
+CREATE VIEW work_logs_all AS
+    SELECT id, user_id, date, hours_worked, remarks, status, created_at, updated_at FROM work_logs
+    UNION ALL
+    SELECT id, user_id, date, hours_worked, remarks, status, created_at, updated_at FROM work_logs_archive;
+
+-- Create work_log_monthly_agg table
+CREATE TABLE work_log_monthly_agg (
+    user_id BIGINT NOT NULL,
+    period VARCHAR(7) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    log_count INT NOT NULL,
+    total_hours DECIMAL(7,2) NOT NULL,
+    overtime_hours DECIMAL(7,2) NOT NULL,
+    PRIMARY KEY (user_id, period, status),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Create work_log_monthly_agg_periods table
+CREATE TABLE work_log_monthly_agg_periods (
+    period VARCHAR(7) PRIMARY KEY,
+    built_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create payroll_snapshots table
+CREATE TABLE payroll_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    period VARCHAR(7) NOT NULL,
+    employee_name VARCHAR(101),
+    department VARCHAR(50),
+    total_hours DECIMAL(7,2) NOT NULL,
+    regular_hours DECIMAL(7,2) NOT NULL,
+    overtime_hours DECIMAL(7,2) NOT NULL,
+    weekend_hours DECIMAL(7,2) NOT NULL DEFAULT 0,
+    regular_pay DECIMAL(12,2) NOT NULL,
+    overtime_pay DECIMAL(12,2) NOT NULL,
+    weekend_pay DECIMAL(12,2) NOT NULL DEFAULT 0,
+    gross_pay DECIMAL(12,2) NOT NULL,
+    tax DECIMAL(12,2) NOT NULL,
+    insurance DECIMAL(12,2) NOT NULL,
+    pension DECIMAL(12,2) NOT NULL,
+    total_deductions DECIMAL(12,2) NOT NULL,
+    net_pay DECIMAL(12,2) NOT NULL,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT unique_user_period UNIQUE (user_id, period)
+);
+
+-- Create payroll_monthly_rollups table
+CREATE TABLE payroll_monthly_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    period VARCHAR(7) NOT NULL,
+    department VARCHAR(50) NOT NULL,
+    employee_count INT NOT NULL,
+    total_hours DECIMAL(12,2) NOT NULL,
+    gross_pay DECIMAL(14,2) NOT NULL,
+    net_pay DECIMAL(14,2) NOT NULL,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT unique_period_department UNIQUE (period, department)
+);
+
+-- Create payroll_rollup_periods table
+CREATE TABLE payroll_rollup_periods (
+    period VARCHAR(7) PRIMARY KEY,
+    generation INT NOT NULL DEFAULT 0,
+    built_generation INT,
+    computed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create report_jobs table
+CREATE TABLE report_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    period VARCHAR(7) NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    progress INT DEFAULT 0,
+    requested_by BIGINT,
+    lease_owner VARCHAR(36),
+    result_size BIGINT,
+    error_message VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    heartbeat_at TIMESTAMP,
+    FOREIGN KEY (requested_by) REFERENCES users(id) ON DELETE SET NULL
+);
+
+-- Create report_job_results table
+CREATE TABLE report_job_results (
+    job_id BIGINT PRIMARY KEY,
+    content BLOB NOT NULL,
+    FOREIGN KEY (job_id) REFERENCES report_jobs(id) ON DELETE CASCADE
+);
+
+-- Create payroll_runs table
+CREATE TABLE payroll_runs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    period VARCHAR(7) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    chunk_size INT NOT NULL,
+    commit_interval INT NOT NULL,
+    last_user_id BIGINT NOT NULL DEFAULT 0,
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    employees_per_second DOUBLE,
+    requested_by BIGINT,
+    error_message VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    heartbeat_at TIMESTAMP,
+    active_period VARCHAR(7) GENERATED ALWAYS AS (CASE WHEN status IN ('QUEUED', 'RUNNING') THEN period END),
+    CONSTRAINT uk_payroll_runs_active_period UNIQUE (active_period),
+    FOREIGN KEY (requested_by) REFERENCES users(id) ON DELETE SET NULL
+);
+
 -- Create indexes
 CREATE INDEX idx_work_logs_user_id ON work_logs(user_id);
 CREATE INDEX idx_work_logs_date ON work_logs(date);
 CREATE INDEX idx_work_logs_status ON work_logs(status);
+CREATE INDEX idx_work_logs_user_date ON work_logs(user_id, date, id);
+CREATE INDEX idx_work_logs_archive_date ON work_logs_archive(date);
+CREATE INDEX idx_payroll_snapshots_period ON payroll_snapshots(period);
+CREATE INDEX idx_work_log_monthly_agg_period ON work_log_monthly_agg(period);
+CREATE INDEX idx_report_jobs_status ON report_jobs(status, created_at);
+CREATE INDEX idx_payroll_runs_period_status ON payroll_runs(period, status);
 CREATE INDEX idx_users_username ON users(username);
 CREATE INDEX idx_users_email ON users(email);
-CREATE INDEX idx_users_role ON users(role);
+CREATE INDEX idx_users_role_enabled ON users(role, enabled);
+CREATE INDEX idx_users_token_changed_at ON users(token_changed_at);
 
 -- Create trigger for updated_at timestamp
 CREATE TRIGGER users_update_timestamp
@@ -58,8 +209,29 @@ CREATE TRIGGER work_logs_update_timestamp
 -- Comments
 COMMENT ON TABLE users IS 'Stores user information including employees and administrators';
 COMMENT ON TABLE work_logs IS 'Stores daily work logs for employees';
+COMMENT ON TABLE work_logs_archive IS 'Approved and rejected work logs of closed years, moved out of work_logs';
+COMMENT ON TABLE work_log_monthly_agg IS 'Work log count and hours per user, month and status, maintained on every work log write';
+COMMENT ON TABLE work_log_monthly_agg_periods IS 'Months whose work_log_monthly_agg rows were backfilled for every user; other months are read from the logs';
+COMMENT ON TABLE payroll_snapshots IS 'Materialized monthly payroll per employee, refreshed on approved work log changes';
+COMMENT ON TABLE payroll_monthly_rollups IS 'Payroll totals per closed month and department';
+COMMENT ON TABLE payroll_rollup_periods IS 'Build state of each closed month''s payroll_monthly_rollups, including months without payroll';
+COMMENT ON TABLE report_jobs IS 'Background payroll report jobs';
+COMMENT ON TABLE report_job_results IS 'Result file of each completed report job, until it expires';
+COMMENT ON TABLE payroll_runs IS 'Chunked month-end payroll batch runs and their checkpoints';
 
 COMMENT ON COLUMN users.role IS 'User role: ROLE_ADMIN or ROLE_EMPLOYEE';
 COMMENT ON COLUMN users.hourly_rate IS 'Employee''s hourly pay rate';
+COMMENT ON COLUMN users.token_version IS 'Incremented on every change that revokes the user''s tokens; signed into each token';
+COMMENT ON COLUMN users.token_changed_at IS 'When token_version last changed';
 COMMENT ON COLUMN work_logs.status IS 'Work log status: PENDING, APPROVED, or REJECTED';
 COMMENT ON COLUMN work_logs.hours_worked IS 'Number of hours worked (max 2 decimal places)';
+COMMENT ON COLUMN work_logs.revision IS 'Times the log was overwritten by an upsert; 0 for a log as first written';
+COMMENT ON COLUMN payroll_snapshots.period IS 'Pay period as YYYY-MM';
+COMMENT ON COLUMN payroll_rollup_periods.generation IS 'Incremented by every invalidation of the month';
+COMMENT ON COLUMN payroll_rollup_periods.built_generation IS 'Generation the current rollup rows were built from; the month is built while it equals generation';
+COMMENT ON COLUMN report_jobs.status IS 'Job status: QUEUED, RUNNING, COMPLETED, or FAILED';
+COMMENT ON COLUMN report_jobs.heartbeat_at IS 'Last heartbeat of the node running the job; stale RUNNING jobs are queued again';
+COMMENT ON COLUMN report_jobs.lease_owner IS 'Instance holding the job while RUNNING; only it may update progress or finish the job';
+COMMENT ON COLUMN payroll_runs.last_user_id IS 'Highest user id of the last committed chunk; the run resumes after it';
+COMMENT ON COLUMN payroll_runs.heartbeat_at IS 'Last heartbeat of the node executing the run; stale RUNNING runs are queued again';
+COMMENT ON COLUMN payroll_runs.active_period IS 'Period while the run is QUEUED or RUNNING, NULL otherwise; unique so a period has one active run';